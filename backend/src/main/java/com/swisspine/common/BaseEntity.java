@@ -23,8 +23,21 @@ import java.time.Instant;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 
+    /**
+     * Ids per sequence call. Hibernate's pooled optimizer hands out the block
+     * (value - ID_ALLOCATION_SIZE, value] in memory, so the database sequences
+     * must use the same INCREMENT BY (see V5 migration).
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Sequence-generated id. Unlike IDENTITY this lets Hibernate assign ids
+     * before flushing, which keeps JDBC insert batching enabled. The sequence
+     * is {@code <table>_id_seq} (see TableSequenceNamingStrategy).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "table_id_seq")
+    @SequenceGenerator(name = "table_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @CreatedDate
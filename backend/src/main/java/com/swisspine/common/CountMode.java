@@ -0,0 +1,45 @@
+package com.swisspine.common;
+
+import com.swisspine.exception.BusinessRuleViolationException;
+
+import java.util.Locale;
+
+/**
+ * How a paged list endpoint determines its total element count.
+ *
+ * @author SwissPine Engineering Team
+ */
+public enum CountMode {
+
+    /**
+     * Run an exact COUNT(*) with the same predicate (default).
+     */
+    EXACT,
+
+    /**
+     * Count exactly up to a threshold, above it use the PostgreSQL planner's
+     * row estimate.
+     */
+    ESTIMATE,
+
+    /**
+     * Skip counting entirely; totals are omitted from the response.
+     */
+    NONE;
+
+    /**
+     * Parse the {@code count} request parameter (case-insensitive).
+     * Null or blank selects {@link #EXACT}.
+     */
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleViolationException(
+                    "Invalid count mode '" + value + "'. Allowed values: exact, estimate, none");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.swisspine.common;
+
+import com.swisspine.exception.BusinessRuleViolationException;
+
+import java.util.Locale;
+
+/**
+ * Output formats supported by streaming exports.
+ *
+ * @author SwissPine Engineering Team
+ */
+public enum ExportFormat {
+
+    /**
+     * Newline-delimited JSON: one object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * RFC 4180 CSV with a header row.
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Parse the {@code format} request parameter (case-insensitive).
+     * Null or blank selects {@link #NDJSON}.
+     */
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleViolationException(
+                    "Invalid export format '" + value + "'. Allowed values: ndjson, csv");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.swisspine.common;
+
+import com.swisspine.exception.BusinessRuleViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination ordered by (created_at DESC, id DESC).
+ *
+ * The cursor carries the sort key of the last row of a page so the next page
+ * can be fetched with a range predicate instead of OFFSET. Clients must treat
+ * the encoded value as opaque.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record KeysetCursor(Instant createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encode this cursor as a URL-safe token.
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     * Returns null for a blank token, which denotes the first page.
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new BusinessRuleViolationException("Invalid pagination cursor");
+            }
+            return new KeysetCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessRuleViolationException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.swisspine.common;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Page request that reads one row past the end of the requested page.
+ *
+ * The offset stays at {@code page * size} while the limit is {@code size + 1},
+ * so the caller can tell whether a next page exists without a count query.
+ * Only meant to be passed to List-returning repository queries.
+ *
+ * @author SwissPine Engineering Team
+ */
+public final class LookAheadPageRequest extends PageRequest {
+
+    private final int requestedSize;
+
+    private LookAheadPageRequest(int page, int size) {
+        super(page, size + 1, Sort.unsorted());
+        this.requestedSize = size;
+    }
+
+    public static LookAheadPageRequest of(int page, int size) {
+        return new LookAheadPageRequest(page, size);
+    }
+
+    @Override
+    public long getOffset() {
+        return (long) getPageNumber() * (long) requestedSize;
+    }
+
+    /**
+     * The page size the client asked for (without the look-ahead row).
+     */
+    public int getRequestedSize() {
+        return requestedSize;
+    }
+}
@@ -0,0 +1,28 @@
+package com.swisspine.common;
+
+/**
+ * Master-data lookup lists served to the planner editor.
+ *
+ * @author SwissPine Engineering Team
+ */
+public enum MasterDataType {
+
+    SOURCE_NAME("source-names"),
+    RUN_NAME("run-names"),
+    REPORT_TYPE("report-types"),
+    REPORT_NAME("report-names"),
+    FUND("funds");
+
+    private final String key;
+
+    MasterDataType(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Stable identifier matching the REST path segment, used in metric tags.
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,40 @@
+package com.swisspine.common;
+
+import com.swisspine.exception.BusinessRuleViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination ordered by a unique name ascending.
+ *
+ * The cursor carries the name of the last row of a page; the next page starts
+ * strictly after it. Clients must treat the encoded value as opaque.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record NameKeysetCursor(String name) {
+
+    /**
+     * Encode this cursor as a URL-safe token.
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     * Returns null for a blank token, which denotes the first page.
+     */
+    public static NameKeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return new NameKeysetCursor(
+                    new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleViolationException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.swisspine.common;
+
+import org.springframework.util.DigestUtils;
+
+import java.time.Instant;
+
+/**
+ * Validators for conditional GET: an ETag plus an optional Last-Modified
+ * instant.
+ *
+ * Single resources are identified by id and {@code @Version}; database
+ * collections by the change counter of their table, and in-memory collections
+ * by row count and the latest {@code updated_at}, so inserts and updates
+ * change the latter and deletes the former. Representations built from
+ * several sources combine their validators with {@link #and(ResourceVersion)}.
+ *
+ * ETags are weak ({@code W/"..."}) unless built from the exact bytes of a
+ * body: Tomcat only compresses responses without an ETag or with a weak one,
+ * and the version identifies the representation, not its encoded bytes.
+ * {@code checkNotModified} compares If-None-Match weakly either way.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record ResourceVersion(String eTag, Instant lastModified) {
+
+    /**
+     * Validator for a single row.
+     */
+    public static ResourceVersion ofRow(String type, Long id, Long version, Instant updatedAt) {
+        return new ResourceVersion(weak(type + "-" + id + "-v" + (version != null ? version : 0)), updatedAt);
+    }
+
+    /**
+     * Validator for a collection, from its row count and latest update.
+     * There is no Last-Modified: the latest update does not move when a row
+     * is deleted, so If-Modified-Since would keep serving the deleted row.
+     */
+    public static ResourceVersion ofTable(String name, long count, Instant lastUpdatedAt) {
+        long millis = lastUpdatedAt != null ? lastUpdatedAt.toEpochMilli() : 0;
+        return new ResourceVersion(weak(name + "-" + count + "-" + millis), null);
+    }
+
+    /**
+     * Validator for a collection, from the change counter of its table.
+     * Counters carry no timestamp, so there is no Last-Modified.
+     */
+    public static ResourceVersion ofChangeCount(String name, long changeCount) {
+        return new ResourceVersion(weak(name + "-c" + changeCount), null);
+    }
+
+    /**
+     * Strong validator for a pre-rendered body, from a digest of its bytes.
+     * The body must be sent as is, without container compression. Like
+     * collections it has no Last-Modified.
+     */
+    public static ResourceVersion ofContent(String name, byte[] content) {
+        return new ResourceVersion(strong(name + "-" + DigestUtils.md5DigestAsHex(content)), null);
+    }
+
+    /**
+     * Validator for a representation that also depends on {@code other};
+     * weak if either validator is.
+     */
+    public ResourceVersion and(ResourceVersion other) {
+        Instant latest = lastModified;
+        if (latest == null || (other.lastModified != null && other.lastModified.isAfter(latest))) {
+            latest = other.lastModified;
+        }
+        String combined = opaqueTag(eTag) + "." + opaqueTag(other.eTag);
+        return new ResourceVersion(isWeak() || other.isWeak() ? weak(combined) : strong(combined), latest);
+    }
+
+    /**
+     * Validator for another encoding of the same representation, e.g. gzip.
+     * Strong ETags must differ between byte-wise different bodies.
+     */
+    public ResourceVersion variant(String coding) {
+        String tag = opaqueTag(eTag) + "-" + coding;
+        return new ResourceVersion(isWeak() ? weak(tag) : strong(tag), lastModified);
+    }
+
+    /**
+     * Last-Modified as epoch milliseconds, or -1 if unknown.
+     */
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.toEpochMilli() : -1;
+    }
+
+    private boolean isWeak() {
+        return eTag.startsWith("W/");
+    }
+
+    private static String strong(String value) {
+        return '"' + value + '"';
+    }
+
+    private static String weak(String value) {
+        return "W/" + strong(value);
+    }
+
+    private static String opaqueTag(String eTag) {
+        return eTag.substring(eTag.indexOf('"') + 1, eTag.length() - 1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.swisspine.common;
+
+import java.util.Locale;
+
+/**
+ * Builds LIKE patterns for name search that line up with the search indexes.
+ *
+ * Terms of at least {@link #MIN_TRIGRAM_LENGTH} characters become substring
+ * patterns ('%term%'), which pg_trgm GIN indexes on LOWER(column) can serve.
+ * Shorter terms yield no trigrams, so a substring pattern would scan the whole
+ * index; they fall back to prefix patterns ('term%') served by the
+ * LOWER(column) text_pattern_ops btree indexes instead.
+ *
+ * LIKE wildcards in user input are escaped with a backslash, so queries must
+ * declare {@code ESCAPE '\'}.
+ *
+ * @author SwissPine Engineering Team
+ */
+public final class SearchPattern {
+
+    /**
+     * Minimum term length for which pg_trgm can extract a trigram.
+     */
+    public static final int MIN_TRIGRAM_LENGTH = 3;
+
+    private SearchPattern() {
+    }
+
+    /**
+     * Normalize a user search term: trimmed and lower-cased.
+     */
+    public static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Build the LIKE pattern for a search term.
+     */
+    public static String forTerm(String term) {
+        String normalized = normalize(term);
+        String escaped = escape(normalized);
+        return normalized.length() >= MIN_TRIGRAM_LENGTH
+                ? "%" + escaped + "%"
+                : escaped + "%";
+    }
+
+    private static String escape(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
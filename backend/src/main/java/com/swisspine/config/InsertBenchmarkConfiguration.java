@@ -0,0 +1,123 @@
+package com.swisspine.config;
+
+import com.swisspine.entity.Planner;
+import com.swisspine.entity.PlannerReport;
+import com.swisspine.entity.PlannerRun;
+import com.swisspine.entity.PlannerSource;
+import com.swisspine.repository.PlannerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Insert throughput benchmark for planner graphs.
+ * 
+ * Persists planners with sources, runs and reports through JPA cascades (the
+ * same path as the seed data) and logs rows per second together with the
+ * number of JDBC statements Hibernate prepared. With IDENTITY ids every row
+ * is its own round trip; with pooled sequence ids inserts are grouped into
+ * JDBC batches of hibernate.jdbc.batch_size. Run it against the same database
+ * on both id mappings to compare. Inserted planners are deleted afterwards.
+ * 
+ * Run with: --spring.profiles.active=insert-benchmark
+ * 
+ * @author SwissPine Engineering Team
+ */
+@Configuration
+@Profile("insert-benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class InsertBenchmarkConfiguration {
+
+    private final PlannerRepository plannerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${swisspine.benchmark.planners:2000}")
+    private int plannerCount;
+
+    @Value("${swisspine.benchmark.sources-per-planner:3}")
+    private int sourcesPerPlanner;
+
+    @Value("${swisspine.benchmark.children-per-source:2}")
+    private int childrenPerSource;
+
+    @Value("${swisspine.benchmark.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${swisspine.benchmark.rounds:3}")
+    private int rounds;
+
+    @Bean
+    public CommandLineRunner insertBenchmark() {
+        return args -> {
+            log.info("=== INSERT BENCHMARK: {} planners x {} sources x {} runs + {} reports, {} rounds ===",
+                    plannerCount, sourcesPerPlanner, childrenPerSource, childrenPerSource, rounds);
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            if (!statistics.isStatisticsEnabled()) {
+                log.warn("Hibernate statistics are disabled; statement counts will be 0");
+            }
+
+            // The first round warms up the JIT, connection pool and id allocation
+            for (int round = 0; round <= rounds; round++) {
+                runRound(round, statistics);
+            }
+            log.info("=== INSERT BENCHMARK COMPLETE ===");
+        };
+    }
+
+    private void runRound(int round, Statistics statistics) {
+        String prefix = "benchmark-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        List<Long> ids = new ArrayList<>(plannerCount);
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int from = 0; from < plannerCount; from += chunkSize) {
+            List<Planner> chunk = buildPlanners(prefix, from, Math.min(chunkSize, plannerCount - from));
+            transactionTemplate.executeWithoutResult(status -> plannerRepository.saveAll(chunk));
+            chunk.forEach(planner -> ids.add(planner.getId()));
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        long rows = (long) plannerCount * (1 + (long) sourcesPerPlanner * (1 + 2L * childrenPerSource));
+        log.info("{}: {} rows in {} ms = {} rows/s, {} JDBC statements prepared, {} entity inserts",
+                round == 0 ? "Warm-up" : "Round " + round,
+                rows, elapsedMs, rows * 1000 / elapsedMs,
+                statistics.getPrepareStatementCount(), statistics.getEntityInsertCount());
+
+        // Child rows go with ON DELETE CASCADE
+        transactionTemplate.executeWithoutResult(status -> plannerRepository.deleteAllByIdInBatch(ids));
+    }
+
+    private List<Planner> buildPlanners(String prefix, int offset, int count) {
+        List<Planner> planners = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Planner planner = Planner.builder()
+                    .name(prefix + (offset + i))
+                    .plannerType("Benchmark")
+                    .build();
+            for (int s = 0; s < sourcesPerPlanner; s++) {
+                PlannerSource source = PlannerSource.builder().displayOrder(s).build();
+                for (int c = 0; c < childrenPerSource; c++) {
+                    source.addRun(PlannerRun.builder().displayOrder(c).build());
+                    source.addReport(PlannerReport.builder().displayOrder(c).build());
+                }
+                planner.addSource(source);
+            }
+            planners.add(planner);
+        }
+        return planners;
+    }
+}
@@ -0,0 +1,92 @@
+package com.swisspine.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.swisspine.entity.Fund;
+import com.swisspine.entity.ReportName;
+import com.swisspine.entity.ReportType;
+import com.swisspine.entity.RunName;
+import com.swisspine.entity.SourceName;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Local second-level and query cache for the master-data lookup entities.
+ * 
+ * Hibernate's JCache region factory is handed the Caffeine CacheManager built
+ * here, with one size-bounded cache per region. Entity regions are named
+ * after the entity class. A region missing from this list fails startup
+ * (hibernate.javax.cache.missing_cache_strategy=fail) instead of silently
+ * getting an unbounded default cache.
+ * 
+ * Caffeine's native statistics are recorded for every region and reported by
+ * StatisticsService.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    /**
+     * Entities in the second-level cache, one region each.
+     */
+    public static final List<Class<?>> CACHED_ENTITIES = List.of(
+            SourceName.class, RunName.class, ReportType.class, ReportName.class, Fund.class);
+
+    private static final URI CACHE_MANAGER_URI = URI.create("swisspine:second-level-cache");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${swisspine.cache.lookup-max-entries:10000}") long lookupMaxEntries,
+            @Value("${swisspine.cache.fund-max-entries:100000}") long fundMaxEntries,
+            @Value("${swisspine.cache.query-max-entries:200}") long queryMaxEntries) {
+
+        return createCacheManager(lookupMaxEntries, fundMaxEntries, queryMaxEntries);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    static CacheManager createCacheManager(long lookupMaxEntries, long fundMaxEntries, long queryMaxEntries) {
+        CacheManager cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(CACHE_MANAGER_URI, SecondLevelCacheConfiguration.class.getClassLoader());
+
+        for (Class<?> entity : CACHED_ENTITIES) {
+            // Funds are the one large lookup (100k rows); the query cache
+            // keeps ids only, so evicted funds would be reloaded one by one
+            long maxEntries = entity == Fund.class ? fundMaxEntries : lookupMaxEntries;
+            cacheManager.createCache(entity.getName(), bounded(maxEntries));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                bounded(queryMaxEntries));
+
+        // One entry per table. Never evicted: a query result whose tables have
+        // no timestamp is treated as current
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        timestamps.setNativeStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxEntries) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        // Hibernate caches immutable entry structures; no copy on read/write
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -1,10 +1,13 @@
 package com.swisspine.config;
 
+import com.swisspine.common.MasterDataType;
 import com.swisspine.entity.*;
 import com.swisspine.repository.*;
+import com.swisspine.service.MasterDataChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -36,6 +39,7 @@ public class SeedDataConfiguration {
     private final ReportTypeRepository reportTypeRepository;
     private final ReportNameRepository reportNameRepository;
     private final PlannerRepository plannerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Random RANDOM = new Random();
 
@@ -89,6 +93,10 @@ public class SeedDataConfiguration {
             long startTime = System.currentTimeMillis();
 
             generateMasterData();
+            // Drop master-data snapshots built while seeding was in progress
+            for (MasterDataType type : MasterDataType.values()) {
+                eventPublisher.publishEvent(new MasterDataChangedEvent(type));
+            }
             generateExternalConnections();
             generatePlanners();
 
@@ -0,0 +1,86 @@
+package com.swisspine.config;
+
+import com.swisspine.service.SqlStatementRecorder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy ProxyDataSource
+ * that reports every statement to SqlStatementRecorder.
+ *
+ * The pool stays reachable through {@code DataSource.unwrap}. The recorder is
+ * looked up on first use, so the post-processor does not pull the meter
+ * registry into early initialization.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Configuration
+@ConditionalOnProperty(name = "swisspine.sql.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementMetricsConfiguration {
+
+    @Bean
+    static BeanPostProcessor sqlStatementMetricsDataSourcePostProcessor(
+            ObjectProvider<SqlStatementRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new LazyListener(recorder))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Delegates to the recorder bean once it can be resolved.
+     */
+    private static final class LazyListener implements QueryExecutionListener {
+
+        private final ObjectProvider<SqlStatementRecorder> provider;
+        private volatile SqlStatementRecorder recorder;
+
+        private LazyListener(ObjectProvider<SqlStatementRecorder> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlStatementRecorder target = recorder();
+            if (target != null) {
+                target.beforeQuery(execInfo, queryInfoList);
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlStatementRecorder target = recorder();
+            if (target != null) {
+                target.afterQuery(execInfo, queryInfoList);
+            }
+        }
+
+        private SqlStatementRecorder recorder() {
+            SqlStatementRecorder target = recorder;
+            if (target == null) {
+                target = provider.getIfAvailable();
+                recorder = target;
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.swisspine.config;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.id.enhanced.StandardNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names implicit entity sequences {@code <table>_id_seq}.
+ * 
+ * That is the name PostgreSQL gives the sequence behind a BIGSERIAL column,
+ * so every entity keeps drawing ids from the sequence that already backs its
+ * table instead of Hibernate's default {@code <entity>_SEQ}.
+ * 
+ * Registered through {@code hibernate.id.db_structure_naming_strategy}.
+ * 
+ * @author SwissPine Engineering Team
+ */
+public class TableSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+    private static final String SEQUENCE_SUFFIX = "_id_seq";
+
+    private final StandardNamingStrategy standard = new StandardNamingStrategy();
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String table = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        if (table == null || table.isBlank()) {
+            throw new MappingException("Cannot determine id sequence name: no target table");
+        }
+        String baseName = Identifier.isQuoted(table) ? Identifier.unQuote(table) : table;
+        Identifier sequenceName = serviceRegistry.getService(JdbcEnvironment.class)
+                .getIdentifierHelper()
+                .toIdentifier(baseName + SEQUENCE_SUFFIX);
+        return new QualifiedSequenceName(catalogName, schemaName, sequenceName);
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        return standard.determineTableName(catalogName, schemaName, configValues, serviceRegistry);
+    }
+}
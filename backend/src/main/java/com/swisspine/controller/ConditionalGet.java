@@ -0,0 +1,43 @@
+package com.swisspine.controller;
+
+import com.swisspine.common.ResourceVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET support for read endpoints.
+ *
+ * Handlers compute the cheap validators first and return null when this
+ * reports the resource as not modified: the 304 status, ETag and
+ * Last-Modified headers have then already been written, and the body is never
+ * loaded. Responses carry {@code Cache-Control: no-cache} so browsers always
+ * revalidate instead of serving a heuristically fresh copy.
+ *
+ * @author SwissPine Engineering Team
+ */
+final class ConditionalGet {
+
+    private static final String NO_CACHE = CacheControl.noCache().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Evaluate If-None-Match (or If-Modified-Since without it) against the
+     * validators and set ETag and Last-Modified on the response.
+     *
+     * @return true if a 304 Not Modified has been prepared
+     */
+    static boolean isNotModified(WebRequest request, ResourceVersion version) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, NO_CACHE);
+            }
+        }
+        return request.checkNotModified(version.eTag(), version.lastModifiedMillis());
+    }
+}
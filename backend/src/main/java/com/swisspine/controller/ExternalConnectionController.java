@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller for External Connection management.
@@ -37,21 +38,37 @@ public class ExternalConnectionController {
 
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
 
-            @Parameter(description = "Page size (5, 10, or 25)") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "Page size (5, 10, or 25)") @RequestParam(defaultValue = "10") int size,
 
-        log.debug("GET /api/external-connections - search: {}, page: {}, size: {}", search, page, size);
+            @Parameter(description = "Rank search results by similarity to the search term") @RequestParam(defaultValue = "false") boolean ranked,
 
-        PageableResponseDTO<ExternalConnectionDTO> response = service.findAll(search, page, size);
+            WebRequest request) {
+
+        log.debug("GET /api/external-connections - search: {}, page: {}, size: {}, ranked: {}", search, page, size, ranked);
+
+        if (ConditionalGet.isNotModified(request, service.getListVersion())) {
+            return null;
+        }
+
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        PageableResponseDTO<ExternalConnectionDTO> response = ranked && hasSearch
+                ? service.searchRanked(search, page, size)
+                : service.findAll(search, page, size);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get external connection by ID")
     public ResponseEntity<ExternalConnectionDTO> getById(
-            @Parameter(description = "Connection ID") @PathVariable Long id) {
+            @Parameter(description = "Connection ID") @PathVariable Long id,
+            WebRequest request) {
 
         log.debug("GET /api/external-connections/{}", id);
 
+        if (ConditionalGet.isNotModified(request, service.getVersion(id))) {
+            return null;
+        }
+
         ExternalConnectionDTO dto = service.findById(id);
         return ResponseEntity.ok(dto);
     }
@@ -0,0 +1,85 @@
+package com.swisspine.controller;
+
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.service.MasterDataBootstrapService;
+import com.swisspine.service.MasterDataBootstrapService.BootstrapBody;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * REST controller for the one-shot master-data bootstrap.
+ * 
+ * Writes the pre-rendered body as raw bytes, gzipped when the client accepts
+ * it. The container does not compress a response that already has a
+ * Content-Encoding.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@RestController
+@RequestMapping("/api/master-data")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Master Data", description = "Dropdown data management APIs")
+public class MasterDataBootstrapController {
+
+    private static final String GZIP = "gzip";
+
+    private final MasterDataBootstrapService service;
+
+    @GetMapping("/bootstrap")
+    @Operation(summary = "Get all master-data lists", description = "Source names, run names, report types, report names "
+            + "(also grouped by report type) and funds in one response, sorted A-Z")
+    public ResponseEntity<byte[]> getBootstrap(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+
+        BootstrapBody body = service.getBootstrap();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResourceVersion version = gzip ? body.version().variant(GZIP) : body.version();
+        if (ConditionalGet.isNotModified(request, version)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .contentLength(body.gzip().length)
+                    .body(body.gzip());
+        }
+        return response.contentLength(body.json().length).body(body.json());
+    }
+
+    /**
+     * Whether Accept-Encoding lists gzip without {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase(GZIP)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().matches("q=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,8 +1,14 @@
 package com.swisspine.controller;
 
+import com.swisspine.common.MasterDataType;
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.dto.FundResolutionResultDTO;
+import com.swisspine.dto.FundSuggestionDTO;
 import com.swisspine.dto.MasterDataDTO;
+import com.swisspine.dto.PageableResponseDTO;
 import com.swisspine.service.MasterDataService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,8 +16,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for Master Data management (dropdowns).
@@ -40,7 +48,10 @@ public class MasterDataController {
 
     @GetMapping("/source-names")
     @Operation(summary = "Get all source names (sorted A-Z)")
-    public ResponseEntity<List<MasterDataDTO>> getAllSourceNames() {
+    public ResponseEntity<List<MasterDataDTO>> getAllSourceNames(WebRequest request) {
+        if (ConditionalGet.isNotModified(request, service.getVersion(MasterDataType.SOURCE_NAME))) {
+            return null;
+        }
         return ResponseEntity.ok(service.getAllSourceNames());
     }
 
@@ -61,7 +72,10 @@ public class MasterDataController {
 
     @GetMapping("/run-names")
     @Operation(summary = "Get all run names (sorted A-Z)")
-    public ResponseEntity<List<MasterDataDTO>> getAllRunNames() {
+    public ResponseEntity<List<MasterDataDTO>> getAllRunNames(WebRequest request) {
+        if (ConditionalGet.isNotModified(request, service.getVersion(MasterDataType.RUN_NAME))) {
+            return null;
+        }
         return ResponseEntity.ok(service.getAllRunNames());
     }
 
@@ -82,7 +96,10 @@ public class MasterDataController {
 
     @GetMapping("/report-types")
     @Operation(summary = "Get all report types (sorted A-Z)")
-    public ResponseEntity<List<MasterDataDTO>> getAllReportTypes() {
+    public ResponseEntity<List<MasterDataDTO>> getAllReportTypes(WebRequest request) {
+        if (ConditionalGet.isNotModified(request, service.getVersion(MasterDataType.REPORT_TYPE))) {
+            return null;
+        }
         return ResponseEntity.ok(service.getAllReportTypes());
     }
 
@@ -103,13 +120,29 @@ public class MasterDataController {
 
     @GetMapping("/report-names")
     @Operation(summary = "Get all report names (sorted A-Z)")
-    public ResponseEntity<List<MasterDataDTO>> getAllReportNames() {
+    public ResponseEntity<List<MasterDataDTO>> getAllReportNames(WebRequest request) {
+        if (ConditionalGet.isNotModified(request, service.getVersion(MasterDataType.REPORT_NAME))) {
+            return null;
+        }
         return ResponseEntity.ok(service.getAllReportNames());
     }
 
+    @GetMapping("/report-names/by-type")
+    @Operation(summary = "Get report names grouped by type ID", description = "Every report type ID mapped to "
+            + "its report names (sorted A-Z); types without names map to an empty list")
+    public ResponseEntity<Map<Long, List<MasterDataDTO>>> getReportNamesByTypeIndex(WebRequest request) {
+        if (ConditionalGet.isNotModified(request, reportNamesByTypeVersion())) {
+            return null;
+        }
+        return ResponseEntity.ok(service.getReportNamesByTypeIndex());
+    }
+
     @GetMapping("/report-names/by-type/{typeId}")
     @Operation(summary = "Get report names by type ID")
-    public ResponseEntity<List<MasterDataDTO>> getReportNamesByType(@PathVariable Long typeId) {
+    public ResponseEntity<List<MasterDataDTO>> getReportNamesByType(@PathVariable Long typeId, WebRequest request) {
+        if (ConditionalGet.isNotModified(request, reportNamesByTypeVersion())) {
+            return null;
+        }
         return ResponseEntity.ok(service.getReportNamesByType(typeId));
     }
 
@@ -130,10 +163,51 @@ public class MasterDataController {
 
     @GetMapping("/funds")
     @Operation(summary = "Get all funds (sorted A-Z)")
-    public ResponseEntity<List<MasterDataDTO>> getAllFunds() {
+    public ResponseEntity<List<MasterDataDTO>> getAllFunds(WebRequest request) {
+        if (ConditionalGet.isNotModified(request, service.getVersion(MasterDataType.FUND))) {
+            return null;
+        }
         return ResponseEntity.ok(service.getAllFunds());
     }
 
+    @GetMapping("/funds/page")
+    @Operation(summary = "Get a page of funds (sorted A-Z)", description = "Keyset-paginated fund listing; "
+            + "pass nextCursor from the previous page to continue. fields=id,name returns thin rows")
+    public ResponseEntity<PageableResponseDTO<MasterDataDTO>> getFundPage(
+            @Parameter(description = "Opaque cursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Page size (1-500)") @RequestParam(defaultValue = "50") int size,
+
+            @Parameter(description = "Comma-separated properties to return: id, name, createdAt, updatedAt (default all)") @RequestParam(required = false) String fields,
+
+            WebRequest request) {
+
+        // Validated by the fund version alone: the full validator would load the fund snapshot
+        if (ConditionalGet.isNotModified(request, service.getChangeVersion(MasterDataType.FUND))) {
+            return null;
+        }
+        return ResponseEntity.ok(service.getFundPage(cursor, size, fields));
+    }
+
+    @GetMapping("/funds/suggest")
+    @Operation(summary = "Suggest funds by name or alias", description = "Funds whose name or alias has a word "
+            + "starting with each word of the query, names starting with the query first")
+    public ResponseEntity<List<FundSuggestionDTO>> suggestFunds(
+            @Parameter(description = "Typed text; blank returns the first funds A-Z") @RequestParam(defaultValue = "") String q,
+
+            @Parameter(description = "Maximum suggestions (1-50)") @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(service.suggestFunds(q, limit));
+    }
+
+    @PostMapping("/funds/resolve")
+    @Operation(summary = "Resolve fund names in bulk", description = "Map up to 100,000 fund names or aliases to fund ids. "
+            + "Matching ignores case, accents and punctuation; results are returned in request order")
+    public ResponseEntity<FundResolutionResultDTO> resolveFunds(@RequestBody List<String> names) {
+        log.debug("POST /api/master-data/funds/resolve - {} names", names != null ? names.size() : 0);
+        return ResponseEntity.ok(service.resolveFunds(names));
+    }
+
     @PostMapping("/funds")
     @Operation(summary = "Create new fund")
     public ResponseEntity<MasterDataDTO> createFund(@Valid @RequestBody MasterDataDTO dto) {
@@ -146,4 +220,11 @@ public class MasterDataController {
         service.deleteFund(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * The by-type views depend on both the report types and the report names.
+     */
+    private ResourceVersion reportNamesByTypeVersion() {
+        return service.getVersion(MasterDataType.REPORT_TYPE).and(service.getVersion(MasterDataType.REPORT_NAME));
+    }
 }
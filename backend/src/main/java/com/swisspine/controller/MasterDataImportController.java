@@ -0,0 +1,58 @@
+package com.swisspine.controller;
+
+import com.swisspine.dto.MasterDataImportResultDTO;
+import com.swisspine.service.MasterDataImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for CSV bulk imports of funds and fund aliases.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@RestController
+@RequestMapping("/api/master-data")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Master Data", description = "Dropdown data management APIs")
+public class MasterDataImportController {
+
+    private final MasterDataImportService service;
+
+    @PostMapping(value = "/funds/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import funds from CSV", description = "UTF-8 CSV with a header line and one column: name. "
+            + "Existing names are left unchanged; invalid lines are rejected and reported")
+    public ResponseEntity<MasterDataImportResultDTO> importFunds(
+            @Parameter(description = "CSV file") @RequestParam("file") MultipartFile file) throws IOException {
+
+        log.debug("POST /api/master-data/funds/import - {} bytes", file.getSize());
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(service.importFunds(csv));
+        }
+    }
+
+    @PostMapping(value = "/fund-aliases/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import fund aliases from CSV", description = "UTF-8 CSV with a header line and two columns: "
+            + "fund name, alias name. Existing aliases are left unchanged; unknown funds are rejected and reported")
+    public ResponseEntity<MasterDataImportResultDTO> importFundAliases(
+            @Parameter(description = "CSV file") @RequestParam("file") MultipartFile file) throws IOException {
+
+        log.debug("POST /api/master-data/fund-aliases/import - {} bytes", file.getSize());
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(service.importFundAliases(csv));
+        }
+    }
+}
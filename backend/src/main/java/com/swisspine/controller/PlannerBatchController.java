@@ -0,0 +1,39 @@
+package com.swisspine.controller;
+
+import com.swisspine.dto.PlannerBatchResultDTO;
+import com.swisspine.dto.PlannerDTO;
+import com.swisspine.service.PlannerBatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for bulk planner operations.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@RestController
+@RequestMapping("/api/planners")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Planners", description = "Planner management APIs")
+public class PlannerBatchController {
+
+    private final PlannerBatchService service;
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create planners in bulk", description = "Create many planners with their funds, sources, runs and reports. "
+            + "Items are validated individually; invalid items are reported as FAILED without affecting the others")
+    public ResponseEntity<PlannerBatchResultDTO> createBatch(@RequestBody List<PlannerDTO> planners) {
+        log.info("POST /api/planners/batch - {} planners", planners != null ? planners.size() : 0);
+        return ResponseEntity.ok(service.createAll(planners));
+    }
+}
@@ -1,7 +1,10 @@
 package com.swisspine.controller;
 
+import com.swisspine.common.CountMode;
 import com.swisspine.dto.PageableResponseDTO;
+import com.swisspine.dto.PlannerAggregatesDTO;
 import com.swisspine.dto.PlannerDTO;
+import com.swisspine.exception.BusinessRuleViolationException;
 import com.swisspine.service.PlannerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,12 +15,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller for Planner management.
  * 
  * Provides endpoints for CRUD operations, filtering, and pagination.
  * All responses follow consistent REST patterns with proper HTTP status codes.
+ * Reads support conditional GET (ETag / If-None-Match, Last-Modified); see
+ * ConditionalGet.
  * 
  * @author SwissPine Engineering Team
  */
@@ -37,16 +43,30 @@ public class PlannerController {
 
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
 
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
 
-        log.debug("GET /api/planners - status: {}, page: {}, size: {}", status, page, size);
+            @Parameter(description = "Keyset cursor; send empty for the first page, then the returned nextCursor. "
+                    + "Enables cursor mode, which ignores page and skips the total count") @RequestParam(required = false) String cursor,
 
-        PageableResponseDTO<PlannerDTO> response = service.findAll(status, page, size);
+            @Parameter(description = "Total count mode for offset pages: exact (default), estimate (exact up to a threshold, planner estimate above it) or none") @RequestParam(defaultValue = "exact") String count,
+
+            WebRequest request) {
+
+        log.debug("GET /api/planners - status: {}, page: {}, size: {}, cursor: {}, count: {}",
+                status, page, size, cursor, count);
+
+        CountMode countMode = CountMode.from(count);
+        if (ConditionalGet.isNotModified(request, service.getListVersion())) {
+            return null;
+        }
+        PageableResponseDTO<PlannerDTO> response = cursor != null
+                ? service.findAllByCursor(status, cursor, size)
+                : service.findAll(status, page, size, countMode);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search planners by name", description = "Search planners using case-insensitive partial name matching with optional status filter")
+    @Operation(summary = "Search planners by name", description = "Search planners using case-insensitive partial name matching (prefix matching for terms under 3 characters) with optional status filter and similarity ranking")
     public ResponseEntity<PageableResponseDTO<PlannerDTO>> search(
             @Parameter(description = "Search query for planner name") @RequestParam String q,
 
@@ -54,25 +74,81 @@ public class PlannerController {
 
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
 
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+
+            @Parameter(description = "Keyset cursor; send empty for the first page, then the returned nextCursor") @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Rank by similarity to the query across name and description (offset pages only)") @RequestParam(defaultValue = "false") boolean ranked,
+
+            @Parameter(description = "Total count mode for offset pages: exact (default), estimate (exact up to a threshold, planner estimate above it) or none") @RequestParam(defaultValue = "exact") String count,
 
-        log.debug("GET /api/planners/search - query: {}, status: {}, page: {}, size: {}", q, status, page, size);
+            WebRequest request) {
 
-        PageableResponseDTO<PlannerDTO> response = service.search(q, status, page, size);
+        log.debug("GET /api/planners/search - query: {}, status: {}, page: {}, size: {}, cursor: {}, ranked: {}, count: {}",
+                q, status, page, size, cursor, ranked, count);
+
+        CountMode countMode = CountMode.from(count);
+
+        if (ranked && cursor != null) {
+            throw new BusinessRuleViolationException("Cursor pagination is not supported for ranked search");
+        }
+        if (ConditionalGet.isNotModified(request, service.getListVersion())) {
+            return null;
+        }
+
+        PageableResponseDTO<PlannerDTO> response;
+        if (ranked) {
+            response = service.searchRanked(q, status, page, size, countMode);
+        } else if (cursor != null) {
+            response = service.searchByCursor(q, status, cursor, size);
+        } else {
+            response = service.search(q, status, page, size, countMode);
+        }
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/aggregates")
+    @Operation(summary = "Get planner counts", description = "Planner counts by status, planner type and external connection, maintained incrementally on every planner change")
+    public ResponseEntity<PlannerAggregatesDTO> getAggregates(WebRequest request) {
+        log.debug("GET /api/planners/aggregates");
+        if (ConditionalGet.isNotModified(request, service.getAggregatesVersion())) {
+            return null;
+        }
+        return ResponseEntity.ok(service.getAggregates());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get planner by ID")
     public ResponseEntity<PlannerDTO> getById(
-            @Parameter(description = "Planner ID") @PathVariable Long id) {
+            @Parameter(description = "Planner ID") @PathVariable Long id,
+            WebRequest request) {
 
         log.debug("GET /api/planners/{}", id);
 
+        if (ConditionalGet.isNotModified(request, service.getVersion(id))) {
+            return null;
+        }
+
         PlannerDTO dto = service.findById(id);
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping("/{id}/full")
+    @Operation(summary = "Get planner with full graph", description = "Retrieve a planner with its funds, sources, runs and reports using one query per collection level")
+    public ResponseEntity<PlannerDTO> getFullById(
+            @Parameter(description = "Planner ID") @PathVariable Long id,
+            WebRequest request) {
+
+        log.debug("GET /api/planners/{}/full", id);
+
+        if (ConditionalGet.isNotModified(request, service.getFullVersion(id))) {
+            return null;
+        }
+
+        PlannerDTO dto = service.findFullById(id);
+        return ResponseEntity.ok(dto);
+    }
+
     @PostMapping
     @Operation(summary = "Create new planner")
     public ResponseEntity<PlannerDTO> create(
@@ -0,0 +1,55 @@
+package com.swisspine.controller;
+
+import com.swisspine.common.ExportFormat;
+import com.swisspine.service.PlannerExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for streaming planner exports.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@RestController
+@RequestMapping("/api/planners")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Planners", description = "Planner management APIs")
+public class PlannerExportController {
+
+    private final PlannerExportService service;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all planners", description = "Stream every planner as NDJSON (one JSON object per line) or CSV, "
+            + "read through a database cursor so memory use does not grow with the number of planners")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Filter by status (Draft, In Progress, Finished)") @RequestParam(required = false) String status,
+
+            @Parameter(description = "Output format: ndjson (default) or csv") @RequestParam(defaultValue = "ndjson") String format) {
+
+        log.debug("GET /api/planners/export - status: {}, format: {}", status, format);
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> service.export(status, exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("planners." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -1,13 +1,21 @@
 package com.swisspine.controller;
 
+import com.swisspine.dto.PerformanceHistoryDTO;
 import com.swisspine.dto.PerformanceStatisticsDTO;
+import com.swisspine.service.MetricsHistory;
 import com.swisspine.service.StatisticsService;
+import com.swisspine.service.StatisticsStreamService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
 
 /**
  * REST controller for performance statistics and monitoring.
@@ -21,13 +29,34 @@ import org.springframework.web.bind.annotation.*;
 public class StatisticsController {
 
     private final StatisticsService statisticsService;
+    private final MetricsHistory metricsHistory;
+    private final StatisticsStreamService statisticsStreamService;
 
     @GetMapping("/performance")
-    @Operation(summary = "Get performance statistics", description = "Retrieve comprehensive performance metrics including database, JVM, and endpoint statistics")
+    @Operation(summary = "Get performance statistics", description = "Retrieve the latest background sample of database, JVM, and endpoint statistics; ageMs is the time since it was taken")
     public ResponseEntity<PerformanceStatisticsDTO> getPerformanceStatistics() {
         log.debug("GET /api/statistics/performance");
 
         PerformanceStatisticsDTO statistics = statisticsService.getPerformanceStatistics();
         return ResponseEntity.ok(statistics);
     }
+
+    @GetMapping("/performance/history")
+    @Operation(summary = "Get performance history", description = "JVM, connection pool and per-endpoint metrics sampled every second, averaged into buckets of step seconds (per-minute samples for steps of a minute or more)")
+    public ResponseEntity<PerformanceHistoryDTO> getPerformanceHistory(
+            @Parameter(description = "ISO-8601 start; default the whole retained window") @RequestParam(required = false) Instant from,
+
+            @Parameter(description = "Bucket width in seconds") @RequestParam(defaultValue = "1") long step) {
+        log.debug("GET /api/statistics/performance/history - from: {}, step: {}", from, step);
+
+        return ResponseEntity.ok(metricsHistory.getHistory(from, step));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream performance statistics", description = "Server-Sent Events: a full 'snapshot' event, then a 'delta' event (JSON merge patch of the changed fields) per sample; one shared sample serves all clients")
+    public SseEmitter streamStatistics() {
+        log.debug("GET /api/statistics/stream");
+
+        return statisticsStreamService.subscribe();
+    }
 }
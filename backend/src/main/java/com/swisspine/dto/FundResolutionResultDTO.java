@@ -0,0 +1,57 @@
+package com.swisspine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk fund name resolution request.
+ * Items are reported in request order, one per submitted name.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FundResolutionResultDTO {
+
+    private int total;
+    private int matched;
+    private int ambiguous;
+    private int unmatched;
+
+    @Builder.Default
+    private List<ItemResult> items = new ArrayList<>();
+
+    public enum ItemStatus {
+        MATCHED, AMBIGUOUS, UNMATCHED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+        /**
+         * Zero-based position of the name in the request
+         */
+        private int index;
+        private ItemStatus status;
+
+        /**
+         * The fund, when exactly one fund is known by the name
+         */
+        private Long fundId;
+
+        /**
+         * All funds known by the name, when there is more than one
+         */
+        private List<Long> candidateFundIds;
+    }
+}
@@ -0,0 +1,23 @@
+package com.swisspine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A fund typeahead match. Alias fields are set when the query matched one of
+ * the fund's aliases rather than its name.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FundSuggestionDTO {
+    private Long fundId;
+    private String fundName;
+    private Long fundAliasId;
+    private String fundAliasName;
+}
@@ -0,0 +1,33 @@
+package com.swisspine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All master-data lists in one response, for the frontend to load its
+ * lookups with a single request. Lists are sorted A-Z.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MasterDataBootstrapDTO {
+
+    private List<MasterDataDTO> sourceNames;
+    private List<MasterDataDTO> runNames;
+    private List<MasterDataDTO> reportTypes;
+    private List<MasterDataDTO> reportNames;
+    private List<MasterDataDTO> funds;
+
+    /**
+     * Report names keyed by report type id, in report-type order. Types
+     * without report names map to an empty list; report names without a
+     * type are only in {@link #reportNames}.
+     */
+    private Map<Long, List<MasterDataDTO>> reportNamesByType;
+}
@@ -25,6 +25,11 @@ public class MasterDataDTO {
     @Size(max = 255)
     private String name;
 
+    /**
+     * Report type of a report name; null for the other master-data types.
+     */
+    private Long reportTypeId;
+
     private Instant createdAt;
     private Instant updatedAt;
 }
@@ -0,0 +1,50 @@
+package com.swisspine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a CSV master-data import.
+ * Every data line is counted exactly once as inserted, unchanged or rejected.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MasterDataImportResultDTO {
+
+    private long total;
+    private long inserted;
+
+    /**
+     * Lines matching a row that already exists. Names are the unique keys
+     * and only data of funds and aliases, so there is nothing to update.
+     */
+    private long unchanged;
+    private long rejected;
+
+    /**
+     * The first rejected lines, in file order
+     */
+    @Builder.Default
+    private List<Rejection> rejections = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+        /**
+         * One-based line number in the file, counting the header
+         */
+        private long line;
+        private String error;
+    }
+}
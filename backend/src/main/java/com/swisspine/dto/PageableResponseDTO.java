@@ -39,14 +39,22 @@ public class PageableResponseDTO<T> {
     private int size;
 
     /**
-     * Total number of elements across all pages
+     * Total number of elements across all pages.
+     * Omitted in cursor mode and with count=none, where no count query is executed.
      */
-    private long totalElements;
+    private Long totalElements;
 
     /**
-     * Total number of pages
+     * Whether totalElements is an exact count (false for a planner estimate).
+     * Omitted when totalElements is omitted.
      */
-    private int totalPages;
+    private Boolean totalElementsExact;
+
+    /**
+     * Total number of pages.
+     * Omitted in cursor mode, where no count query is executed.
+     */
+    private Integer totalPages;
 
     /**
      * Whether this is the first page
@@ -58,6 +66,12 @@ public class PageableResponseDTO<T> {
      */
     private boolean last;
 
+    /**
+     * Opaque cursor for the next page in keyset (cursor) mode.
+     * Null when there are no further pages or in offset mode.
+     */
+    private String nextCursor;
+
     /**
      * Factory method to create from Spring Data Page object.
      */
@@ -68,8 +82,45 @@ public class PageableResponseDTO<T> {
                 .size(page.getSize())
                 .totalElements(page.getTotalElements())
                 .totalPages(page.getTotalPages())
+                .totalElementsExact(true)
                 .first(page.isFirst())
                 .last(page.isLast())
                 .build();
     }
+
+    /**
+     * Factory method for offset pages whose total was estimated or skipped.
+     *
+     * @param content       Page content (without any look-ahead row)
+     * @param hasNext       Whether a further page exists
+     * @param totalElements Estimated total, or null when counting was skipped
+     * @param exact         Whether totalElements is exact
+     */
+    public static <T> PageableResponseDTO<T> fromOffset(List<T> content, int page, int size, boolean hasNext,
+            Long totalElements, boolean exact) {
+        return PageableResponseDTO.<T>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages(totalElements == null ? null : (int) Math.ceil((double) totalElements / size))
+                .totalElementsExact(totalElements == null ? null : exact)
+                .first(page == 0)
+                .last(!hasNext)
+                .build();
+    }
+
+    /**
+     * Factory method for keyset pages, which carry no total count.
+     */
+    public static <T> PageableResponseDTO<T> fromCursor(List<T> content, int size, boolean first, String nextCursor) {
+        return PageableResponseDTO.<T>builder()
+                .content(content)
+                .page(0)
+                .size(size)
+                .first(first)
+                .last(nextCursor == null)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
@@ -0,0 +1,51 @@
+package com.swisspine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DTO for the metrics history: one column per bucket, the i-th value of every
+ * series belonging to the i-th timestamp.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerformanceHistoryDTO {
+
+    private Instant from;
+    /**
+     * Bucket width in seconds.
+     */
+    private Long step;
+    /**
+     * Bucket start times in epoch seconds; buckets without samples are left out.
+     */
+    private long[] timestamps;
+    /**
+     * heapUsedMb, gcPerSecond, threadCount, poolActive, poolIdle and
+     * poolWaiting, averaged per bucket.
+     */
+    private Map<String, double[]> series;
+    private Map<String, EndpointHistory> endpoints;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EndpointHistory {
+        /**
+         * Requests per second.
+         */
+        private double[] throughput;
+        /**
+         * Mean response time in milliseconds, weighted by requests.
+         */
+        private double[] avgResponseTime;
+    }
+}
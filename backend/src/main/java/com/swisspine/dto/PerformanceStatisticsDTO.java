@@ -6,19 +6,28 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * DTO for system performance statistics.
  * Aggregates metrics from database, JVM, and application endpoints.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PerformanceStatisticsDTO {
 
+    /**
+     * When the statistics were sampled.
+     */
     private Instant timestamp;
+    /**
+     * Milliseconds between sampling and this response.
+     */
+    private Long ageMs;
     private String uptime;
     private DatabaseStatistics database;
     private Map<String, EndpointStatistics> endpoints;
@@ -30,6 +39,11 @@ public class PerformanceStatisticsDTO {
     @AllArgsConstructor
     public static class DatabaseStatistics {
         private Map<String, Long> totalRecords;
+        /**
+         * Keys of totalRecords that are PostgreSQL statistics estimates rather
+         * than exact counts.
+         */
+        private Set<String> estimatedRecords;
         private QueryStatistics queryStats;
         private ConnectionPoolStatistics connectionPool;
     }
@@ -39,10 +53,63 @@ public class PerformanceStatisticsDTO {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class QueryStatistics {
+        /**
+         * Mean and 95th percentile JDBC statement time in milliseconds.
+         */
         private Double avgExecutionTime;
+        private Double p95ExecutionTime;
+        /**
+         * Statements at or above the slow threshold since startup.
+         */
         private Integer slowQueries;
         private Long totalQueries;
         private Double cacheHitRate;
+        private Map<String, CacheRegionStatistics> cacheRegions;
+        /**
+         * SQL shapes with the highest total execution time.
+         */
+        private List<StatementStatistics> topStatements;
+        /**
+         * Slowest execution per shape, slowest first.
+         */
+        private List<SlowStatement> slowestStatements;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatementStatistics {
+        private String shape;
+        private String sql;
+        private Long count;
+        private Double totalTime;
+        private Double avgTime;
+        private Double p95Time;
+        private Double maxTime;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SlowStatement {
+        private String shape;
+        private String sql;
+        private Double executionTime;
+        private Instant executedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheRegionStatistics {
+        private Long size;
+        private Long hitCount;
+        private Long missCount;
+        private Long evictionCount;
+        private Double hitRate;
     }
 
     @Data
@@ -62,9 +129,20 @@ public class PerformanceStatisticsDTO {
     @AllArgsConstructor
     public static class EndpointStatistics {
         private Double avgResponseTime;
+        private Double p50ResponseTime;
         private Double p95ResponseTime;
+        private Double p99ResponseTime;
         private Long requestCount;
+        /**
+         * Requests per second over the endpoint window.
+         */
+        private Double throughput;
+        /**
+         * Percentage of 5xx (errorRate) and 4xx (clientErrorRate) responses
+         * over the endpoint window.
+         */
         private Double errorRate;
+        private Double clientErrorRate;
     }
 
     @Data
@@ -0,0 +1,52 @@
+package com.swisspine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Planner counts grouped by status, planner type and external connection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlannerAggregatesDTO {
+
+    private long total;
+
+    @Builder.Default
+    private List<GroupCount> byStatus = new ArrayList<>();
+
+    @Builder.Default
+    private List<GroupCount> byPlannerType = new ArrayList<>();
+
+    @Builder.Default
+    private List<GroupCount> byConnection = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class GroupCount {
+        /**
+         * Group value (status, planner type or connection id); null for
+         * planners without one
+         */
+        private String key;
+
+        /**
+         * Connection name (byConnection only)
+         */
+        private String name;
+
+        private long count;
+    }
+}
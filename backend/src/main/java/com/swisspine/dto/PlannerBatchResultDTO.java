@@ -0,0 +1,49 @@
+package com.swisspine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk planner creation request.
+ * Items are reported in request order, one per submitted planner.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlannerBatchResultDTO {
+
+    private int total;
+    private int created;
+    private int failed;
+
+    @Builder.Default
+    private List<ItemResult> items = new ArrayList<>();
+
+    public enum ItemStatus {
+        CREATED, FAILED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+        /**
+         * Zero-based position of the planner in the request
+         */
+        private int index;
+        private ItemStatus status;
+        private Long id;
+        private String name;
+        private String error;
+    }
+}
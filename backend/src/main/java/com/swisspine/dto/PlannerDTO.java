@@ -9,7 +9,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -49,9 +48,11 @@ public class PlannerDTO {
     private Instant updatedAt;
     private Long version;
 
-    @Builder.Default
-    private List<PlannerFundDTO> funds = new ArrayList<>();
+    /**
+     * On update, null leaves the stored funds (or sources) untouched while an
+     * empty list removes them.
+     */
+    private List<PlannerFundDTO> funds;
 
-    @Builder.Default
-    private List<PlannerSourceDTO> sources = new ArrayList<>();
+    private List<PlannerSourceDTO> sources;
 }
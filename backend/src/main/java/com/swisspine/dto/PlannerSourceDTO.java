@@ -6,7 +6,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -20,9 +19,7 @@ public class PlannerSourceDTO {
     private String sourceName;
     private Integer displayOrder;
 
-    @Builder.Default
-    private List<PlannerRunDTO> runs = new ArrayList<>();
+    private List<PlannerRunDTO> runs;
 
-    @Builder.Default
-    private List<PlannerReportDTO> reports = new ArrayList<>();
+    private List<PlannerReportDTO> reports;
 }
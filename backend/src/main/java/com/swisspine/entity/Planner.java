@@ -30,7 +30,8 @@ import java.util.List;
 @Table(name = "planners", indexes = {
         @Index(name = "idx_planner_name", columnList = "name"),
         @Index(name = "idx_planner_status", columnList = "status"),
-        @Index(name = "idx_planner_created", columnList = "created_at")
+        @Index(name = "idx_planner_created_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_planner_status_created_id", columnList = "status, created_at DESC, id DESC")
 })
 @Getter
 @Setter
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Master data entity for report names.
@@ -17,6 +19,8 @@ import lombok.*;
         @Index(name = "idx_report_names_name", columnList = "name"),
         @Index(name = "idx_report_names_type", columnList = "report_type_id")
 }, uniqueConstraints = @UniqueConstraint(name = "uk_report_name", columnNames = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Master data entity for report types.
@@ -13,6 +15,8 @@ import lombok.*;
  */
 @Entity
 @Table(name = "report_types", indexes = @Index(name = "idx_report_types_name", columnList = "name"), uniqueConstraints = @UniqueConstraint(name = "uk_report_type", columnNames = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Master data entity for source names used in planner configurations.
@@ -13,6 +15,8 @@ import lombok.*;
  */
 @Entity
 @Table(name = "source_names", indexes = @Index(name = "idx_source_names_name", columnList = "name"), uniqueConstraints = @UniqueConstraint(name = "uk_source_name", columnNames = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,6 +1,7 @@
 package com.swisspine.repository;
 
 import com.swisspine.entity.ExternalConnection;
+import com.swisspine.repository.projection.RowVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -35,17 +36,35 @@ public interface ExternalConnectionRepository extends JpaRepository<ExternalConn
 
     /**
      * Search external connections by name with pagination.
-     * Uses case-insensitive LIKE query for flexible search.
+     * Uses a case-insensitive LIKE served by the trigram (substring) or
+     * text_pattern_ops (prefix) index on LOWER(name).
      * 
-     * @param searchTerm The search term to match against name (supports partial
-     *                   matches)
-     * @param pageable   Pagination parameters (page number, size, sorting)
+     * @param pattern  LIKE pattern built by SearchPattern
+     * @param pageable Pagination parameters (page number, size, sorting)
      * @return Page of matching external connections
      */
     @Query("SELECT ec FROM ExternalConnection ec WHERE " +
-            "LOWER(ec.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+            "LOWER(ec.name) LIKE :pattern ESCAPE '\\'")
     Page<ExternalConnection> searchByName(
-            @Param("searchTerm") String searchTerm,
+            @Param("pattern") String pattern,
+            Pageable pageable);
+
+    /**
+     * Search external connections by name, ordered by trigram word similarity
+     * of the term to the name (best matches first).
+     * 
+     * @param pattern  LIKE pattern built by SearchPattern
+     * @param term     Normalized search term used for ranking
+     * @param pageable Pagination parameters (ordering is fixed by the query)
+     */
+    @Query(value = "SELECT ec FROM ExternalConnection ec WHERE " +
+            "LOWER(ec.name) LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY FUNCTION('word_similarity', :term, LOWER(ec.name)) DESC, ec.name ASC",
+            countQuery = "SELECT COUNT(ec) FROM ExternalConnection ec WHERE " +
+                    "LOWER(ec.name) LIKE :pattern ESCAPE '\\'")
+    Page<ExternalConnection> searchByNameRanked(
+            @Param("pattern") String pattern,
+            @Param("term") String term,
             Pageable pageable);
 
     /**
@@ -63,4 +82,19 @@ public interface ExternalConnectionRepository extends JpaRepository<ExternalConn
     @Query("SELECT COUNT(ec) FROM ExternalConnection ec WHERE " +
             "ec.isDefault = true AND ec.id <> :excludeId")
     long countDefaultConnectionsExcluding(@Param("excludeId") Long excludeId);
+
+    /**
+     * Version columns of one connection, for conditional GETs.
+     */
+    @Query("SELECT new com.swisspine.repository.projection.RowVersion(ec.version, ec.updatedAt) " +
+            "FROM ExternalConnection ec WHERE ec.id = :id")
+    Optional<RowVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Change counter of the external_connections table (V8 migration), for
+     * conditional GETs on lists that include connection data.
+     */
+    @Query(value = "SELECT CAST(COALESCE(SUM(change_count), 0) AS BIGINT) FROM table_changes "
+            + "WHERE table_name = 'external_connections'", nativeQuery = true)
+    long findChangeCount();
 }
@@ -1,7 +1,9 @@
 package com.swisspine.repository;
 
 import com.swisspine.entity.FundAlias;
+import com.swisspine.repository.projection.FundAliasRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +11,8 @@ import java.util.List;
 @Repository
 public interface FundAliasRepository extends JpaRepository<FundAlias, Long> {
     List<FundAlias> findByFundIdOrderByAliasNameAsc(Long fundId);
+
+    @Query("SELECT new com.swisspine.repository.projection.FundAliasRow(a.id, a.fund.id, a.aliasName) "
+            + "FROM FundAlias a")
+    List<FundAliasRow> findAllRows();
 }
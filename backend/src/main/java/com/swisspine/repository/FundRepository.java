@@ -1,7 +1,14 @@
 package com.swisspine.repository;
 
 import com.swisspine.entity.Fund;
+import com.swisspine.repository.projection.FundRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,7 +16,46 @@ import java.util.Optional;
 
 @Repository
 public interface FundRepository extends JpaRepository<Fund, Long> {
+
+    String ROW_SELECT = "SELECT new com.swisspine.repository.projection.FundRow("
+            + "f.id, f.name, f.createdAt, f.updatedAt) FROM Fund f ";
+
+    String NAME_ROW_SELECT = "SELECT new com.swisspine.repository.projection.FundRow(f.id, f.name) FROM Fund f ";
+
+    String AFTER_NAME = "WHERE f.name > :name ";
+
+    String NAME_ORDER = "ORDER BY f.name ASC";
+
     Optional<Fund> findByNameIgnoreCase(String name);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Fund> findAllByOrderByNameAsc();
+
+    /**
+     * First keyset page ordered by name (unique). Returns a List so Spring
+     * Data skips the count query; the caller requests one extra row to
+     * detect whether a next page exists.
+     *
+     * @param pageable Limit only (page 0, no sort)
+     */
+    @Query(ROW_SELECT + NAME_ORDER)
+    List<FundRow> findFirstNamePage(Pageable pageable);
+
+    /**
+     * Keyset page strictly after the given name.
+     */
+    @Query(ROW_SELECT + AFTER_NAME + NAME_ORDER)
+    List<FundRow> findNamePageAfter(@Param("name") String name, Pageable pageable);
+
+    /**
+     * First keyset page selecting only id and name.
+     */
+    @Query(NAME_ROW_SELECT + NAME_ORDER)
+    List<FundRow> findFirstNameOnlyPage(Pageable pageable);
+
+    /**
+     * Keyset page selecting only id and name, strictly after the given name.
+     */
+    @Query(NAME_ROW_SELECT + AFTER_NAME + NAME_ORDER)
+    List<FundRow> findNameOnlyPageAfter(@Param("name") String name, Pageable pageable);
 }
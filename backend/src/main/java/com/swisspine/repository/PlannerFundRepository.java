@@ -0,0 +1,31 @@
+package com.swisspine.repository;
+
+import com.swisspine.entity.PlannerFund;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for planner-fund associations.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@Repository
+public interface PlannerFundRepository extends JpaRepository<PlannerFund, Long> {
+
+    /**
+     * Load fund associations for a set of planners in one query.
+     * Fund and alias are to-one joins, so the row count equals the number of
+     * associations.
+     */
+    @Query("SELECT pf FROM PlannerFund pf " +
+            "JOIN FETCH pf.fund " +
+            "LEFT JOIN FETCH pf.fundAlias " +
+            "WHERE pf.planner.id IN :plannerIds " +
+            "ORDER BY pf.planner.id, pf.id")
+    List<PlannerFund> findByPlannerIdIn(@Param("plannerIds") Collection<Long> plannerIds);
+}
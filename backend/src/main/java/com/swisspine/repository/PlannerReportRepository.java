@@ -0,0 +1,29 @@
+package com.swisspine.repository;
+
+import com.swisspine.entity.PlannerReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for planner source reports.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@Repository
+public interface PlannerReportRepository extends JpaRepository<PlannerReport, Long> {
+
+    /**
+     * Load reports for a set of planner sources in one query, in display order.
+     */
+    @Query("SELECT r FROM PlannerReport r " +
+            "LEFT JOIN FETCH r.reportType " +
+            "LEFT JOIN FETCH r.reportName " +
+            "WHERE r.plannerSource.id IN :sourceIds " +
+            "ORDER BY r.plannerSource.id, r.displayOrder, r.id")
+    List<PlannerReport> findByPlannerSourceIdIn(@Param("sourceIds") Collection<Long> sourceIds);
+}
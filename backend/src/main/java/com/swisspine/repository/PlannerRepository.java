@@ -1,6 +1,9 @@
 package com.swisspine.repository;
 
 import com.swisspine.entity.Planner;
+import com.swisspine.repository.projection.PlannerAggregateView;
+import com.swisspine.repository.projection.PlannerListRow;
+import com.swisspine.repository.projection.PlannerVersionRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -9,6 +12,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,45 +25,327 @@ import java.util.Optional;
  * @author SwissPine Engineering Team
  */
 @Repository
-public interface PlannerRepository extends JpaRepository<Planner, Long> {
+public interface PlannerRepository extends JpaRepository<Planner, Long>, PlannerRepositoryCustom {
 
         /**
-         * Find planner by ID with all relationships eagerly loaded.
-         * Uses @EntityGraph to fetch funds and sources in a single query.
+         * Find planner by ID with its external connection eagerly loaded.
          * 
-         * This prevents N+1 query problems when accessing related entities.
+         * Only the to-one association is fetched here. Collections (funds,
+         * sources and their runs/reports) are loaded level by level with one
+         * IN query per level, which avoids both N+1 queries and the
+         * funds x sources x runs x reports cartesian product of a single
+         * multi-collection fetch join.
          */
-        @EntityGraph(attributePaths = { "funds", "funds.fund", "funds.fundAlias", "sources", "externalSystemConfig" })
+        @EntityGraph(attributePaths = { "externalSystemConfig" })
         Optional<Planner> findWithRelationsById(Long id);
 
         /**
-         * Search planners by name with pagination.
-         * Case-insensitive search supporting partial matches.
-         * 
-         * @param searchTerm The search term to match against name
-         * @param pageable   Pagination parameters
-         * @return Page of matching planners
+         * Shared select list for planner list views: planner columns plus the
+         * external connection summary, resolved with a single LEFT JOIN.
+         */
+        String LIST_ROW_SELECT = "SELECT new com.swisspine.repository.projection.PlannerListRow(" +
+                        "p.id, p.name, p.description, p.plannerType, p.status, p.finishedAt, " +
+                        "p.createdAt, p.updatedAt, p.version, " +
+                        "c.id, c.name, c.baseUrl, c.authenticationMethod) " +
+                        "FROM Planner p LEFT JOIN p.externalSystemConfig c ";
+
+        /**
+         * Name filter; the pattern comes from SearchPattern so it matches the
+         * trigram (substring) or text_pattern_ops (prefix) index on LOWER(name).
+         */
+        String NAME_MATCH = "LOWER(p.name) LIKE :pattern ESCAPE '\\' ";
+
+        String NAME_OR_DESCRIPTION_MATCH = "(LOWER(p.name) LIKE :pattern ESCAPE '\\' " +
+                        "OR LOWER(p.description) LIKE :pattern ESCAPE '\\') ";
+
+        /**
+         * Status filter. Filtered and unfiltered views are separate queries
+         * rather than one {@code (:status IS NULL OR p.status = :status)}
+         * predicate: a generic plan of a server-prepared statement cannot
+         * seek on idx_planner_status_created_id (V3) for the latter. The
+         * default methods below pick the variant for a nullable status.
+         */
+        String STATUS_MATCH = "p.status = :status ";
+
+        /**
+         * Position strictly after (createdAt, id) in keyset order. The
+         * redundant {@code p.createdAt <= :createdAt} bound is what PostgreSQL
+         * turns into an index range on idx_planner_created_id and
+         * idx_planner_status_created_id, so the scan starts at the cursor; the
+         * OR alone is only a filter applied from the top of the index.
+         */
+        String AFTER_CURSOR = "p.createdAt <= :createdAt "
+                        + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ";
+
+        String KEYSET_ORDER = "ORDER BY p.createdAt DESC, p.id DESC";
+
+        String RANKED_ORDER = "ORDER BY FUNCTION('word_similarity', :term, LOWER(p.name)) DESC, "
+                        + "p.createdAt DESC, p.id DESC";
+
+        String COUNT_FROM = "SELECT COUNT(p) FROM Planner p ";
+
+        /**
+         * Find planner list rows with pagination and optional status filter.
+         *
+         * @param status   Optional status filter (null for all)
+         * @param pageable Pagination parameters (ordering is fixed by the query)
+         * @return Page of list rows
+         */
+        default Page<PlannerListRow> findListPage(String status, Pageable pageable) {
+                return status == null
+                                ? findListPageAnyStatus(pageable)
+                                : findListPageWithStatus(status, pageable);
+        }
+
+        @Query(value = LIST_ROW_SELECT + KEYSET_ORDER, countQuery = COUNT_FROM)
+        Page<PlannerListRow> findListPageAnyStatus(Pageable pageable);
+
+        @Query(value = LIST_ROW_SELECT + "WHERE " + STATUS_MATCH + KEYSET_ORDER,
+                        countQuery = COUNT_FROM + "WHERE " + STATUS_MATCH)
+        Page<PlannerListRow> findListPageWithStatus(
+                        @Param("status") String status,
+                        Pageable pageable);
+
+        /**
+         * Search planner list rows by name with pagination.
+         * Case-insensitive search supporting partial matches, optionally
+         * filtered by status.
+         *
+         * @param pattern    LIKE pattern built by SearchPattern
+         * @param status     Optional status filter (null for all)
+         * @param pageable   Pagination parameters (ordering is fixed by the query)
+         * @return Page of matching list rows
          */
-        @Query("SELECT p FROM Planner p WHERE " +
-                        "LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-        Page<Planner> searchByName(
-                        @Param("searchTerm") String searchTerm,
+        default Page<PlannerListRow> searchListPage(String pattern, String status, Pageable pageable) {
+                return status == null
+                                ? searchListPageAnyStatus(pattern, pageable)
+                                : searchListPageWithStatus(pattern, status, pageable);
+        }
+
+        @Query(value = LIST_ROW_SELECT + "WHERE " + NAME_MATCH + KEYSET_ORDER,
+                        countQuery = COUNT_FROM + "WHERE " + NAME_MATCH)
+        Page<PlannerListRow> searchListPageAnyStatus(
+                        @Param("pattern") String pattern,
+                        Pageable pageable);
+
+        @Query(value = LIST_ROW_SELECT + "WHERE " + NAME_MATCH + "AND " + STATUS_MATCH + KEYSET_ORDER,
+                        countQuery = COUNT_FROM + "WHERE " + NAME_MATCH + "AND " + STATUS_MATCH)
+        Page<PlannerListRow> searchListPageWithStatus(
+                        @Param("pattern") String pattern,
+                        @Param("status") String status,
                         Pageable pageable);
 
         /**
-         * Search planners by name and status with pagination.
+         * Ranked search over name and description, ordered by trigram word
+         * similarity of the term to the name (best matches first).
+         *
+         * @param pattern LIKE pattern built by SearchPattern
+         * @param term    Normalized search term used for ranking
          */
-        @Query("SELECT p FROM Planner p WHERE " +
-                        "LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-                        "AND p.status = :status")
-        Page<Planner> searchByNameAndStatus(
-                        @Param("searchTerm") String searchTerm,
+        default Page<PlannerListRow> searchRankedListPage(String pattern, String term, String status,
+                        Pageable pageable) {
+                return status == null
+                                ? searchRankedListPageAnyStatus(pattern, term, pageable)
+                                : searchRankedListPageWithStatus(pattern, term, status, pageable);
+        }
+
+        @Query(value = LIST_ROW_SELECT + "WHERE " + NAME_OR_DESCRIPTION_MATCH + RANKED_ORDER,
+                        countQuery = COUNT_FROM + "WHERE " + NAME_OR_DESCRIPTION_MATCH)
+        Page<PlannerListRow> searchRankedListPageAnyStatus(
+                        @Param("pattern") String pattern,
+                        @Param("term") String term,
+                        Pageable pageable);
+
+        @Query(value = LIST_ROW_SELECT + "WHERE " + NAME_OR_DESCRIPTION_MATCH + "AND " + STATUS_MATCH
+                        + RANKED_ORDER,
+                        countQuery = COUNT_FROM + "WHERE " + NAME_OR_DESCRIPTION_MATCH + "AND " + STATUS_MATCH)
+        Page<PlannerListRow> searchRankedListPageWithStatus(
+                        @Param("pattern") String pattern,
+                        @Param("term") String term,
                         @Param("status") String status,
                         Pageable pageable);
 
         /**
-         * Find planners by status with pagination.
-         * Enables filtering by workflow state (Draft, Running, Finished, Failed).
+         * Planner counts per status, planner type and connection from the
+         * trigger-maintained planner_aggregates table (V6 migration).
+         * Cost depends on the number of groups, not the number of planners.
+         */
+        @Query(value = "SELECT a.dimension AS dimension, a.group_key AS groupKey, c.name AS groupName, " +
+                        "a.planner_count AS plannerCount " +
+                        "FROM planner_aggregates a " +
+                        "LEFT JOIN external_connections c " +
+                        "ON a.dimension = 'connection' AND CAST(c.id AS VARCHAR) = a.group_key " +
+                        "WHERE a.planner_count > 0 " +
+                        "ORDER BY a.dimension, a.planner_count DESC, a.group_key", nativeQuery = true)
+        List<PlannerAggregateView> findAggregates();
+
+        /**
+         * Version columns of a planner and its connection, for conditional
+         * GETs. Reads two index-backed rows instead of the planner graph.
          */
-        Page<Planner> findByStatusOrderByCreatedAtDesc(String status, Pageable pageable);
+        @Query("SELECT new com.swisspine.repository.projection.PlannerVersionRow(" +
+                        "p.version, p.updatedAt, c.id, c.version, c.updatedAt) " +
+                        "FROM Planner p LEFT JOIN p.externalSystemConfig c WHERE p.id = :id")
+        Optional<PlannerVersionRow> findVersionById(@Param("id") Long id);
+
+        /**
+         * Change counter of the planners table (V8 migration), bumped by every
+         * statement that changes rows; the validator for list views and
+         * aggregates. Sums the counter's striped primary-key rows.
+         */
+        @Query(value = "SELECT CAST(COALESCE(SUM(change_count), 0) AS BIGINT) FROM table_changes "
+                        + "WHERE table_name = 'planners'", nativeQuery = true)
+        long findChangeCount();
+
+        /**
+         * Offset page of list rows without a count query. Used by the
+         * estimate/none count modes together with a LookAheadPageRequest.
+         */
+        default List<PlannerListRow> findListRows(String status, Pageable pageable) {
+                return status == null
+                                ? findListRowsAnyStatus(pageable)
+                                : findListRowsWithStatus(status, pageable);
+        }
+
+        @Query(LIST_ROW_SELECT + KEYSET_ORDER)
+        List<PlannerListRow> findListRowsAnyStatus(Pageable pageable);
+
+        @Query(LIST_ROW_SELECT + "WHERE " + STATUS_MATCH + KEYSET_ORDER)
+        List<PlannerListRow> findListRowsWithStatus(
+                        @Param("status") String status,
+                        Pageable pageable);
+
+        /**
+         * Offset page of a name search without a count query.
+         */
+        default List<PlannerListRow> searchListRows(String pattern, String status, Pageable pageable) {
+                return status == null
+                                ? searchListRowsAnyStatus(pattern, pageable)
+                                : searchListRowsWithStatus(pattern, status, pageable);
+        }
+
+        @Query(LIST_ROW_SELECT + "WHERE " + NAME_MATCH + KEYSET_ORDER)
+        List<PlannerListRow> searchListRowsAnyStatus(
+                        @Param("pattern") String pattern,
+                        Pageable pageable);
+
+        @Query(LIST_ROW_SELECT + "WHERE " + NAME_MATCH + "AND " + STATUS_MATCH + KEYSET_ORDER)
+        List<PlannerListRow> searchListRowsWithStatus(
+                        @Param("pattern") String pattern,
+                        @Param("status") String status,
+                        Pageable pageable);
+
+        /**
+         * Offset page of a ranked search without a count query.
+         */
+        default List<PlannerListRow> searchRankedListRows(String pattern, String term, String status,
+                        Pageable pageable) {
+                return status == null
+                                ? searchRankedListRowsAnyStatus(pattern, term, pageable)
+                                : searchRankedListRowsWithStatus(pattern, term, status, pageable);
+        }
+
+        @Query(LIST_ROW_SELECT + "WHERE " + NAME_OR_DESCRIPTION_MATCH + RANKED_ORDER)
+        List<PlannerListRow> searchRankedListRowsAnyStatus(
+                        @Param("pattern") String pattern,
+                        @Param("term") String term,
+                        Pageable pageable);
+
+        @Query(LIST_ROW_SELECT + "WHERE " + NAME_OR_DESCRIPTION_MATCH + "AND " + STATUS_MATCH + RANKED_ORDER)
+        List<PlannerListRow> searchRankedListRowsWithStatus(
+                        @Param("pattern") String pattern,
+                        @Param("term") String term,
+                        @Param("status") String status,
+                        Pageable pageable);
+
+        /**
+         * First keyset page ordered by (createdAt DESC, id DESC).
+         * Returns a List so Spring Data skips the count query; the caller
+         * requests one extra row to detect whether a next page exists.
+         *
+         * @param status   Optional status filter (null for all)
+         * @param pageable Limit only (page 0, no sort)
+         */
+        default List<PlannerListRow> findFirstKeysetPage(String status, Pageable pageable) {
+                return status == null
+                                ? findFirstKeysetPageAnyStatus(pageable)
+                                : findFirstKeysetPageWithStatus(status, pageable);
+        }
+
+        @Query(LIST_ROW_SELECT + KEYSET_ORDER)
+        List<PlannerListRow> findFirstKeysetPageAnyStatus(Pageable pageable);
+
+        @Query(LIST_ROW_SELECT + "WHERE " + STATUS_MATCH + KEYSET_ORDER)
+        List<PlannerListRow> findFirstKeysetPageWithStatus(
+                        @Param("status") String status,
+                        Pageable pageable);
+
+        /**
+         * Keyset page strictly after the given (createdAt, id) position.
+         */
+        default List<PlannerListRow> findKeysetPageAfter(String status, Instant createdAt, Long id,
+                        Pageable pageable) {
+                return status == null
+                                ? findKeysetPageAfterAnyStatus(createdAt, id, pageable)
+                                : findKeysetPageAfterWithStatus(status, createdAt, id, pageable);
+        }
+
+        @Query(LIST_ROW_SELECT + "WHERE " + AFTER_CURSOR + KEYSET_ORDER)
+        List<PlannerListRow> findKeysetPageAfterAnyStatus(
+                        @Param("createdAt") Instant createdAt,
+                        @Param("id") Long id,
+                        Pageable pageable);
+
+        @Query(LIST_ROW_SELECT + "WHERE " + STATUS_MATCH + "AND " + AFTER_CURSOR + KEYSET_ORDER)
+        List<PlannerListRow> findKeysetPageAfterWithStatus(
+                        @Param("status") String status,
+                        @Param("createdAt") Instant createdAt,
+                        @Param("id") Long id,
+                        Pageable pageable);
+
+        /**
+         * First keyset page of a name search.
+         */
+        default List<PlannerListRow> searchFirstKeysetPage(String pattern, String status, Pageable pageable) {
+                return status == null
+                                ? searchFirstKeysetPageAnyStatus(pattern, pageable)
+                                : searchFirstKeysetPageWithStatus(pattern, status, pageable);
+        }
+
+        @Query(LIST_ROW_SELECT + "WHERE " + NAME_MATCH + KEYSET_ORDER)
+        List<PlannerListRow> searchFirstKeysetPageAnyStatus(
+                        @Param("pattern") String pattern,
+                        Pageable pageable);
+
+        @Query(LIST_ROW_SELECT + "WHERE " + NAME_MATCH + "AND " + STATUS_MATCH + KEYSET_ORDER)
+        List<PlannerListRow> searchFirstKeysetPageWithStatus(
+                        @Param("pattern") String pattern,
+                        @Param("status") String status,
+                        Pageable pageable);
+
+        /**
+         * Keyset page of a name search strictly after the given position.
+         */
+        default List<PlannerListRow> searchKeysetPageAfter(String pattern, String status, Instant createdAt,
+                        Long id, Pageable pageable) {
+                return status == null
+                                ? searchKeysetPageAfterAnyStatus(pattern, createdAt, id, pageable)
+                                : searchKeysetPageAfterWithStatus(pattern, status, createdAt, id, pageable);
+        }
+
+        @Query(LIST_ROW_SELECT + "WHERE " + NAME_MATCH + "AND " + AFTER_CURSOR + KEYSET_ORDER)
+        List<PlannerListRow> searchKeysetPageAfterAnyStatus(
+                        @Param("pattern") String pattern,
+                        @Param("createdAt") Instant createdAt,
+                        @Param("id") Long id,
+                        Pageable pageable);
+
+        @Query(LIST_ROW_SELECT + "WHERE " + NAME_MATCH + "AND " + STATUS_MATCH + "AND " + AFTER_CURSOR
+                        + KEYSET_ORDER)
+        List<PlannerListRow> searchKeysetPageAfterWithStatus(
+                        @Param("pattern") String pattern,
+                        @Param("status") String status,
+                        @Param("createdAt") Instant createdAt,
+                        @Param("id") Long id,
+                        Pageable pageable);
 }
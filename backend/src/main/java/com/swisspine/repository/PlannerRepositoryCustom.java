@@ -0,0 +1,32 @@
+package com.swisspine.repository;
+
+/**
+ * Custom planner repository operations implemented with plain JDBC.
+ *
+ * @author SwissPine Engineering Team
+ */
+public interface PlannerRepositoryCustom {
+
+    /**
+     * Row count that is exact up to a threshold and a planner estimate above it.
+     *
+     * @param count Number of matching rows (or the estimate)
+     * @param exact Whether {@code count} is exact
+     */
+    record CountEstimate(long count, boolean exact) {
+    }
+
+    /**
+     * Count planners matching the list/search predicate cheaply.
+     *
+     * Runs an exact count capped at {@code exactThreshold + 1} rows; if the
+     * cap is reached the PostgreSQL planner estimate is returned instead
+     * (pg_class.reltuples when unfiltered, EXPLAIN row estimate otherwise).
+     *
+     * @param pattern            LIKE pattern built by SearchPattern, or null for no name filter
+     * @param includeDescription Whether the pattern also matches the description (ranked search)
+     * @param status             Optional status filter (null for all)
+     * @param exactThreshold     Largest count that is still computed exactly
+     */
+    CountEstimate estimateCount(String pattern, boolean includeDescription, String status, long exactThreshold);
+}
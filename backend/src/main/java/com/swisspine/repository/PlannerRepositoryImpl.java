@@ -0,0 +1,93 @@
+package com.swisspine.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link PlannerRepositoryCustom}.
+ *
+ * The predicates mirror NAME_MATCH, NAME_OR_DESCRIPTION_MATCH and
+ * STATUS_MATCH in {@link PlannerRepository} so estimates are taken over the
+ * same rows the list queries return; like there, the status predicate is only
+ * added when a status is given.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PlannerRepositoryImpl implements PlannerRepositoryCustom {
+
+    private static final String NAME_MATCH = "LOWER(p.name) LIKE ? ESCAPE '\\'";
+    private static final String DESCRIPTION_MATCH = "LOWER(p.description) LIKE ? ESCAPE '\\'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public CountEstimate estimateCount(String pattern, boolean includeDescription, String status,
+            long exactThreshold) {
+        List<String> predicates = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (pattern != null) {
+            if (includeDescription) {
+                predicates.add("(" + NAME_MATCH + " OR " + DESCRIPTION_MATCH + ")");
+                args.add(pattern);
+            } else {
+                predicates.add(NAME_MATCH);
+            }
+            args.add(pattern);
+        }
+        if (status != null) {
+            predicates.add("p.status = ?");
+            args.add(status);
+        }
+        String from = "FROM planners p" + (predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates));
+
+        // Capped exact count: stops scanning after threshold + 1 rows
+        List<Object> cappedArgs = new ArrayList<>(args);
+        cappedArgs.add(exactThreshold + 1);
+        Long capped = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 " + from + " LIMIT ?) capped",
+                Long.class, cappedArgs.toArray());
+        long cappedCount = capped != null ? capped : 0L;
+        if (cappedCount <= exactThreshold) {
+            return new CountEstimate(cappedCount, true);
+        }
+
+        long estimate = predicates.isEmpty() ? tableEstimate() : -1L;
+        if (estimate < 0) {
+            estimate = explainEstimate("SELECT 1 " + from, args.toArray());
+        }
+        // The capped count proved there are more rows than the threshold
+        return new CountEstimate(Math.max(estimate, cappedCount), false);
+    }
+
+    /**
+     * Row estimate from pg_class statistics; -1 if the table was never analyzed.
+     */
+    private long tableEstimate() {
+        Long reltuples = jdbcTemplate.queryForObject(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = 'planners'::regclass", Long.class);
+        return reltuples != null ? reltuples : -1L;
+    }
+
+    /**
+     * Top-level "Plan Rows" of EXPLAIN (FORMAT JSON) for the given query.
+     */
+    private long explainEstimate(String sql, Object[] args) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong(-1L);
+        } catch (Exception e) {
+            log.warn("Could not parse EXPLAIN output for planner count estimate", e);
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.swisspine.repository;
+
+import com.swisspine.entity.PlannerRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for planner source runs.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@Repository
+public interface PlannerRunRepository extends JpaRepository<PlannerRun, Long> {
+
+    /**
+     * Load runs for a set of planner sources in one query, in display order.
+     */
+    @Query("SELECT r FROM PlannerRun r " +
+            "LEFT JOIN FETCH r.runName " +
+            "WHERE r.plannerSource.id IN :sourceIds " +
+            "ORDER BY r.plannerSource.id, r.displayOrder, r.id")
+    List<PlannerRun> findByPlannerSourceIdIn(@Param("sourceIds") Collection<Long> sourceIds);
+}
@@ -0,0 +1,28 @@
+package com.swisspine.repository;
+
+import com.swisspine.entity.PlannerSource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for planner sources.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@Repository
+public interface PlannerSourceRepository extends JpaRepository<PlannerSource, Long> {
+
+    /**
+     * Load sources for a set of planners in one query, in display order.
+     */
+    @Query("SELECT ps FROM PlannerSource ps " +
+            "LEFT JOIN FETCH ps.sourceName " +
+            "WHERE ps.planner.id IN :plannerIds " +
+            "ORDER BY ps.planner.id, ps.displayOrder, ps.id")
+    List<PlannerSource> findByPlannerIdIn(@Param("plannerIds") Collection<Long> plannerIds);
+}
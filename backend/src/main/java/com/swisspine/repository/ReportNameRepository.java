@@ -1,9 +1,10 @@
 package com.swisspine.repository;
 
 import com.swisspine.entity.ReportName;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,8 +14,6 @@ import java.util.Optional;
 public interface ReportNameRepository extends JpaRepository<ReportName, Long> {
     Optional<ReportName> findByNameIgnoreCase(String name);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<ReportName> findAllByOrderByNameAsc();
-
-    @Query("SELECT rn FROM ReportName rn WHERE rn.reportType.id = :typeId ORDER BY rn.name ASC")
-    List<ReportName> findByReportTypeIdOrderByNameAsc(@Param("typeId") Long typeId);
 }
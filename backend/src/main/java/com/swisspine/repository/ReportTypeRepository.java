@@ -1,7 +1,10 @@
 package com.swisspine.repository;
 
 import com.swisspine.entity.ReportType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,5 +14,6 @@ import java.util.Optional;
 public interface ReportTypeRepository extends JpaRepository<ReportType, Long> {
     Optional<ReportType> findByNameIgnoreCase(String name);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<ReportType> findAllByOrderByNameAsc();
 }
@@ -1,7 +1,10 @@
 package com.swisspine.repository;
 
 import com.swisspine.entity.SourceName;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,5 +20,6 @@ public interface SourceNameRepository extends JpaRepository<SourceName, Long> {
 
     Optional<SourceName> findByNameIgnoreCase(String name);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<SourceName> findAllByOrderByNameAsc();
 }
@@ -0,0 +1,9 @@
+package com.swisspine.repository.projection;
+
+/**
+ * Fund alias columns without the fund; used to build the fund suggest index.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record FundAliasRow(Long id, Long fundId, String aliasName) {
+}
@@ -0,0 +1,16 @@
+package com.swisspine.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Fund columns for a listing page, read without loading the entity or its
+ * aliases. The timestamps are null when only id and name were selected.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record FundRow(Long id, String name, Instant createdAt, Instant updatedAt) {
+
+    public FundRow(Long id, String name) {
+        this(id, name, null, null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.swisspine.repository.projection;
+
+/**
+ * One row of the trigger-maintained planner_aggregates table.
+ *
+ * @author SwissPine Engineering Team
+ */
+public interface PlannerAggregateView {
+
+    /**
+     * 'status', 'planner_type' or 'connection'
+     */
+    String getDimension();
+
+    /**
+     * Group value; empty string when the planner column is NULL
+     */
+    String getGroupKey();
+
+    /**
+     * Connection name for the 'connection' dimension, otherwise null
+     */
+    String getGroupName();
+
+    Long getPlannerCount();
+}
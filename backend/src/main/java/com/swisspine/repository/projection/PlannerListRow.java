@@ -0,0 +1,28 @@
+package com.swisspine.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Read-only row for planner list views.
+ *
+ * Populated by a JPQL constructor expression that joins the external
+ * connection in the same statement, so list pages never touch the lazy
+ * Planner.externalSystemConfig association and no managed entities are built.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record PlannerListRow(
+        Long id,
+        String name,
+        String description,
+        String plannerType,
+        String status,
+        Instant finishedAt,
+        Instant createdAt,
+        Instant updatedAt,
+        Long version,
+        Long connectionId,
+        String connectionName,
+        String connectionBaseUrl,
+        String connectionAuthenticationMethod) {
+}
@@ -0,0 +1,17 @@
+package com.swisspine.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Version columns of a planner and its external connection. Planner
+ * responses embed a connection summary, so both rows validate them.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record PlannerVersionRow(
+        Long version,
+        Instant updatedAt,
+        Long connectionId,
+        Long connectionVersion,
+        Instant connectionUpdatedAt) {
+}
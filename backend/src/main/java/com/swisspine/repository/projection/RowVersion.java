@@ -0,0 +1,12 @@
+package com.swisspine.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Version columns of one row, read without loading the entity; used to
+ * answer conditional GETs.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record RowVersion(Long version, Instant updatedAt) {
+}
@@ -0,0 +1,248 @@
+package com.swisspine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.common.MasterDataType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Keeps the in-process master-data caches of this replica coherent with
+ * writes made by other replicas.
+ * 
+ * The V7 triggers pg_notify every committed master-data statement on
+ * {@value #CHANNEL}. This component LISTENs on a dedicated connection (not
+ * one borrowed from the pool) and turns each notification from another
+ * replica into the local invalidations a write on this replica would have
+ * caused: second-level cache entries evicted by id, and MasterDataChangedEvents
+ * for the snapshots and name indexes. Notifications carry the writer's
+ * application_name, so the replica's own changes, already applied at commit,
+ * are skipped.
+ * 
+ * Notifications sent while the listener is disconnected are lost. After every
+ * (re)connect all master-data caches are dropped, and the connection is
+ * re-established with exponential backoff.
+ * 
+ * Metrics: swisspine.cache.notifications (by table) and
+ * swisspine.cache.notification.reconnects.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@Component
+@Slf4j
+public class ChangeNotificationListener implements SmartLifecycle {
+
+    static final String CHANNEL = "swisspine_changes";
+
+    private static final Map<String, MasterDataType> TABLE_TYPES = Map.of(
+            "source_names", MasterDataType.SOURCE_NAME,
+            "run_names", MasterDataType.RUN_NAME,
+            "report_types", MasterDataType.REPORT_TYPE,
+            "report_names", MasterDataType.REPORT_NAME,
+            "funds", MasterDataType.FUND,
+            // Aliases only feed the fund name indexes
+            "fund_aliases", MasterDataType.FUND);
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long VALIDATE_AFTER_IDLE_MS = 30_000;
+    private static final long MIN_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Counter reconnects;
+
+    private volatile boolean running;
+    private volatile String nodeName;
+    private Thread thread;
+
+    public ChangeNotificationListener(DataSourceProperties dataSourceProperties, JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+            SecondLevelCacheInvalidator secondLevelCacheInvalidator, MeterRegistry meterRegistry,
+            @Value("${swisspine.cache.notifications.enabled:true}") boolean enabled) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.secondLevelCacheInvalidator = secondLevelCacheInvalidator;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.reconnects = Counter.builder("swisspine.cache.notification.reconnects")
+                .description("Change-notification connections re-established after a failure")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "change-notification-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Apply one notification payload from the V7 triggers.
+     */
+    void handle(String payload) {
+        Change change;
+        try {
+            change = objectMapper.readValue(payload, Change.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed change notification: {}", payload);
+            return;
+        }
+        MasterDataType type = TABLE_TYPES.get(change.table());
+        if (type == null || (nodeName != null && nodeName.equals(change.node()))) {
+            return;
+        }
+        meterRegistry.counter("swisspine.cache.notifications", "table", change.table()).increment();
+
+        // Bulk statements, renames and alias changes reload the whole type
+        boolean rowLevel = change.rows() != null && !"fund_aliases".equals(change.table())
+                && ("INSERT".equals(change.op()) || "DELETE".equals(change.op()));
+        if (!rowLevel) {
+            eventPublisher.publishEvent(new MasterDataChangedEvent(type));
+            return;
+        }
+        secondLevelCacheInvalidator.evict(type, change.rows().stream().map(Row::id).toList());
+        for (Row row : change.rows()) {
+            eventPublisher.publishEvent("DELETE".equals(change.op())
+                    ? MasterDataChangedEvent.deleted(type, row.id())
+                    : MasterDataChangedEvent.created(type, row.id(), row.name()));
+        }
+    }
+
+    /**
+     * Identify this replica by the application_name of its pooled connections,
+     * which the triggers copy into every notification.
+     */
+    void resolveNodeName() {
+        nodeName = jdbcTemplate.queryForObject("SELECT current_setting('application_name')", String.class);
+    }
+
+    /**
+     * Drop every master-data cache; changes may have been missed.
+     */
+    void invalidateAll() {
+        for (MasterDataType type : MasterDataType.values()) {
+            eventPublisher.publishEvent(new MasterDataChangedEvent(type));
+        }
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void listen() {
+        long backoff = MIN_BACKOFF_MS;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                if (nodeName == null) {
+                    resolveNodeName();
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    reconnects.increment();
+                }
+                connectedBefore = true;
+                invalidateAll();
+                backoff = MIN_BACKOFF_MS;
+                log.info("Listening for master-data changes on {} as {}", CHANNEL, nodeName);
+                poll(connection);
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Change notifications unavailable, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void poll(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long lastActivity = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications != null && notifications.length > 0) {
+                for (PGNotification notification : notifications) {
+                    handle(notification.getParameter());
+                }
+                lastActivity = System.currentTimeMillis();
+            } else if (System.currentTimeMillis() - lastActivity > VALIDATE_AFTER_IDLE_MS) {
+                // A silently dropped connection would otherwise just look idle
+                if (!connection.isValid(5)) {
+                    throw new SQLException("Change-notification connection is no longer valid");
+                }
+                lastActivity = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        properties.setProperty("ApplicationName", "swisspine-change-listener");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    /**
+     * Notification payload; rows is null when the whole table must be reloaded.
+     */
+    record Change(String table, String op, String node, List<Row> rows) {
+    }
+
+    record Row(Long id, String name) {
+    }
+}
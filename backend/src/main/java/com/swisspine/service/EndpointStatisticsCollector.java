@@ -0,0 +1,183 @@
+package com.swisspine.service;
+
+import com.swisspine.dto.PerformanceStatisticsDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint statistics for every {@code http.server.requests} timer in the
+ * registry, so new endpoints show up without code changes.
+ *
+ * Timers are grouped by method and URI template (one timer exists per status,
+ * outcome and exception). Percentiles are read from the merged request
+ * histograms; throughput and error rates cover the last
+ * {@code swisspine.statistics.endpoint-window}, taken from the difference
+ * between the current counts and those seen at the start of the window.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Component
+public class EndpointStatisticsCollector {
+
+    static final String REQUESTS_METER = "http.server.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Counts of earlier collections per endpoint key, oldest first.
+     */
+    private final Map<String, Deque<CountSample>> history = new HashMap<>();
+
+    /**
+     * Counters start at zero when the application starts, which is the
+     * baseline of an endpoint until it has history.
+     */
+    private final long startNanos;
+
+    @Value("${swisspine.statistics.endpoint-window:PT1M}")
+    private Duration window = Duration.ofMinutes(1);
+
+    public EndpointStatisticsCollector(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.startNanos = meterRegistry.config().clock().monotonicTime();
+    }
+
+    /**
+     * Cumulative counts of one endpoint at one point in time.
+     */
+    private record CountSample(long nanos, long requests, long serverErrors, long clientErrors) {
+    }
+
+    /**
+     * Timers of one endpoint merged together.
+     */
+    private static final class Group {
+        long requests;
+        long serverErrors;
+        long clientErrors;
+        double totalTimeMs;
+        final TreeMap<Double, Double> buckets = new TreeMap<>();
+
+        void add(Timer timer) {
+            long count = timer.count();
+            requests += count;
+            totalTimeMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            String outcome = timer.getId().getTag("outcome");
+            String status = timer.getId().getTag("status");
+            if ("SERVER_ERROR".equals(outcome) || (outcome == null && status != null && status.startsWith("5"))) {
+                serverErrors += count;
+            } else if ("CLIENT_ERROR".equals(outcome)
+                    || (outcome == null && status != null && status.startsWith("4"))) {
+                clientErrors += count;
+            }
+            for (CountAtBucket bucket : timer.takeSnapshot().histogramCounts()) {
+                buckets.merge(bucket.bucket(TimeUnit.MILLISECONDS), bucket.count(), Double::sum);
+            }
+        }
+    }
+
+    /**
+     * Statistics keyed by "METHOD /uri", in key order.
+     */
+    public synchronized Map<String, PerformanceStatisticsDTO.EndpointStatistics> collect() {
+        Map<String, Group> groups = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(REQUESTS_METER).timers()) {
+            String uri = timer.getId().getTag("uri");
+            String method = timer.getId().getTag("method");
+            if (uri == null || method == null) {
+                continue;
+            }
+            groups.computeIfAbsent(method + " " + uri, key -> new Group()).add(timer);
+        }
+
+        long now = meterRegistry.config().clock().monotonicTime();
+        Map<String, PerformanceStatisticsDTO.EndpointStatistics> result = new TreeMap<>();
+        groups.forEach((key, group) -> {
+            if (group.requests == 0) {
+                return;
+            }
+            CountSample current = new CountSample(now, group.requests, group.serverErrors, group.clientErrors);
+            CountSample baseline = advanceWindow(key, current);
+            double seconds = (current.nanos() - baseline.nanos()) / 1e9;
+            long windowRequests = current.requests() - baseline.requests();
+
+            result.put(key, PerformanceStatisticsDTO.EndpointStatistics.builder()
+                    .avgResponseTime(group.totalTimeMs / group.requests)
+                    .p50ResponseTime(percentile(group.buckets, 0.50))
+                    .p95ResponseTime(percentile(group.buckets, 0.95))
+                    .p99ResponseTime(percentile(group.buckets, 0.99))
+                    .requestCount(group.requests)
+                    .throughput(seconds > 0 ? windowRequests / seconds : 0.0)
+                    .errorRate(rate(current.serverErrors() - baseline.serverErrors(), windowRequests))
+                    .clientErrorRate(rate(current.clientErrors() - baseline.clientErrors(), windowRequests))
+                    .build());
+        });
+        history.keySet().retainAll(groups.keySet());
+        return result;
+    }
+
+    /**
+     * Record the current counts and return the sample the window starts at:
+     * the latest one at least a window old, or application start.
+     */
+    private CountSample advanceWindow(String key, CountSample current) {
+        Deque<CountSample> samples = history.computeIfAbsent(key, k -> {
+            Deque<CountSample> deque = new ArrayDeque<>();
+            deque.add(new CountSample(startNanos, 0, 0, 0));
+            return deque;
+        });
+        long windowStart = current.nanos() - window.toNanos();
+        while (samples.size() > 1) {
+            CountSample oldest = samples.removeFirst();
+            if (samples.peekFirst().nanos() > windowStart) {
+                samples.addFirst(oldest);
+                break;
+            }
+        }
+        CountSample baseline = samples.peekFirst();
+        samples.addLast(current);
+        return baseline;
+    }
+
+    private static double rate(long part, long total) {
+        return total > 0 ? (double) part / total * 100 : 0.0;
+    }
+
+    /**
+     * Percentile in milliseconds from cumulative bucket counts, interpolated
+     * linearly within the bucket; 0 when the timers publish no histogram.
+     */
+    static double percentile(TreeMap<Double, Double> buckets, double quantile) {
+        if (buckets.isEmpty()) {
+            return 0.0;
+        }
+        double total = buckets.lastEntry().getValue();
+        if (total <= 0) {
+            return 0.0;
+        }
+        double rank = quantile * total;
+        double lowerBound = 0.0;
+        double lowerCount = 0.0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            if (bucket.getValue() >= rank) {
+                double inBucket = bucket.getValue() - lowerCount;
+                double fraction = inBucket > 0 ? (rank - lowerCount) / inBucket : 1.0;
+                return lowerBound + (bucket.getKey() - lowerBound) * fraction;
+            }
+            lowerBound = bucket.getKey();
+            lowerCount = bucket.getValue();
+        }
+        return buckets.lastKey();
+    }
+}
@@ -1,11 +1,14 @@
 package com.swisspine.service;
 
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.common.SearchPattern;
 import com.swisspine.dto.ExternalConnectionDTO;
 import com.swisspine.dto.PageableResponseDTO;
 import com.swisspine.entity.ExternalConnection;
 import com.swisspine.exception.BusinessRuleViolationException;
 import com.swisspine.exception.ResourceNotFoundException;
 import com.swisspine.repository.ExternalConnectionRepository;
+import com.swisspine.repository.projection.RowVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -46,7 +49,7 @@ public class ExternalConnectionService {
         Page<ExternalConnection> entityPage;
 
         if (search != null && !search.trim().isEmpty()) {
-            entityPage = repository.searchByName(search.trim(), pageable);
+            entityPage = repository.searchByName(SearchPattern.forTerm(search), pageable);
         } else {
             entityPage = repository.findAll(pageable);
         }
@@ -59,6 +62,43 @@ public class ExternalConnectionService {
         return PageableResponseDTO.from(dtoPage);
     }
 
+    /**
+     * Search external connections by name, ordered by trigram similarity of
+     * the term to the name (closest matches first).
+     * Masks value fields in response for security.
+     */
+    @Transactional(readOnly = true)
+    public PageableResponseDTO<ExternalConnectionDTO> searchRanked(String search, int page, int size) {
+        log.debug("Ranked external connection search - search: {}, page: {}, size: {}", search, page, size);
+
+        Page<ExternalConnectionDTO> dtoPage = repository.searchByNameRanked(
+                SearchPattern.forTerm(search), SearchPattern.normalize(search), PageRequest.of(page, size))
+                .map(this::toDTO);
+
+        dtoPage.getContent().forEach(ExternalConnectionDTO::maskValueField);
+
+        return PageableResponseDTO.from(dtoPage);
+    }
+
+    /**
+     * Validators for a single connection, read from its version columns only.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getVersion(Long id) {
+        RowVersion row = repository.findVersionById(id)
+                .orElseThrow(() -> ResourceNotFoundException.forId("ExternalConnection", id));
+        return ResourceVersion.ofRow("connection", id, row.version(), row.updatedAt());
+    }
+
+    /**
+     * Validators for connection lists: the change counter of the connections
+     * table, which also covers filtered and searched pages.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getListVersion() {
+        return ResourceVersion.ofChangeCount("connections", repository.findChangeCount());
+    }
+
     /**
      * Find external connection by ID.
      * Masks value field in response.
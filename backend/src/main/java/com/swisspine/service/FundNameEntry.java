@@ -0,0 +1,14 @@
+package com.swisspine.service;
+
+/**
+ * A name a fund is known by: its own name (alias id null) or one of its
+ * aliases. The unit of the in-memory fund name indexes.
+ *
+ * @author SwissPine Engineering Team
+ */
+public record FundNameEntry(long fundId, String fundName, Long fundAliasId, String name) {
+
+    public boolean isAlias() {
+        return fundAliasId != null;
+    }
+}
@@ -0,0 +1,255 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.dto.FundResolutionResultDTO;
+import com.swisspine.dto.FundResolutionResultDTO.ItemResult;
+import com.swisspine.dto.FundResolutionResultDTO.ItemStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory exact-match index from normalized fund names and fund aliases to
+ * fund ids, for resolving names from upstream feeds in bulk.
+ *
+ * Names are normalized as in FundSuggestIndex (case, accents and punctuation
+ * are ignored) and keyed by a 64-bit FNV-1a hash in an open-addressing table
+ * of primitive arrays: hash, fund id and normalized name per slot, with
+ * linear probing. A name shared by several funds occupies one slot per fund,
+ * so a lookup walks the probe chain and collects every fund. Hashes are
+ * compared before names, so a hit costs one string comparison.
+ *
+ * A ReadWriteLock guards the table: a whole resolve request runs under one
+ * read lock, and committed fund changes are applied in place under the write
+ * lock (insert a created fund, drop a deleted fund with its aliases). A bulk
+ * change clears the table; the next request reloads it.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Component
+@Slf4j
+public class FundNameResolver {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock; a hash of 0 marks an empty slot
+    private long[] hashes = new long[INITIAL_CAPACITY];
+    private long[] fundIds = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int size;
+    private boolean built;
+
+    /**
+     * Resolve each name to the funds known by it, building the table with
+     * {@code loader} if needed.
+     *
+     * @return Per-name results in request order
+     */
+    public FundResolutionResultDTO resolve(List<String> requested, Supplier<List<FundNameEntry>> loader) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            while (!built) {
+                readLock.unlock();
+                try {
+                    ensureBuilt(loader);
+                } finally {
+                    readLock.lock();
+                }
+            }
+
+            FundResolutionResultDTO result = FundResolutionResultDTO.builder()
+                    .total(requested.size())
+                    .items(new ArrayList<>(requested.size()))
+                    .build();
+            List<Long> found = new ArrayList<>(2);
+            for (int index = 0; index < requested.size(); index++) {
+                found.clear();
+                String requestedName = requested.get(index);
+                if (requestedName != null) {
+                    lookup(FundSuggestIndex.normalize(requestedName), found);
+                }
+                result.getItems().add(item(index, found, result));
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Number of indexed (name, fund) pairs, or -1 if the table is not built.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return built ? size : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a committed fund change to the table.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMasterDataChanged(MasterDataChangedEvent event) {
+        if (event.type() != MasterDataType.FUND) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Until the table is built, the next build reads the committed state
+            if (!event.isSingleRow()) {
+                clear(INITIAL_CAPACITY);
+                built = false;
+            } else if (built && event.isDeletion()) {
+                removeFund(event.id());
+            } else if (built) {
+                put(FundSuggestIndex.normalize(event.name()), event.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void ensureBuilt(Supplier<List<FundNameEntry>> loader) {
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            long start = System.nanoTime();
+            List<FundNameEntry> entries = loader.get();
+            clear(capacityFor(entries.size()));
+            for (FundNameEntry entry : entries) {
+                put(FundSuggestIndex.normalize(entry.name()), entry.fundId());
+            }
+            built = true;
+            log.info("Built fund name resolver: {} names in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static ItemResult item(int index, List<Long> found, FundResolutionResultDTO result) {
+        ItemResult.ItemResultBuilder item = ItemResult.builder().index(index);
+        if (found.isEmpty()) {
+            result.setUnmatched(result.getUnmatched() + 1);
+            return item.status(ItemStatus.UNMATCHED).build();
+        }
+        if (found.size() == 1) {
+            result.setMatched(result.getMatched() + 1);
+            return item.status(ItemStatus.MATCHED).fundId(found.get(0)).build();
+        }
+        result.setAmbiguous(result.getAmbiguous() + 1);
+        return item.status(ItemStatus.AMBIGUOUS).candidateFundIds(List.copyOf(found)).build();
+    }
+
+    private void lookup(String name, List<Long> found) {
+        if (name.isEmpty()) {
+            return;
+        }
+        long hash = hash(name);
+        int mask = hashes.length - 1;
+        for (int slot = slot(hash, mask); hashes[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && names[slot].equals(name)) {
+                found.add(fundIds[slot]);
+            }
+        }
+    }
+
+    private void put(String name, long fundId) {
+        if (name.isEmpty()) {
+            return;
+        }
+        if ((size + 1) * 2 > hashes.length) {
+            rehash(hashes.length * 2);
+        }
+        long hash = hash(name);
+        int mask = hashes.length - 1;
+        int slot = slot(hash, mask);
+        for (; hashes[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && fundIds[slot] == fundId && names[slot].equals(name)) {
+                return;
+            }
+        }
+        hashes[slot] = hash;
+        fundIds[slot] = fundId;
+        names[slot] = name;
+        size++;
+    }
+
+    /**
+     * Drop every name of {@code fundId}. Re-inserts the remaining slots, which
+     * keeps probe chains intact without tombstones; deletions are rare.
+     */
+    private void removeFund(long fundId) {
+        long[] oldHashes = hashes;
+        long[] oldFundIds = fundIds;
+        String[] oldNames = names;
+        clear(oldHashes.length);
+        for (int slot = 0; slot < oldHashes.length; slot++) {
+            if (oldHashes[slot] != 0 && oldFundIds[slot] != fundId) {
+                put(oldNames[slot], oldFundIds[slot]);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldHashes = hashes;
+        long[] oldFundIds = fundIds;
+        String[] oldNames = names;
+        clear(capacity);
+        for (int slot = 0; slot < oldHashes.length; slot++) {
+            if (oldHashes[slot] != 0) {
+                put(oldNames[slot], oldFundIds[slot]);
+            }
+        }
+    }
+
+    private void clear(int capacity) {
+        hashes = new long[capacity];
+        fundIds = new long[capacity];
+        names = new String[capacity];
+        size = 0;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units; never 0, which marks an
+     * empty slot.
+     */
+    static long hash(String name) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < name.length(); i++) {
+            hash ^= name.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash != 0 ? hash : 1;
+    }
+
+    private static int slot(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,405 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.dto.FundSuggestionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory token-prefix index over fund names and fund aliases.
+ *
+ * Names are split into lower-cased, accent-free tokens, kept pre-split per
+ * name. Every token is also stored in one sorted array, next to the position
+ * of the name it came from. Names are kept in A-Z order and positions follow
+ * that order, which makes the lowest positions the first results.
+ *
+ * Names starting with the whole query are one contiguous range of the names,
+ * found with a binary search and read until the limit. The other matches
+ * come from the token range of the longest query token: a short range is
+ * copied and sorted by position, while a range too wide for that (a one- or
+ * two-letter query over many funds) is answered by walking the names A-Z
+ * until the limit is reached. Apart from the result, a query allocates at
+ * most the copy of a short range.
+ *
+ * The index is immutable and swapped atomically. It is built lazily from the
+ * database, and then kept up to date from committed fund changes by merging
+ * the one name in or out, without a reload. A bulk change (an event without
+ * an id) drops the index; the next query rebuilds it. As in
+ * MasterDataSnapshotCache, a build that loses a race with a change is
+ * returned but not installed.
+ *
+ * Fund aliases have no write API; they change with seeding, which publishes
+ * a bulk fund event. Deleting a fund removes its aliases with it, as the
+ * foreign key cascades.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Component
+@Slf4j
+public class FundSuggestIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State(0, null));
+
+    /**
+     * Return up to {@code limit} names with a token starting with each query
+     * token, names starting with the whole query first, then A-Z. A blank
+     * query returns the first names A-Z. Builds the index with
+     * {@code loader} if there is none.
+     */
+    public List<FundSuggestionDTO> suggest(String query, int limit, Supplier<List<FundNameEntry>> loader) {
+        return index(loader).suggest(normalize(query), limit);
+    }
+
+    /**
+     * Number of indexed names, or -1 if the index is not built.
+     */
+    public int size() {
+        Index index = state.get().index();
+        return index != null ? index.entries.length : -1;
+    }
+
+    /**
+     * Apply a committed fund change: merge a created fund in, take a deleted
+     * fund and its aliases out, or drop the index on a bulk change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMasterDataChanged(MasterDataChangedEvent event) {
+        if (event.type() != MasterDataType.FUND) {
+            return;
+        }
+        if (!event.isSingleRow()) {
+            update(index -> null);
+        } else if (event.isDeletion()) {
+            update(index -> index.withoutFund(event.id()));
+        } else {
+            update(index -> index.with(new FundNameEntry(event.id(), event.name(), null, event.name())));
+        }
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private Index index(Supplier<List<FundNameEntry>> loader) {
+        State current = state.get();
+        if (current.index() != null) {
+            return current.index();
+        }
+
+        long start = System.nanoTime();
+        Index built = Index.build(loader.get());
+        if (state.compareAndSet(current, new State(current.version(), built))) {
+            log.info("Built fund suggest index: {} names, {} tokens in {} ms",
+                    built.entries.length, built.tokens.length, (System.nanoTime() - start) / 1_000_000);
+        }
+        return built;
+    }
+
+    private void update(UnaryOperator<Index> change) {
+        state.updateAndGet(current -> new State(current.version() + 1,
+                current.index() != null ? change.apply(current.index()) : null));
+    }
+
+    private static FundSuggestionDTO toDTO(FundNameEntry entry) {
+        return FundSuggestionDTO.builder()
+                .fundId(entry.fundId())
+                .fundName(entry.fundName())
+                .fundAliasId(entry.fundAliasId())
+                .fundAliasName(entry.isAlias() ? entry.name() : null)
+                .build();
+    }
+
+    /**
+     * Lower-case, accent-free words of {@code text} joined by single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String plain = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return String.join(" ", tokenize(plain));
+    }
+
+    private static String[] tokenize(String normalized) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Index version, bumped by every change, and the index or null.
+     */
+    private record State(long version, Index index) {
+    }
+
+    /**
+     * Immutable arrays: entries, their normalized names and name tokens in A-Z
+     * order, and all tokens sorted, each with the position of its entry.
+     */
+    static final class Index {
+
+        private static final Comparator<String> NAME_ORDER = Comparator.naturalOrder();
+
+        private final FundNameEntry[] entries;
+        private final String[] names;
+        private final String[][] nameTokens;
+        private final String[] tokens;
+        private final int[] positions;
+
+        private Index(FundNameEntry[] entries, String[] names, String[][] nameTokens, String[] tokens,
+                int[] positions) {
+            this.entries = entries;
+            this.names = names;
+            this.nameTokens = nameTokens;
+            this.tokens = tokens;
+            this.positions = positions;
+        }
+
+        static Index build(List<FundNameEntry> source) {
+            FundNameEntry[] entries = source.toArray(FundNameEntry[]::new);
+            String[] keys = new String[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                keys[i] = normalize(entries[i].name());
+            }
+            Integer[] order = new Integer[entries.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing((Integer i) -> keys[i], NAME_ORDER)
+                    .thenComparingLong(i -> entries[i].fundId()));
+
+            FundNameEntry[] sortedEntries = new FundNameEntry[entries.length];
+            String[] names = new String[entries.length];
+            String[][] nameTokens = new String[entries.length][];
+            List<TokenRef> refs = new ArrayList<>();
+            for (int position = 0; position < order.length; position++) {
+                sortedEntries[position] = entries[order[position]];
+                names[position] = keys[order[position]];
+                nameTokens[position] = tokenize(names[position]);
+                for (String token : nameTokens[position]) {
+                    refs.add(new TokenRef(token, position));
+                }
+            }
+            refs.sort(TokenRef.ORDER);
+
+            String[] tokens = new String[refs.size()];
+            int[] positions = new int[refs.size()];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = refs.get(i).token();
+                positions[i] = refs.get(i).position();
+            }
+            return new Index(sortedEntries, names, nameTokens, tokens, positions);
+        }
+
+        List<FundSuggestionDTO> suggest(String query, int limit) {
+            List<FundSuggestionDTO> result = new ArrayList<>(Math.min(limit, 16));
+            if (query.isEmpty()) {
+                for (int i = 0; i < entries.length && result.size() < limit; i++) {
+                    result.add(toDTO(entries[i]));
+                }
+                return result;
+            }
+
+            // Names starting with the whole query: contiguous in A-Z order, and
+            // every query token is a prefix of one of their tokens
+            for (int i = lowerBound(names, query); i < names.length && names[i].startsWith(query)
+                    && result.size() < limit; i++) {
+                result.add(toDTO(entries[i]));
+            }
+            if (result.size() == limit) {
+                return result;
+            }
+
+            String[] queryTokens = tokenize(query);
+            // Candidates come from the range of the longest (most selective) query token
+            String lead = queryTokens[0];
+            for (String token : queryTokens) {
+                if (token.length() > lead.length()) {
+                    lead = token;
+                }
+            }
+            int from = lowerBound(tokens, lead);
+            int to = from;
+            while (to < tokens.length && tokens[to].startsWith(lead)) {
+                to++;
+            }
+            int range = to - from;
+            if (range == 0) {
+                return result;
+            }
+
+            // Sorting costs about the range; walking the names stops after
+            // roughly limit * names / range of them
+            if ((long) range * range > (long) names.length * limit) {
+                for (int position = 0; position < names.length && result.size() < limit; position++) {
+                    if (!names[position].startsWith(query) && matchesAll(nameTokens[position], queryTokens)) {
+                        result.add(toDTO(entries[position]));
+                    }
+                }
+                return result;
+            }
+
+            int[] candidates = Arrays.copyOfRange(positions, from, to);
+            Arrays.sort(candidates);
+            int previous = -1;
+            for (int i = 0; i < candidates.length && result.size() < limit; i++) {
+                int candidate = candidates[i];
+                if (candidate == previous) {
+                    continue;
+                }
+                previous = candidate;
+                if (!names[candidate].startsWith(query) && matchesAll(nameTokens[candidate], queryTokens)) {
+                    result.add(toDTO(entries[candidate]));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Copy of this index with {@code entry} merged in.
+         */
+        Index with(FundNameEntry entry) {
+            String name = normalize(entry.name());
+            int insertAt = 0;
+            while (insertAt < names.length && NAME_ORDER.compare(names[insertAt], name) <= 0) {
+                insertAt++;
+            }
+
+            FundNameEntry[] newEntries = new FundNameEntry[entries.length + 1];
+            String[] newNames = new String[names.length + 1];
+            System.arraycopy(entries, 0, newEntries, 0, insertAt);
+            System.arraycopy(entries, insertAt, newEntries, insertAt + 1, entries.length - insertAt);
+            System.arraycopy(names, 0, newNames, 0, insertAt);
+            System.arraycopy(names, insertAt, newNames, insertAt + 1, names.length - insertAt);
+            newEntries[insertAt] = entry;
+            newNames[insertAt] = name;
+
+            String[][] newNameTokens = new String[nameTokens.length + 1][];
+            System.arraycopy(nameTokens, 0, newNameTokens, 0, insertAt);
+            System.arraycopy(nameTokens, insertAt, newNameTokens, insertAt + 1, nameTokens.length - insertAt);
+            newNameTokens[insertAt] = tokenize(name);
+
+            String[] added = newNameTokens[insertAt].clone();
+            Arrays.sort(added);
+            String[] newTokens = new String[tokens.length + added.length];
+            int[] newPositions = new int[newTokens.length];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < newTokens.length; k++) {
+                boolean takeExisting = j == added.length
+                        || (i < tokens.length && tokens[i].compareTo(added[j]) <= 0);
+                if (takeExisting) {
+                    newTokens[k] = tokens[i];
+                    newPositions[k] = positions[i] >= insertAt ? positions[i] + 1 : positions[i];
+                    i++;
+                } else {
+                    newTokens[k] = added[j++];
+                    newPositions[k] = insertAt;
+                }
+            }
+            return new Index(newEntries, newNames, newNameTokens, newTokens, newPositions);
+        }
+
+        /**
+         * Copy of this index without the names of fund {@code fundId}.
+         */
+        Index withoutFund(long fundId) {
+            int[] shift = new int[entries.length];
+            int removed = 0;
+            for (int position = 0; position < entries.length; position++) {
+                if (entries[position].fundId() == fundId) {
+                    shift[position] = -1;
+                    removed++;
+                } else {
+                    shift[position] = removed;
+                }
+            }
+            if (removed == 0) {
+                return this;
+            }
+
+            FundNameEntry[] newEntries = new FundNameEntry[entries.length - removed];
+            String[] newNames = new String[newEntries.length];
+            String[][] newNameTokens = new String[newEntries.length][];
+            for (int position = 0; position < entries.length; position++) {
+                if (shift[position] >= 0) {
+                    newEntries[position - shift[position]] = entries[position];
+                    newNames[position - shift[position]] = names[position];
+                    newNameTokens[position - shift[position]] = nameTokens[position];
+                }
+            }
+
+            int kept = 0;
+            for (int position : positions) {
+                if (shift[position] >= 0) {
+                    kept++;
+                }
+            }
+            String[] newTokens = new String[kept];
+            int[] newPositions = new int[kept];
+            int k = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                int position = positions[i];
+                if (shift[position] >= 0) {
+                    newTokens[k] = tokens[i];
+                    newPositions[k++] = position - shift[position];
+                }
+            }
+            return new Index(newEntries, newNames, newNameTokens, newTokens, newPositions);
+        }
+
+        /**
+         * First index of the sorted {@code values} not below {@code key}.
+         */
+        private static int lowerBound(String[] values, String key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static boolean matchesAll(String[] nameTokens, String[] queryTokens) {
+            for (String queryToken : queryTokens) {
+                boolean found = false;
+                for (String nameToken : nameTokens) {
+                    if (nameToken.startsWith(queryToken)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private record TokenRef(String token, int position) {
+
+            static final Comparator<TokenRef> ORDER = Comparator.comparing(TokenRef::token)
+                    .thenComparingInt(TokenRef::position);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.swisspine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.dto.MasterDataBootstrapDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves all master-data lists as one pre-rendered JSON body.
+ *
+ * The body is serialized and gzipped once from the master-data snapshots and
+ * kept in memory with the snapshot generation it was built from. A request
+ * whose generation still matches returns the cached bytes as they are; any
+ * committed master-data change bumps the generation, and the next request
+ * rebuilds the body. The generation is read before the lists, so a body is
+ * never tagged newer than its content.
+ *
+ * Metric: swisspine.masterdata.bootstrap.rebuilds.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Service
+@Slf4j
+public class MasterDataBootstrapService {
+
+    private final MasterDataService masterDataService;
+    private final MasterDataSnapshotCache snapshotCache;
+    private final ObjectMapper objectMapper;
+    private final Counter rebuilds;
+    private final AtomicReference<BootstrapBody> current = new AtomicReference<>();
+
+    public MasterDataBootstrapService(MasterDataService masterDataService, MasterDataSnapshotCache snapshotCache,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.masterDataService = masterDataService;
+        this.snapshotCache = snapshotCache;
+        this.objectMapper = objectMapper;
+        this.rebuilds = Counter.builder("swisspine.masterdata.bootstrap.rebuilds")
+                .description("Master-data bootstrap bodies rebuilt after a change")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the current bootstrap body, rebuilding it if master data changed
+     * since it was built.
+     */
+    public BootstrapBody getBootstrap() {
+        long generation = snapshotCache.generation();
+        BootstrapBody body = current.get();
+        if (body != null && body.generation() == generation) {
+            return body;
+        }
+
+        BootstrapBody built = build(generation);
+        // A concurrent request may have installed a body for a later generation
+        current.accumulateAndGet(built,
+                (existing, candidate) -> existing != null && existing.generation() > candidate.generation()
+                        ? existing
+                        : candidate);
+        rebuilds.increment();
+        log.debug("Rebuilt master-data bootstrap for generation {}: {} bytes, {} gzipped",
+                generation, built.json().length, built.gzip().length);
+        return built;
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private BootstrapBody build(long generation) {
+        MasterDataBootstrapDTO dto = MasterDataBootstrapDTO.builder()
+                .sourceNames(masterDataService.getAllSourceNames())
+                .runNames(masterDataService.getAllRunNames())
+                .reportTypes(masterDataService.getAllReportTypes())
+                .reportNames(masterDataService.getAllReportNames())
+                .funds(masterDataService.getAllFunds())
+                .reportNamesByType(masterDataService.getReportNamesByTypeIndex())
+                .build();
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize master-data bootstrap", e);
+        }
+        return new BootstrapBody(generation, json, gzip(json),
+                ResourceVersion.ofContent("bootstrap", json));
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A rendered bootstrap body: identity and gzip encodings of the same JSON,
+     * with its validators. The arrays are shared and must not be modified.
+     */
+    public record BootstrapBody(long generation, byte[] json, byte[] gzip, ResourceVersion version) {
+    }
+}
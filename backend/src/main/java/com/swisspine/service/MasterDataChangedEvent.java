@@ -0,0 +1,43 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+
+/**
+ * Published when rows of a master-data type are created or deleted.
+ * Listeners that depend on the committed state should use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ *
+ * A single-row change carries the row id, and for a creation its name, so
+ * listeners can apply it incrementally. An event without an id stands for an
+ * unknown set of changes, such as seeding, and means "reload the type".
+ *
+ * @author SwissPine Engineering Team
+ */
+public record MasterDataChangedEvent(MasterDataType type, Long id, String name) {
+
+    /**
+     * Any number of rows of {@code type} changed.
+     */
+    public MasterDataChangedEvent(MasterDataType type) {
+        this(type, null, null);
+    }
+
+    public static MasterDataChangedEvent created(MasterDataType type, Long id, String name) {
+        return new MasterDataChangedEvent(type, id, name);
+    }
+
+    public static MasterDataChangedEvent deleted(MasterDataType type, Long id) {
+        return new MasterDataChangedEvent(type, id, null);
+    }
+
+    /**
+     * Whether the event describes one row rather than a reload of the type.
+     */
+    public boolean isSingleRow() {
+        return id != null;
+    }
+
+    public boolean isDeletion() {
+        return id != null && name == null;
+    }
+}
@@ -1,17 +1,38 @@
 package com.swisspine.service;
 
+import com.swisspine.common.MasterDataType;
+import com.swisspine.common.NameKeysetCursor;
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.dto.FundResolutionResultDTO;
+import com.swisspine.dto.FundSuggestionDTO;
 import com.swisspine.dto.MasterDataDTO;
+import com.swisspine.dto.PageableResponseDTO;
 import com.swisspine.entity.*;
 import com.swisspine.exception.BusinessRuleViolationException;
 import com.swisspine.exception.ResourceNotFoundException;
 import com.swisspine.repository.*;
+import com.swisspine.repository.projection.FundAliasRow;
+import com.swisspine.repository.projection.FundRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +45,14 @@ import java.util.stream.Collectors;
  * - ReportName
  * - Fund
  * 
+ * Fund typeahead is answered from FundSuggestIndex and bulk name
+ * resolution from FundNameResolver.
+ * 
+ * The list reads are served from MasterDataSnapshotCache and only query the
+ * database to rebuild a snapshot after a committed create or delete. They
+ * run with SUPPORTS propagation so a snapshot hit does not open a
+ * transaction or borrow a connection.
+ * 
  * @author SwissPine Engineering Team
  */
 @Service
@@ -32,20 +61,33 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MasterDataService {
 
+    static final int MAX_FUND_SUGGESTIONS = 50;
+    static final int MAX_RESOLVE_NAMES = 100_000;
+    static final int MAX_FUND_PAGE_SIZE = 500;
+
+    /**
+     * Properties a fund page can be limited to with {@code fields}.
+     */
+    static final List<String> FUND_FIELDS = List.of("id", "name", "createdAt", "updatedAt");
+
     private final SourceNameRepository sourceNameRepository;
     private final RunNameRepository runNameRepository;
     private final ReportTypeRepository reportTypeRepository;
     private final ReportNameRepository reportNameRepository;
     private final FundRepository fundRepository;
+    private final FundAliasRepository fundAliasRepository;
+    private final MasterDataSnapshotCache snapshotCache;
+    private final FundSuggestIndex fundSuggestIndex;
+    private final FundNameResolver fundNameResolver;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<ReportNameIndex> reportNameIndex = new AtomicReference<>();
 
     // ==================== SourceName ====================
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<MasterDataDTO> getAllSourceNames() {
-        return sourceNameRepository.findAllByOrderByNameAsc()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return snapshotCache.get(MasterDataType.SOURCE_NAME, loader(MasterDataType.SOURCE_NAME));
     }
 
     public MasterDataDTO createSourceName(MasterDataDTO dto) {
@@ -55,6 +97,8 @@ public class MasterDataService {
         SourceName entity = new SourceName();
         entity.setName(dto.getName());
         SourceName saved = sourceNameRepository.save(entity);
+        eventPublisher.publishEvent(
+                MasterDataChangedEvent.created(MasterDataType.SOURCE_NAME, saved.getId(), saved.getName()));
 
         return toDTO(saved);
     }
@@ -62,16 +106,14 @@ public class MasterDataService {
     public void deleteSourceName(Long id) {
         log.info("Deleting source name ID: {}", id);
         sourceNameRepository.deleteById(id);
+        eventPublisher.publishEvent(MasterDataChangedEvent.deleted(MasterDataType.SOURCE_NAME, id));
     }
 
     // ==================== RunName ====================
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<MasterDataDTO> getAllRunNames() {
-        return runNameRepository.findAllByOrderByNameAsc()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return snapshotCache.get(MasterDataType.RUN_NAME, loader(MasterDataType.RUN_NAME));
     }
 
     public MasterDataDTO createRunName(MasterDataDTO dto) {
@@ -81,6 +123,8 @@ public class MasterDataService {
         RunName entity = new RunName();
         entity.setName(dto.getName());
         RunName saved = runNameRepository.save(entity);
+        eventPublisher.publishEvent(
+                MasterDataChangedEvent.created(MasterDataType.RUN_NAME, saved.getId(), saved.getName()));
 
         return toDTO(saved);
     }
@@ -88,16 +132,14 @@ public class MasterDataService {
     public void deleteRunName(Long id) {
         log.info("Deleting run name ID: {}", id);
         runNameRepository.deleteById(id);
+        eventPublisher.publishEvent(MasterDataChangedEvent.deleted(MasterDataType.RUN_NAME, id));
     }
 
     // ==================== ReportType ====================
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<MasterDataDTO> getAllReportTypes() {
-        return reportTypeRepository.findAllByOrderByNameAsc()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return snapshotCache.get(MasterDataType.REPORT_TYPE, loader(MasterDataType.REPORT_TYPE));
     }
 
     public MasterDataDTO createReportType(MasterDataDTO dto) {
@@ -107,31 +149,79 @@ public class MasterDataService {
         ReportType entity = new ReportType();
         entity.setName(dto.getName());
         ReportType saved = reportTypeRepository.save(entity);
+        eventPublisher.publishEvent(
+                MasterDataChangedEvent.created(MasterDataType.REPORT_TYPE, saved.getId(), saved.getName()));
 
         return toDTO(saved);
     }
 
+    /**
+     * Delete a report type. report_names.report_type_id is ON DELETE SET NULL,
+     * so the database also changes the report names of this type; they are
+     * reloaded as a bulk change, which drops their snapshot and cache region.
+     */
     public void deleteReportType(Long id) {
         log.info("Deleting report type ID: {}", id);
         reportTypeRepository.deleteById(id);
+        eventPublisher.publishEvent(MasterDataChangedEvent.deleted(MasterDataType.REPORT_TYPE, id));
+        eventPublisher.publishEvent(new MasterDataChangedEvent(MasterDataType.REPORT_NAME));
     }
 
     // ==================== ReportName ====================
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<MasterDataDTO> getAllReportNames() {
-        return reportNameRepository.findAllByOrderByNameAsc()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return snapshotCache.get(MasterDataType.REPORT_NAME, loader(MasterDataType.REPORT_NAME));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Report names of one type, A-Z, from the by-type index.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<MasterDataDTO> getReportNamesByType(Long typeId) {
-        return reportNameRepository.findByReportTypeIdOrderByNameAsc(typeId)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return getReportNamesByTypeIndex().getOrDefault(typeId, List.of());
+    }
+
+    /**
+     * Report names grouped by report type id: types A-Z, names A-Z within each
+     * type, and an empty list for a type without names. Grouped in memory from
+     * the report type and report name snapshots, and kept until either of
+     * them changes. Like the snapshots, the map must not be modified.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, List<MasterDataDTO>> getReportNamesByTypeIndex() {
+        // Versions are read before the snapshots, so a change committed while
+        // grouping leaves an index that is rebuilt on the next call
+        long typeVersion = snapshotCache.version(MasterDataType.REPORT_TYPE);
+        long nameVersion = snapshotCache.version(MasterDataType.REPORT_NAME);
+        ReportNameIndex index = reportNameIndex.get();
+        if (index != null && index.typeVersion() == typeVersion && index.nameVersion() == nameVersion) {
+            return index.byType();
+        }
+
+        Map<Long, List<MasterDataDTO>> groups = new LinkedHashMap<>();
+        for (MasterDataDTO reportType : getAllReportTypes()) {
+            groups.put(reportType.getId(), new ArrayList<>());
+        }
+        for (MasterDataDTO reportName : getAllReportNames()) {
+            List<MasterDataDTO> group = groups.get(reportName.getReportTypeId());
+            if (group != null) {
+                group.add(reportName);
+            }
+        }
+        Map<Long, List<MasterDataDTO>> byType = new LinkedHashMap<>();
+        groups.forEach((typeId, names) -> byType.put(typeId, List.copyOf(names)));
+
+        ReportNameIndex built = new ReportNameIndex(typeVersion, nameVersion, Collections.unmodifiableMap(byType));
+        // Versions only grow; keep whichever index saw more changes
+        reportNameIndex.accumulateAndGet(built,
+                (existing, candidate) -> existing != null
+                        && existing.typeVersion() + existing.nameVersion() > candidate.typeVersion()
+                                + candidate.nameVersion()
+                        ? existing
+                        : candidate);
+        log.debug("Rebuilt report-name index: {} types", byType.size());
+        return built.byType();
     }
 
     public MasterDataDTO createReportName(MasterDataDTO dto) {
@@ -141,6 +231,8 @@ public class MasterDataService {
         ReportName entity = new ReportName();
         entity.setName(dto.getName());
         ReportName saved = reportNameRepository.save(entity);
+        eventPublisher.publishEvent(
+                MasterDataChangedEvent.created(MasterDataType.REPORT_NAME, saved.getId(), saved.getName()));
 
         return toDTO(saved);
     }
@@ -148,16 +240,56 @@ public class MasterDataService {
     public void deleteReportName(Long id) {
         log.info("Deleting report name ID: {}", id);
         reportNameRepository.deleteById(id);
+        eventPublisher.publishEvent(MasterDataChangedEvent.deleted(MasterDataType.REPORT_NAME, id));
     }
 
     // ==================== Fund ====================
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<MasterDataDTO> getAllFunds() {
-        return fundRepository.findAllByOrderByNameAsc()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return snapshotCache.get(MasterDataType.FUND, loader(MasterDataType.FUND));
+    }
+
+    /**
+     * Keyset page of funds ordered by name. {@code fields} (comma-separated,
+     * default all) limits the returned properties; a page of only id and
+     * name is read with a two-column query.
+     */
+    @Transactional(readOnly = true)
+    public PageableResponseDTO<MasterDataDTO> getFundPage(String cursor, int size, String fields) {
+        if (size < 1 || size > MAX_FUND_PAGE_SIZE) {
+            throw new BusinessRuleViolationException("Page size must be between 1 and " + MAX_FUND_PAGE_SIZE);
+        }
+        Set<String> selected = parseFundFields(fields);
+        NameKeysetCursor position = NameKeysetCursor.decode(cursor);
+        // One look-ahead row tells us whether a next page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        boolean nameOnly = !selected.contains("createdAt") && !selected.contains("updatedAt");
+        List<FundRow> rows;
+        if (nameOnly) {
+            rows = position == null
+                    ? fundRepository.findFirstNameOnlyPage(limit)
+                    : fundRepository.findNameOnlyPageAfter(position.name(), limit);
+        } else {
+            rows = position == null
+                    ? fundRepository.findFirstNamePage(limit)
+                    : fundRepository.findNamePageAfter(position.name(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<FundRow> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? new NameKeysetCursor(pageRows.get(size - 1).name()).encode() : null;
+
+        List<MasterDataDTO> content = pageRows.stream()
+                .map(row -> MasterDataDTO.builder()
+                        .id(selected.contains("id") ? row.id() : null)
+                        .name(selected.contains("name") ? row.name() : null)
+                        .createdAt(selected.contains("createdAt") ? row.createdAt() : null)
+                        .updatedAt(selected.contains("updatedAt") ? row.updatedAt() : null)
+                        .build())
+                .toList();
+        return PageableResponseDTO.fromCursor(content, size, position == null, nextCursor);
     }
 
     public MasterDataDTO createFund(MasterDataDTO dto) {
@@ -167,6 +299,8 @@ public class MasterDataService {
         Fund entity = new Fund();
         entity.setName(dto.getName());
         Fund saved = fundRepository.save(entity);
+        eventPublisher.publishEvent(
+                MasterDataChangedEvent.created(MasterDataType.FUND, saved.getId(), saved.getName()));
 
         return toDTO(saved);
     }
@@ -174,10 +308,121 @@ public class MasterDataService {
     public void deleteFund(Long id) {
         log.info("Deleting fund ID: {}", id);
         fundRepository.deleteById(id);
+        eventPublisher.publishEvent(MasterDataChangedEvent.deleted(MasterDataType.FUND, id));
+    }
+
+    /**
+     * Funds whose name or alias has a word starting with each word of
+     * {@code query}; see FundSuggestIndex.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FundSuggestionDTO> suggestFunds(String query, int limit) {
+        if (limit < 1 || limit > MAX_FUND_SUGGESTIONS) {
+            throw new BusinessRuleViolationException(
+                    "Limit must be between 1 and " + MAX_FUND_SUGGESTIONS);
+        }
+        return fundSuggestIndex.suggest(query, limit, this::loadFundNames);
+    }
+
+    /**
+     * Resolve fund names and aliases, e.g. from an upstream feed, to fund ids
+     * without a query per name; see FundNameResolver.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FundResolutionResultDTO resolveFunds(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            throw new BusinessRuleViolationException("At least one name is required");
+        }
+        if (names.size() > MAX_RESOLVE_NAMES) {
+            throw new BusinessRuleViolationException(
+                    "Cannot resolve more than " + MAX_RESOLVE_NAMES + " names at once");
+        }
+
+        FundResolutionResultDTO result = fundNameResolver.resolve(names, this::loadFundNames);
+        log.info("Resolved {} fund names: {} matched, {} ambiguous, {} unmatched",
+                result.getTotal(), result.getMatched(), result.getAmbiguous(), result.getUnmatched());
+        return result;
+    }
+
+    // ==================== Conditional GET ====================
+
+    /**
+     * Conditional GET validators for a master-data list, taken from its
+     * snapshot without querying the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ResourceVersion getVersion(MasterDataType type) {
+        return snapshotCache.validator(type, loader(type));
+    }
+
+    /**
+     * Conditional GET validators for responses read from the database rather
+     * than the snapshot, such as fund pages: the snapshot version of the
+     * type, without building the snapshot.
+     */
+    public ResourceVersion getChangeVersion(MasterDataType type) {
+        return snapshotCache.versionValidator(type);
     }
 
     // ==================== Helper Methods ====================
 
+    /**
+     * Query that rebuilds the snapshot of a master-data type, sorted A-Z.
+     */
+    private Supplier<List<MasterDataDTO>> loader(MasterDataType type) {
+        return switch (type) {
+            case SOURCE_NAME -> () -> toDTOs(sourceNameRepository.findAllByOrderByNameAsc());
+            case RUN_NAME -> () -> toDTOs(runNameRepository.findAllByOrderByNameAsc());
+            case REPORT_TYPE -> () -> toDTOs(reportTypeRepository.findAllByOrderByNameAsc());
+            case REPORT_NAME -> () -> toDTOs(reportNameRepository.findAllByOrderByNameAsc());
+            case FUND -> () -> toDTOs(fundRepository.findAllByOrderByNameAsc());
+        };
+    }
+
+    /**
+     * Fund names from the fund snapshot plus every alias, read as plain rows.
+     */
+    private List<FundNameEntry> loadFundNames() {
+        List<MasterDataDTO> funds = getAllFunds();
+        List<FundAliasRow> aliases = fundAliasRepository.findAllRows();
+
+        List<FundNameEntry> entries = new ArrayList<>(funds.size() + aliases.size());
+        Map<Long, String> fundNames = new HashMap<>();
+        for (MasterDataDTO fund : funds) {
+            fundNames.put(fund.getId(), fund.getName());
+            entries.add(new FundNameEntry(fund.getId(), fund.getName(), null, fund.getName()));
+        }
+        for (FundAliasRow alias : aliases) {
+            String fundName = fundNames.get(alias.fundId());
+            if (fundName != null) {
+                entries.add(new FundNameEntry(alias.fundId(), fundName, alias.id(), alias.aliasName()));
+            }
+        }
+        return entries;
+    }
+
+    private List<MasterDataDTO> toDTOs(List<?> entities) {
+        return entities.stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    private static Set<String> parseFundFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Set.copyOf(FUND_FIELDS);
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (!FUND_FIELDS.contains(trimmed)) {
+                throw new BusinessRuleViolationException("Unknown fund field '" + trimmed + "'; expected any of "
+                        + String.join(", ", FUND_FIELDS));
+            }
+            selected.add(trimmed);
+        }
+        return selected;
+    }
+
     private void validateUniqueness(JpaRepository<?, Long> repository, String name, String entityType) {
         // Generic uniqueness validation - relies on unique constraints in DB as
         // fallback
@@ -210,6 +455,7 @@ public class MasterDataService {
             return MasterDataDTO.builder()
                     .id(e.getId())
                     .name(e.getName())
+                    .reportTypeId(e.getReportType() != null ? e.getReportType().getId() : null)
                     .createdAt(e.getCreatedAt())
                     .updatedAt(e.getUpdatedAt())
                     .build();
@@ -223,4 +469,10 @@ public class MasterDataService {
         }
         throw new IllegalArgumentException("Unsupported entity type");
     }
+
+    /**
+     * Report names by type, grouped from the snapshots at the given versions.
+     */
+    private record ReportNameIndex(long typeVersion, long nameVersion, Map<Long, List<MasterDataDTO>> byType) {
+    }
 }
@@ -0,0 +1,174 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.dto.MasterDataDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, versioned in-memory snapshots of the master-data lists.
+ *
+ * Each type holds one snapshot in an AtomicReference, so a read that finds a
+ * built snapshot returns it without touching the database. When a change is
+ * committed the version is bumped and the list dropped. The next read
+ * rebuilds it and installs the result with a compare-and-set. If another
+ * change was committed while it was loading, the compare-and-set fails and
+ * the list is left for a later read, so a list older than the latest change
+ * is never installed.
+ *
+ * Snapshot lists are unmodifiable and their DTOs are shared between callers;
+ * callers must not modify them.
+ *
+ * Metrics (tagged by type): swisspine.masterdata.snapshot.hits,
+ * swisspine.masterdata.snapshot.rebuilds, swisspine.masterdata.snapshot.size
+ * and swisspine.masterdata.snapshot.version.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Component
+@Slf4j
+public class MasterDataSnapshotCache {
+
+    private final Map<MasterDataType, AtomicReference<Snapshot>> snapshots = new EnumMap<>(MasterDataType.class);
+    private final String instanceId = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 16);
+    private final Map<MasterDataType, Counter> hits = new EnumMap<>(MasterDataType.class);
+    private final Map<MasterDataType, Counter> rebuilds = new EnumMap<>(MasterDataType.class);
+
+    public MasterDataSnapshotCache(MeterRegistry meterRegistry) {
+        for (MasterDataType type : MasterDataType.values()) {
+            AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, null, null));
+            snapshots.put(type, snapshot);
+
+            hits.put(type, Counter.builder("swisspine.masterdata.snapshot.hits")
+                    .description("Master-data reads served from the snapshot")
+                    .tag("type", type.getKey())
+                    .register(meterRegistry));
+            rebuilds.put(type, Counter.builder("swisspine.masterdata.snapshot.rebuilds")
+                    .description("Master-data snapshots rebuilt from the database")
+                    .tag("type", type.getKey())
+                    .register(meterRegistry));
+            Gauge.builder("swisspine.masterdata.snapshot.size", snapshot, ref -> ref.get().size())
+                    .description("Entries in the current master-data snapshot")
+                    .tag("type", type.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("swisspine.masterdata.snapshot.version", snapshot, ref -> ref.get().version())
+                    .description("Committed master-data changes seen since startup")
+                    .tag("type", type.getKey())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Return the snapshot for {@code type}, building it with {@code loader}
+     * if there is none.
+     */
+    public List<MasterDataDTO> get(MasterDataType type, Supplier<List<MasterDataDTO>> loader) {
+        return snapshot(type, loader).items();
+    }
+
+    /**
+     * Conditional GET validators of the snapshot for {@code type}: entry
+     * count and latest updated_at, computed once per snapshot. Like the
+     * snapshot, they are built with {@code loader} if needed.
+     */
+    public ResourceVersion validator(MasterDataType type, Supplier<List<MasterDataDTO>> loader) {
+        return snapshot(type, loader).validator();
+    }
+
+    /**
+     * Version of the snapshot for {@code type}; increases with every
+     * committed change.
+     */
+    public long version(MasterDataType type) {
+        return snapshots.get(type).get().version();
+    }
+
+    /**
+     * Conditional GET validators from the version of {@code type} alone, for
+     * responses read from the database rather than the snapshot; never builds
+     * the snapshot. Versions count from startup, so the tag also carries a
+     * random id of this process and tags of other replicas never match.
+     */
+    public ResourceVersion versionValidator(MasterDataType type) {
+        return ResourceVersion.ofChangeCount(type.getKey() + "-" + instanceId, version(type));
+    }
+
+    /**
+     * Sum of the versions of all types. It increases whenever any master-data
+     * type changes, so it keys data derived from several snapshots.
+     */
+    public long generation() {
+        long generation = 0;
+        for (AtomicReference<Snapshot> snapshot : snapshots.values()) {
+            generation += snapshot.get().version();
+        }
+        return generation;
+    }
+
+    /**
+     * Drop the snapshot for {@code type} and bump its version.
+     */
+    public void invalidate(MasterDataType type) {
+        Snapshot next = snapshots.get(type).updateAndGet(snapshot -> new Snapshot(snapshot.version() + 1, null, null));
+        log.debug("Invalidated {} snapshot, now version {}", type.getKey(), next.version());
+    }
+
+    /**
+     * Invalidate once the change is committed, so a rebuild cannot read the
+     * state from before the commit. Runs immediately outside a transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMasterDataChanged(MasterDataChangedEvent event) {
+        invalidate(event.type());
+    }
+
+    private Snapshot snapshot(MasterDataType type, Supplier<List<MasterDataDTO>> loader) {
+        AtomicReference<Snapshot> reference = snapshots.get(type);
+        Snapshot current = reference.get();
+        if (current.items() != null) {
+            hits.get(type).increment();
+            return current;
+        }
+
+        List<MasterDataDTO> items = List.copyOf(loader.get());
+        Instant lastUpdatedAt = items.stream()
+                .map(MasterDataDTO::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        Snapshot built = new Snapshot(current.version(), items,
+                ResourceVersion.ofTable(type.getKey(), items.size(), lastUpdatedAt));
+        if (reference.compareAndSet(current, built)) {
+            rebuilds.get(type).increment();
+            log.debug("Rebuilt {} snapshot version {} with {} entries", type.getKey(), current.version(), items.size());
+        }
+        return built;
+    }
+
+    /**
+     * A snapshot version; items and validator are null until the list is
+     * (re)built.
+     */
+    private record Snapshot(long version, List<MasterDataDTO> items, ResourceVersion validator) {
+
+        int size() {
+            return items != null ? items.size() : 0;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.swisspine.service;
+
+import com.swisspine.dto.PerformanceHistoryDTO;
+import com.swisspine.exception.BusinessRuleViolationException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process history of performance metrics in fixed memory.
+ *
+ * Every second the JVM heap, GC rate, thread count, Hikari pool state and the
+ * request rate and mean latency of each endpoint are written to a ring of
+ * preallocated primitive arrays covering
+ * {@code swisspine.statistics.history.fine-window}. The same values are
+ * averaged per minute into a second ring covering
+ * {@code swisspine.statistics.history.coarse-window}. Sampling reads
+ * allocation-free sources only (Runtime, MXBean counters, timers cached as
+ * they are registered), so it allocates nothing per sample. It runs on its
+ * own scheduler thread rather than the shared {@code @Scheduled} one, so the
+ * database-bound statistics sample cannot stall the history.
+ *
+ * Endpoints get one of {@code swisspine.statistics.history.max-endpoints}
+ * slots when their first {@code http.server.requests} timer is registered;
+ * later endpoints are not tracked.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Component
+@Slf4j
+public class MetricsHistory {
+
+    static final int FINE_RESOLUTION_SECONDS = 1;
+    static final int COARSE_RESOLUTION_SECONDS = 60;
+
+    /**
+     * Series names, in the order of their rows in a ring.
+     */
+    static final String[] SERIES = {
+            "heapUsedMb", "gcPerSecond", "threadCount", "poolActive", "poolIdle", "poolWaiting"
+    };
+    private static final int HEAP_USED = 0;
+    private static final int GC_RATE = 1;
+    private static final int THREADS = 2;
+    private static final int POOL_ACTIVE = 3;
+    private static final int POOL_IDLE = 4;
+    private static final int POOL_WAITING = 5;
+
+    private static final double MB = 1024 * 1024;
+
+    private final DataSource dataSource;
+    private final GarbageCollectorMXBean[] garbageCollectors;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Runtime runtime = Runtime.getRuntime();
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-history");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Ring fine;
+    private final Ring coarse;
+
+    // Endpoint slots; guarded by this
+    private final Map<String, Integer> endpointSlots = new HashMap<>();
+    private final String[] endpointKeys;
+    private final Timer[][] endpointTimers;
+    private final long[] lastRequests;
+    private final double[] lastTimeMs;
+    private boolean endpointLimitLogged;
+
+    // State of the previous sample; guarded by this
+    private long lastSecond = -1;
+    private long lastGcCount = -1;
+    private HikariPoolMXBean pool;
+
+    // Current minute of the coarse ring; guarded by this
+    private long coarseMinute = -1;
+    private int coarseSamples;
+    private double coarseSeconds;
+    private final double[] coarseSums = new double[SERIES.length];
+    private final double[] coarseRequests;
+    private final double[] coarseTimeMs;
+
+    public MetricsHistory(MeterRegistry meterRegistry, DataSource dataSource,
+            @Value("${swisspine.statistics.history.fine-window:PT1H}") Duration fineWindow,
+            @Value("${swisspine.statistics.history.coarse-window:P1D}") Duration coarseWindow,
+            @Value("${swisspine.statistics.history.max-endpoints:32}") int maxEndpoints) {
+        this.dataSource = dataSource;
+        this.garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans()
+                .toArray(new GarbageCollectorMXBean[0]);
+        this.fine = new Ring((int) (fineWindow.toSeconds() / FINE_RESOLUTION_SECONDS), FINE_RESOLUTION_SECONDS,
+                maxEndpoints);
+        this.coarse = new Ring((int) (coarseWindow.toSeconds() / COARSE_RESOLUTION_SECONDS),
+                COARSE_RESOLUTION_SECONDS, maxEndpoints);
+        this.endpointKeys = new String[maxEndpoints];
+        this.endpointTimers = new Timer[maxEndpoints][0];
+        this.lastRequests = new long[maxEndpoints];
+        this.lastTimeMs = new double[maxEndpoints];
+        this.coarseRequests = new double[maxEndpoints];
+        this.coarseTimeMs = new double[maxEndpoints];
+
+        meterRegistry.config().onMeterAdded(this::onMeterAdded);
+        meterRegistry.find(EndpointStatisticsCollector.REQUESTS_METER).timers().forEach(this::onMeterAdded);
+    }
+
+    /**
+     * Samples of one resolution: timestamps and values in parallel arrays,
+     * written round-robin.
+     */
+    static final class Ring {
+        final int resolution;
+        final long[] seconds;
+        final double[][] values;
+        final double[][] throughput;
+        final double[][] latency;
+        int next;
+        int size;
+
+        Ring(int capacity, int resolution, int endpoints) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("History window shorter than its resolution");
+            }
+            this.resolution = resolution;
+            this.seconds = new long[capacity];
+            this.values = new double[SERIES.length][capacity];
+            this.throughput = new double[endpoints][capacity];
+            this.latency = new double[endpoints][capacity];
+        }
+
+        int advance() {
+            int slot = next;
+            next = (next + 1) % seconds.length;
+            if (size < seconds.length) {
+                size++;
+            }
+            return slot;
+        }
+
+        int oldest() {
+            return (next - size + seconds.length) % seconds.length;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        sampler.scheduleAtFixedRate(this::sample, FINE_RESOLUTION_SECONDS, FINE_RESOLUTION_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        sampler.shutdownNow();
+    }
+
+    /**
+     * Record a sample for the current second. Failures are logged, as an
+     * exception would cancel all later runs of the periodic task.
+     */
+    public void sample() {
+        try {
+            sample(System.currentTimeMillis() / 1000);
+        } catch (RuntimeException e) {
+            log.warn("Could not sample metrics history", e);
+        }
+    }
+
+    /**
+     * Record one sample taken at the given epoch second.
+     */
+    synchronized void sample(long epochSecond) {
+        if (epochSecond <= lastSecond) {
+            return;
+        }
+        double elapsed = lastSecond < 0 ? FINE_RESOLUTION_SECONDS : epochSecond - lastSecond;
+        lastSecond = epochSecond;
+
+        long gcCount = 0;
+        for (GarbageCollectorMXBean collector : garbageCollectors) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+        }
+        double gcRate = lastGcCount < 0 ? 0 : (gcCount - lastGcCount) / elapsed;
+        lastGcCount = gcCount;
+
+        HikariPoolMXBean poolMXBean = poolMXBean();
+        int slot = fine.advance();
+        fine.seconds[slot] = epochSecond;
+        fine.values[HEAP_USED][slot] = (runtime.totalMemory() - runtime.freeMemory()) / MB;
+        fine.values[GC_RATE][slot] = gcRate;
+        fine.values[THREADS][slot] = threadMXBean.getThreadCount();
+        fine.values[POOL_ACTIVE][slot] = poolMXBean != null ? poolMXBean.getActiveConnections() : 0;
+        fine.values[POOL_IDLE][slot] = poolMXBean != null ? poolMXBean.getIdleConnections() : 0;
+        fine.values[POOL_WAITING][slot] = poolMXBean != null ? poolMXBean.getThreadsAwaitingConnection() : 0;
+
+        long minute = epochSecond / COARSE_RESOLUTION_SECONDS;
+        if (minute != coarseMinute) {
+            flushCoarse();
+            coarseMinute = minute;
+        }
+        coarseSamples++;
+        coarseSeconds += elapsed;
+        for (int series = 0; series < SERIES.length; series++) {
+            coarseSums[series] += fine.values[series][slot];
+        }
+
+        int endpoints = endpointSlots.size();
+        for (int endpoint = 0; endpoint < endpoints; endpoint++) {
+            long requests = 0;
+            double timeMs = 0;
+            for (Timer timer : endpointTimers[endpoint]) {
+                requests += timer.count();
+                timeMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            }
+            long deltaRequests = requests - lastRequests[endpoint];
+            double deltaTimeMs = timeMs - lastTimeMs[endpoint];
+            lastRequests[endpoint] = requests;
+            lastTimeMs[endpoint] = timeMs;
+
+            fine.throughput[endpoint][slot] = deltaRequests / elapsed;
+            fine.latency[endpoint][slot] = deltaRequests > 0 ? deltaTimeMs / deltaRequests : 0;
+            coarseRequests[endpoint] += deltaRequests;
+            coarseTimeMs[endpoint] += deltaTimeMs;
+        }
+    }
+
+    /**
+     * Samples from {@code from} on, averaged into buckets of {@code step}
+     * seconds. Steps below a minute read the per-second ring, longer steps
+     * the per-minute ring. Only buckets with samples are returned.
+     */
+    public synchronized PerformanceHistoryDTO getHistory(Instant from, long step) {
+        if (step < 1) {
+            throw new BusinessRuleViolationException("step must be at least 1 second");
+        }
+        Ring ring = step < COARSE_RESOLUTION_SECONDS ? fine : coarse;
+        long fromSecond = from != null
+                ? from.getEpochSecond()
+                : System.currentTimeMillis() / 1000 - (long) ring.seconds.length * ring.resolution;
+        long bucketSeconds = Math.max(step, ring.resolution);
+
+        int buckets = 0;
+        long lastBucket = Long.MIN_VALUE;
+        for (int i = 0, slot = ring.oldest(); i < ring.size; i++, slot = (slot + 1) % ring.seconds.length) {
+            if (ring.seconds[slot] >= fromSecond) {
+                long bucket = (ring.seconds[slot] - fromSecond) / bucketSeconds;
+                if (bucket != lastBucket) {
+                    buckets++;
+                    lastBucket = bucket;
+                }
+            }
+        }
+
+        int endpoints = endpointSlots.size();
+        long[] timestamps = new long[buckets];
+        double[][] values = new double[SERIES.length][buckets];
+        double[][] throughput = new double[endpoints][buckets];
+        double[][] latency = new double[endpoints][buckets];
+        int[] samples = new int[buckets];
+
+        int index = -1;
+        lastBucket = Long.MIN_VALUE;
+        for (int i = 0, slot = ring.oldest(); i < ring.size; i++, slot = (slot + 1) % ring.seconds.length) {
+            if (ring.seconds[slot] < fromSecond) {
+                continue;
+            }
+            long bucket = (ring.seconds[slot] - fromSecond) / bucketSeconds;
+            if (bucket != lastBucket) {
+                index++;
+                lastBucket = bucket;
+                timestamps[index] = fromSecond + bucket * bucketSeconds;
+            }
+            samples[index]++;
+            for (int series = 0; series < SERIES.length; series++) {
+                values[series][index] += ring.values[series][slot];
+            }
+            for (int endpoint = 0; endpoint < endpoints; endpoint++) {
+                throughput[endpoint][index] += ring.throughput[endpoint][slot];
+                // Summed as total time per second until divided below
+                latency[endpoint][index] += ring.throughput[endpoint][slot] * ring.latency[endpoint][slot];
+            }
+        }
+
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            for (int series = 0; series < SERIES.length; series++) {
+                values[series][bucket] /= samples[bucket];
+            }
+            for (int endpoint = 0; endpoint < endpoints; endpoint++) {
+                double rateSum = throughput[endpoint][bucket];
+                latency[endpoint][bucket] = rateSum > 0 ? latency[endpoint][bucket] / rateSum : 0;
+                throughput[endpoint][bucket] = rateSum / samples[bucket];
+            }
+        }
+
+        Map<String, double[]> series = new LinkedHashMap<>();
+        for (int i = 0; i < SERIES.length; i++) {
+            series.put(SERIES[i], values[i]);
+        }
+        Map<String, PerformanceHistoryDTO.EndpointHistory> endpointHistory = new LinkedHashMap<>();
+        for (int endpoint = 0; endpoint < endpoints; endpoint++) {
+            endpointHistory.put(endpointKeys[endpoint], PerformanceHistoryDTO.EndpointHistory.builder()
+                    .throughput(throughput[endpoint])
+                    .avgResponseTime(latency[endpoint])
+                    .build());
+        }
+
+        return PerformanceHistoryDTO.builder()
+                .from(Instant.ofEpochSecond(fromSecond))
+                .step(bucketSeconds)
+                .timestamps(timestamps)
+                .series(series)
+                .endpoints(endpointHistory)
+                .build();
+    }
+
+    private synchronized void onMeterAdded(Meter meter) {
+        if (!(meter instanceof Timer timer) || !EndpointStatisticsCollector.REQUESTS_METER.equals(
+                meter.getId().getName())) {
+            return;
+        }
+        String uri = meter.getId().getTag("uri");
+        String method = meter.getId().getTag("method");
+        if (uri == null || method == null) {
+            return;
+        }
+        String key = method + " " + uri;
+        Integer slot = endpointSlots.get(key);
+        if (slot == null) {
+            if (endpointSlots.size() == endpointKeys.length) {
+                if (!endpointLimitLogged) {
+                    log.info("Metrics history tracks {} endpoints; {} and later ones are left out",
+                            endpointKeys.length, key);
+                    endpointLimitLogged = true;
+                }
+                return;
+            }
+            slot = endpointSlots.size();
+            endpointSlots.put(key, slot);
+            endpointKeys[slot] = key;
+        }
+        List<Timer> known = Arrays.asList(endpointTimers[slot]);
+        if (!known.contains(timer)) {
+            endpointTimers[slot] = Arrays.copyOf(endpointTimers[slot], known.size() + 1);
+            endpointTimers[slot][known.size()] = timer;
+            // Requests recorded before the timer was tracked are not history
+            lastRequests[slot] += timer.count();
+            lastTimeMs[slot] += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushCoarse() {
+        if (coarseSamples == 0) {
+            return;
+        }
+        int slot = coarse.advance();
+        coarse.seconds[slot] = coarseMinute * COARSE_RESOLUTION_SECONDS;
+        for (int series = 0; series < SERIES.length; series++) {
+            coarse.values[series][slot] = coarseSums[series] / coarseSamples;
+            coarseSums[series] = 0;
+        }
+        for (int endpoint = 0; endpoint < endpointSlots.size(); endpoint++) {
+            coarse.throughput[endpoint][slot] = coarseRequests[endpoint] / coarseSeconds;
+            coarse.latency[endpoint][slot] = coarseRequests[endpoint] > 0
+                    ? coarseTimeMs[endpoint] / coarseRequests[endpoint]
+                    : 0;
+            coarseRequests[endpoint] = 0;
+            coarseTimeMs[endpoint] = 0;
+        }
+        coarseSamples = 0;
+        coarseSeconds = 0;
+    }
+
+    /**
+     * The Hikari pool MXBean, available once the pool has started.
+     */
+    private HikariPoolMXBean poolMXBean() {
+        if (pool == null) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                }
+            } catch (Exception e) {
+                log.debug("Hikari pool not available for metrics history: {}", e.getMessage());
+            }
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,466 @@
+package com.swisspine.service;
+
+import com.swisspine.common.BaseEntity;
+import com.swisspine.dto.PlannerBatchResultDTO;
+import com.swisspine.dto.PlannerBatchResultDTO.ItemResult;
+import com.swisspine.dto.PlannerBatchResultDTO.ItemStatus;
+import com.swisspine.dto.PlannerDTO;
+import com.swisspine.dto.PlannerFundDTO;
+import com.swisspine.dto.PlannerReportDTO;
+import com.swisspine.dto.PlannerRunDTO;
+import com.swisspine.dto.PlannerSourceDTO;
+import com.swisspine.entity.FundAlias;
+import com.swisspine.entity.ReportName;
+import com.swisspine.exception.BusinessRuleViolationException;
+import com.swisspine.repository.ExternalConnectionRepository;
+import com.swisspine.repository.FundAliasRepository;
+import com.swisspine.repository.FundRepository;
+import com.swisspine.repository.ReportNameRepository;
+import com.swisspine.repository.ReportTypeRepository;
+import com.swisspine.repository.RunNameRepository;
+import com.swisspine.repository.SourceNameRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service for creating many planner graphs in one request.
+ *
+ * Referenced master data is validated up front with one query per type, so
+ * invalid items fail without touching the database. Valid items are inserted
+ * with plain JDBC batches (one batch per table) in chunks of CHUNK_SIZE
+ * planners, each chunk in its own transaction. If a chunk fails, its items
+ * are retried one by one so a single bad planner only fails itself.
+ *
+ * Transactions are managed explicitly with TransactionTemplate rather than
+ * {@code @Transactional}, because each chunk must commit or roll back
+ * independently.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlannerBatchService {
+
+    /**
+     * Upper bound on planners accepted in a single request.
+     */
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Planners inserted per transaction.
+     */
+    static final int CHUNK_SIZE = 500;
+
+    private static final String DEFAULT_STATUS = "Draft";
+
+    static final String INSERT_PLANNER = "INSERT INTO planners (id, name, description, planner_type, "
+            + "external_system_config_id, status, finished_at, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final int[] PLANNER_TYPES = { Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP };
+
+    static final String INSERT_FUND = "INSERT INTO planner_funds (id, planner_id, fund_id, fund_alias_id, "
+            + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final int[] FUND_TYPES = { Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT,
+            Types.TIMESTAMP, Types.TIMESTAMP };
+
+    static final String INSERT_SOURCE = "INSERT INTO planner_sources (id, planner_id, source_name_id, display_order, "
+            + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final int[] SOURCE_TYPES = { Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.INTEGER,
+            Types.TIMESTAMP, Types.TIMESTAMP };
+
+    static final String INSERT_RUN = "INSERT INTO planner_runs (id, planner_source_id, run_name_id, display_order, "
+            + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final int[] RUN_TYPES = SOURCE_TYPES;
+
+    static final String INSERT_REPORT = "INSERT INTO planner_reports (id, planner_source_id, report_type_id, "
+            + "report_name_id, display_order, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final int[] REPORT_TYPES = { Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT,
+            Types.INTEGER, Types.TIMESTAMP, Types.TIMESTAMP };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExternalConnectionRepository connectionRepository;
+    private final FundRepository fundRepository;
+    private final FundAliasRepository fundAliasRepository;
+    private final SourceNameRepository sourceNameRepository;
+    private final RunNameRepository runNameRepository;
+    private final ReportTypeRepository reportTypeRepository;
+    private final ReportNameRepository reportNameRepository;
+
+    /**
+     * Create the given planner graphs (funds, sources, runs and reports).
+     *
+     * @return Per-item results in request order
+     */
+    public PlannerBatchResultDTO createAll(List<PlannerDTO> planners) {
+        if (planners == null || planners.isEmpty()) {
+            throw new BusinessRuleViolationException("Batch must contain at least one planner");
+        }
+        if (planners.size() > MAX_BATCH_SIZE) {
+            throw new BusinessRuleViolationException(
+                    "Batch cannot contain more than " + MAX_BATCH_SIZE + " planners");
+        }
+
+        log.info("Creating {} planners in batch", planners.size());
+
+        ReferenceData references = loadReferences(planners);
+        ItemResult[] results = new ItemResult[planners.size()];
+        List<Integer> valid = new ArrayList<>(planners.size());
+        for (int i = 0; i < planners.size(); i++) {
+            String error = validate(planners.get(i), references);
+            if (error != null) {
+                results[i] = failed(i, planners.get(i), error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+            insertChunk(planners, valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size())), results);
+        }
+
+        List<ItemResult> items = List.of(results);
+        int created = (int) items.stream().filter(item -> item.getStatus() == ItemStatus.CREATED).count();
+        log.info("Batch finished - created: {}, failed: {}", created, items.size() - created);
+
+        return PlannerBatchResultDTO.builder()
+                .total(items.size())
+                .created(created)
+                .failed(items.size() - created)
+                .items(items)
+                .build();
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    /**
+     * Insert one chunk in its own transaction; on failure retry each item alone.
+     */
+    private void insertChunk(List<PlannerDTO> planners, List<Integer> chunk, ItemResult[] results) {
+        List<PlannerDTO> graphs = chunk.stream().map(planners::get).toList();
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> insertGraphs(graphs));
+            for (int k = 0; k < chunk.size(); k++) {
+                int index = chunk.get(k);
+                results[index] = ItemResult.builder()
+                        .index(index)
+                        .status(ItemStatus.CREATED)
+                        .id(ids.get(k))
+                        .name(graphs.get(k).getName())
+                        .build();
+            }
+        } catch (DataAccessException | TransactionException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (chunk.size() == 1) {
+                results[chunk.get(0)] = failed(chunk.get(0), graphs.get(0), message);
+                return;
+            }
+            log.warn("Batch chunk of {} planners failed, retrying items individually: {}", chunk.size(), message);
+            for (Integer index : chunk) {
+                insertChunk(planners, List.of(index), results);
+            }
+        }
+    }
+
+    /**
+     * Insert the graphs with one JDBC batch per table.
+     * Ids are reserved from the table sequences first so child rows can
+     * reference their parents without reading generated keys back.
+     *
+     * @return Generated planner ids, in the order of {@code graphs}
+     */
+    private List<Long> insertGraphs(List<PlannerDTO> graphs) {
+        List<PlannerSourceDTO> allSources = graphs.stream().flatMap(p -> nullSafe(p.getSources()).stream()).toList();
+
+        Iterator<Long> plannerIds = reserveIds("planners_id_seq", graphs.size()).iterator();
+        Iterator<Long> fundIds = reserveIds("planner_funds_id_seq",
+                graphs.stream().mapToInt(p -> nullSafe(p.getFunds()).size()).sum()).iterator();
+        Iterator<Long> sourceIds = reserveIds("planner_sources_id_seq", allSources.size()).iterator();
+        Iterator<Long> runIds = reserveIds("planner_runs_id_seq",
+                allSources.stream().mapToInt(s -> nullSafe(s.getRuns()).size()).sum()).iterator();
+        Iterator<Long> reportIds = reserveIds("planner_reports_id_seq",
+                allSources.stream().mapToInt(s -> nullSafe(s.getReports()).size()).sum()).iterator();
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Long> createdIds = new ArrayList<>(graphs.size());
+        List<Object[]> plannerRows = new ArrayList<>(graphs.size());
+        List<Object[]> fundRows = new ArrayList<>();
+        List<Object[]> sourceRows = new ArrayList<>();
+        List<Object[]> runRows = new ArrayList<>();
+        List<Object[]> reportRows = new ArrayList<>();
+
+        for (PlannerDTO planner : graphs) {
+            Long plannerId = plannerIds.next();
+            createdIds.add(plannerId);
+
+            String status = planner.getStatus() != null && !planner.getStatus().isBlank()
+                    ? planner.getStatus()
+                    : DEFAULT_STATUS;
+            // Mirrors Planner#onUpdate: a finished planner always has finished_at
+            Timestamp finishedAt = planner.getFinishedAt() != null
+                    ? Timestamp.from(planner.getFinishedAt())
+                    : "Finished".equalsIgnoreCase(status) ? now : null;
+            plannerRows.add(new Object[] { plannerId, planner.getName(), planner.getDescription(),
+                    planner.getPlannerType(), planner.getExternalSystemConfigId(), status, finishedAt, now, now });
+
+            for (PlannerFundDTO fund : nullSafe(planner.getFunds())) {
+                fundRows.add(new Object[] { fundIds.next(), plannerId, fund.getFundId(), fund.getFundAliasId(),
+                        now, now });
+            }
+
+            List<PlannerSourceDTO> sources = nullSafe(planner.getSources());
+            for (int s = 0; s < sources.size(); s++) {
+                PlannerSourceDTO source = sources.get(s);
+                Long sourceId = sourceIds.next();
+                sourceRows.add(new Object[] { sourceId, plannerId, source.getSourceNameId(),
+                        displayOrder(source.getDisplayOrder(), s), now, now });
+
+                List<PlannerRunDTO> runs = nullSafe(source.getRuns());
+                for (int r = 0; r < runs.size(); r++) {
+                    runRows.add(new Object[] { runIds.next(), sourceId, runs.get(r).getRunNameId(),
+                            displayOrder(runs.get(r).getDisplayOrder(), r), now, now });
+                }
+
+                List<PlannerReportDTO> reports = nullSafe(source.getReports());
+                for (int r = 0; r < reports.size(); r++) {
+                    PlannerReportDTO report = reports.get(r);
+                    reportRows.add(new Object[] { reportIds.next(), sourceId, report.getReportTypeId(),
+                            report.getReportNameId(), displayOrder(report.getDisplayOrder(), r), now, now });
+                }
+            }
+        }
+
+        // Parent tables first so foreign keys resolve
+        batchInsert(INSERT_PLANNER, plannerRows, PLANNER_TYPES);
+        batchInsert(INSERT_FUND, fundRows, FUND_TYPES);
+        batchInsert(INSERT_SOURCE, sourceRows, SOURCE_TYPES);
+        batchInsert(INSERT_RUN, runRows, RUN_TYPES);
+        batchInsert(INSERT_REPORT, reportRows, REPORT_TYPES);
+
+        return createdIds;
+    }
+
+    /**
+     * Reserve ids the same way Hibernate's pooled optimizer does: every
+     * nextval() is the upper end of a block of ID_ALLOCATION_SIZE ids, so one
+     * sequence call covers up to that many rows.
+     */
+    private List<Long> reserveIds(String sequence, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        int blocks = (count + BaseEntity.ID_ALLOCATION_SIZE - 1) / BaseEntity.ID_ALLOCATION_SIZE;
+        List<Long> upperBounds = jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (Long upper : upperBounds) {
+            for (long id = upper - BaseEntity.ID_ALLOCATION_SIZE + 1; id <= upper && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows, int[] argTypes) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows, argTypes);
+        }
+    }
+
+    private static int displayOrder(Integer requested, int position) {
+        return requested != null ? requested : position;
+    }
+
+    private static <T> List<T> nullSafe(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static ItemResult failed(int index, PlannerDTO planner, String error) {
+        return ItemResult.builder()
+                .index(index)
+                .status(ItemStatus.FAILED)
+                .name(planner != null ? planner.getName() : null)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Validate one planner graph against the preloaded reference data.
+     *
+     * @return Error message, or null if the planner is valid
+     */
+    private String validate(PlannerDTO planner, ReferenceData references) {
+        if (planner == null) {
+            return "Planner is required";
+        }
+        if (planner.getName() == null || planner.getName().isBlank()) {
+            return "Planner name is required";
+        }
+        if (planner.getName().length() > 255) {
+            return "Planner name cannot exceed 255 characters";
+        }
+        if (planner.getPlannerType() != null && planner.getPlannerType().length() > 100) {
+            return "Planner type cannot exceed 100 characters";
+        }
+        if (planner.getStatus() != null && planner.getStatus().length() > 50) {
+            return "Status cannot exceed 50 characters";
+        }
+        if (planner.getExternalSystemConfigId() != null
+                && !references.connectionIds().contains(planner.getExternalSystemConfigId())) {
+            return "External connection with ID " + planner.getExternalSystemConfigId() + " not found";
+        }
+
+        Set<Long> seenFunds = new HashSet<>();
+        for (PlannerFundDTO fund : nullSafe(planner.getFunds())) {
+            if (fund == null || fund.getFundId() == null) {
+                return "Fund ID is required for every planner fund";
+            }
+            if (!references.fundIds().contains(fund.getFundId())) {
+                return "Fund with ID " + fund.getFundId() + " not found";
+            }
+            if (!seenFunds.add(fund.getFundId())) {
+                return "Fund with ID " + fund.getFundId() + " is assigned more than once";
+            }
+            if (fund.getFundAliasId() != null) {
+                Long aliasFundId = references.aliasFunds().get(fund.getFundAliasId());
+                if (aliasFundId == null) {
+                    return "Fund alias with ID " + fund.getFundAliasId() + " not found";
+                }
+                if (!aliasFundId.equals(fund.getFundId())) {
+                    return "Fund alias with ID " + fund.getFundAliasId() + " does not belong to fund "
+                            + fund.getFundId();
+                }
+            }
+        }
+
+        for (PlannerSourceDTO source : nullSafe(planner.getSources())) {
+            if (source == null) {
+                return "Planner source is required";
+            }
+            if (source.getSourceNameId() != null && !references.sourceNameIds().contains(source.getSourceNameId())) {
+                return "Source name with ID " + source.getSourceNameId() + " not found";
+            }
+            for (PlannerRunDTO run : nullSafe(source.getRuns())) {
+                if (run == null) {
+                    return "Planner run is required";
+                }
+                if (run.getRunNameId() != null && !references.runNameIds().contains(run.getRunNameId())) {
+                    return "Run name with ID " + run.getRunNameId() + " not found";
+                }
+            }
+            for (PlannerReportDTO report : nullSafe(source.getReports())) {
+                if (report == null) {
+                    return "Planner report is required";
+                }
+                if (report.getReportTypeId() != null
+                        && !references.reportTypeIds().contains(report.getReportTypeId())) {
+                    return "Report type with ID " + report.getReportTypeId() + " not found";
+                }
+                if (report.getReportNameId() != null) {
+                    if (!references.reportNameTypes().containsKey(report.getReportNameId())) {
+                        return "Report name with ID " + report.getReportNameId() + " not found";
+                    }
+                    Long nameTypeId = references.reportNameTypes().get(report.getReportNameId());
+                    if (nameTypeId != null && report.getReportTypeId() != null
+                            && !nameTypeId.equals(report.getReportTypeId())) {
+                        return "Report name with ID " + report.getReportNameId()
+                                + " does not belong to report type " + report.getReportTypeId();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Load every referenced master-data row with one query per type.
+     */
+    private ReferenceData loadReferences(List<PlannerDTO> planners) {
+        List<PlannerDTO> present = planners.stream().filter(Objects::nonNull).toList();
+        List<PlannerFundDTO> funds = present.stream()
+                .flatMap(p -> nullSafe(p.getFunds()).stream()).filter(Objects::nonNull).toList();
+        List<PlannerSourceDTO> sources = present.stream()
+                .flatMap(p -> nullSafe(p.getSources()).stream()).filter(Objects::nonNull).toList();
+
+        Set<Long> connectionIds = existingIds(ids(present.stream().map(PlannerDTO::getExternalSystemConfigId)),
+                connectionRepository::findAllById);
+        Set<Long> fundIds = existingIds(ids(funds.stream().map(PlannerFundDTO::getFundId)),
+                fundRepository::findAllById);
+        Set<Long> sourceNameIds = existingIds(ids(sources.stream().map(PlannerSourceDTO::getSourceNameId)),
+                sourceNameRepository::findAllById);
+        Set<Long> runNameIds = existingIds(ids(sources.stream()
+                .flatMap(s -> nullSafe(s.getRuns()).stream()).filter(Objects::nonNull)
+                .map(PlannerRunDTO::getRunNameId)), runNameRepository::findAllById);
+
+        List<PlannerReportDTO> reports = sources.stream()
+                .flatMap(s -> nullSafe(s.getReports()).stream()).filter(Objects::nonNull).toList();
+        Set<Long> reportTypeIds = existingIds(ids(reports.stream().map(PlannerReportDTO::getReportTypeId)),
+                reportTypeRepository::findAllById);
+
+        Map<Long, Long> aliasFunds = new HashMap<>();
+        Set<Long> aliasIds = ids(funds.stream().map(PlannerFundDTO::getFundAliasId));
+        if (!aliasIds.isEmpty()) {
+            for (FundAlias alias : fundAliasRepository.findAllById(aliasIds)) {
+                aliasFunds.put(alias.getId(), alias.getFund().getId());
+            }
+        }
+
+        // Report name -> owning report type id (may be null)
+        Map<Long, Long> reportNameTypes = new HashMap<>();
+        Set<Long> reportNameIds = ids(reports.stream().map(PlannerReportDTO::getReportNameId));
+        if (!reportNameIds.isEmpty()) {
+            for (ReportName name : reportNameRepository.findAllById(reportNameIds)) {
+                reportNameTypes.put(name.getId(), name.getReportType() != null ? name.getReportType().getId() : null);
+            }
+        }
+
+        return new ReferenceData(connectionIds, fundIds, aliasFunds, sourceNameIds, runNameIds, reportTypeIds,
+                reportNameTypes);
+    }
+
+    private static Set<Long> ids(Stream<Long> ids) {
+        return ids.filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <E extends BaseEntity> Set<Long> existingIds(Set<Long> ids,
+            Function<Collection<Long>, List<E>> loader) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return loader.apply(ids).stream().map(BaseEntity::getId).collect(Collectors.toSet());
+    }
+
+    private record ReferenceData(
+            Set<Long> connectionIds,
+            Set<Long> fundIds,
+            Map<Long, Long> aliasFunds,
+            Set<Long> sourceNameIds,
+            Set<Long> runNameIds,
+            Set<Long> reportTypeIds,
+            Map<Long, Long> reportNameTypes) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.swisspine.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.common.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Streams every planner to an output stream as NDJSON or CSV.
+ *
+ * Rows are read through a PostgreSQL server-side cursor (fetch size inside a
+ * read-only transaction) and written one at a time straight from the
+ * ResultSet, so memory use stays flat regardless of the number of planners.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlannerExportService {
+
+    /**
+     * Rows fetched per cursor round trip.
+     */
+    static final int FETCH_SIZE = 1000;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    static final String[] COLUMNS = {
+            "id", "name", "description", "plannerType", "status", "finishedAt",
+            "createdAt", "updatedAt", "version", "externalSystemConfigId", "externalSystemConfigName"
+    };
+
+    private static final String EXPORT_SQL = "SELECT p.id, p.name, p.description, p.planner_type, p.status, "
+            + "p.finished_at, p.created_at, p.updated_at, p.version, c.id, c.name "
+            + "FROM planners p LEFT JOIN external_connections c ON c.id = p.external_system_config_id ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write all planners, optionally filtered by status, in the given format.
+     * The stream is flushed but not closed.
+     *
+     * @return Number of planners written
+     */
+    @Transactional(readOnly = true)
+    public long export(String status, ExportFormat format, OutputStream out) throws IOException {
+        String statusFilter = status != null && !status.trim().isEmpty() ? status.trim() : null;
+        log.info("Exporting planners - status: {}, format: {}", statusFilter, format);
+
+        long start = System.currentTimeMillis();
+        long rows;
+        try {
+            rows = format == ExportFormat.CSV
+                    ? writeCsv(statusFilter, out)
+                    : writeNdjson(statusFilter, out);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-stream
+            throw e.getCause();
+        }
+
+        log.info("Exported {} planners as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private long writeNdjson(String status, OutputStream out) throws IOException {
+        long[] count = { 0 };
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            streamRows(status, rs -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField(COLUMNS[0], rs.getLong(1));
+                    for (int column = 2; column <= COLUMNS.length; column++) {
+                        Object value = value(rs, column);
+                        if (value instanceof Long number) {
+                            generator.writeNumberField(COLUMNS[column - 1], number);
+                        } else if (value != null) {
+                            generator.writeStringField(COLUMNS[column - 1], value.toString());
+                        }
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        }
+        return count[0];
+    }
+
+    private long writeCsv(String status, OutputStream out) throws IOException {
+        long[] count = { 0 };
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+
+        streamRows(status, rs -> {
+            try {
+                for (int column = 1; column <= COLUMNS.length; column++) {
+                    if (column > 1) {
+                        writer.write(',');
+                    }
+                    Object value = column == 1 ? (Object) rs.getLong(1) : value(rs, column);
+                    if (value != null) {
+                        writer.write(csvEscape(value.toString()));
+                    }
+                }
+                writer.write("\r\n");
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return count[0];
+    }
+
+    /**
+     * Run the export query forward-only with a fetch size. PostgreSQL only
+     * uses a cursor when autocommit is off, which the surrounding
+     * transaction guarantees.
+     */
+    private void streamRows(String status, RowCallbackHandler handler) {
+        String sql = EXPORT_SQL + (status != null ? "WHERE p.status = ? " : "") + "ORDER BY p.id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            if (status != null) {
+                statement.setString(1, status);
+            }
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Read a column as Long, ISO-8601 instant string or String; null if SQL NULL.
+     */
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        switch (column) {
+            case 6, 7, 8 -> {
+                Timestamp timestamp = rs.getTimestamp(column);
+                return timestamp != null ? timestamp.toInstant().toString() : null;
+            }
+            case 9, 10 -> {
+                long number = rs.getLong(column);
+                return rs.wasNull() ? null : number;
+            }
+            default -> {
+                return rs.getString(column);
+            }
+        }
+    }
+
+    static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,523 @@
+package com.swisspine.service;
+
+import com.swisspine.common.BaseEntity;
+import com.swisspine.dto.PlannerDTO;
+import com.swisspine.dto.PlannerFundDTO;
+import com.swisspine.dto.PlannerReportDTO;
+import com.swisspine.dto.PlannerRunDTO;
+import com.swisspine.dto.PlannerSourceDTO;
+import com.swisspine.entity.Fund;
+import com.swisspine.entity.FundAlias;
+import com.swisspine.entity.Planner;
+import com.swisspine.entity.PlannerFund;
+import com.swisspine.entity.PlannerReport;
+import com.swisspine.entity.PlannerRun;
+import com.swisspine.entity.PlannerSource;
+import com.swisspine.entity.ReportName;
+import com.swisspine.entity.ReportType;
+import com.swisspine.entity.RunName;
+import com.swisspine.entity.SourceName;
+import com.swisspine.exception.BusinessRuleViolationException;
+import com.swisspine.exception.ResourceNotFoundException;
+import com.swisspine.repository.FundAliasRepository;
+import com.swisspine.repository.FundRepository;
+import com.swisspine.repository.PlannerFundRepository;
+import com.swisspine.repository.PlannerReportRepository;
+import com.swisspine.repository.PlannerRunRepository;
+import com.swisspine.repository.PlannerSourceRepository;
+import com.swisspine.repository.ReportNameRepository;
+import com.swisspine.repository.ReportTypeRepository;
+import com.swisspine.repository.RunNameRepository;
+import com.swisspine.repository.SourceNameRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Applies the funds and sources of a planner update to the stored graph.
+ *
+ * Stored children are loaded with one IN query per level and matched to the
+ * requested items: funds by fund id (unique per planner), sources, runs and
+ * reports by id and then by display order. Only the differences are written.
+ * Changed rows are updated through dirty checking, removed rows are deleted
+ * with one statement per table, and new rows are persisted so they flush as
+ * JDBC batches. Saving an unchanged graph writes no child rows.
+ *
+ * A null funds or sources list (or null runs or reports on a source) leaves
+ * that part of the graph untouched; an empty list removes it.
+ *
+ * Must be called inside the caller's transaction.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlannerGraphUpdater {
+
+    private final PlannerFundRepository plannerFundRepository;
+    private final PlannerSourceRepository plannerSourceRepository;
+    private final PlannerRunRepository plannerRunRepository;
+    private final PlannerReportRepository plannerReportRepository;
+    private final FundRepository fundRepository;
+    private final FundAliasRepository fundAliasRepository;
+    private final SourceNameRepository sourceNameRepository;
+    private final RunNameRepository runNameRepository;
+    private final ReportTypeRepository reportTypeRepository;
+    private final ReportNameRepository reportNameRepository;
+
+    /**
+     * Planner children after an update, in display order. Runs and reports
+     * are keyed by source instance because new sources may not have an id
+     * until the session is flushed. {@code changed} is false if no child row
+     * was inserted, updated or deleted.
+     */
+    public record PlannerGraph(
+            List<PlannerFund> funds,
+            List<PlannerSource> sources,
+            Map<PlannerSource, List<PlannerRun>> runs,
+            Map<PlannerSource, List<PlannerReport>> reports,
+            boolean changed) {
+    }
+
+    /**
+     * Diff the requested children of {@code dto} against the stored graph of
+     * {@code planner} and issue the resulting inserts, updates and deletes.
+     *
+     * @return The planner's children after the update
+     */
+    public PlannerGraph apply(Planner planner, PlannerDTO dto) {
+        Long plannerId = planner.getId();
+        References references = loadReferences(dto);
+        Changes changes = new Changes();
+
+        List<PlannerFund> funds = plannerFundRepository.findByPlannerIdIn(List.of(plannerId));
+        if (dto.getFunds() != null) {
+            funds = diffFunds(planner, funds, dto.getFunds(), references, changes);
+        }
+
+        List<PlannerSource> sources = new ArrayList<>(plannerSourceRepository.findByPlannerIdIn(List.of(plannerId)));
+        Map<PlannerSource, List<PlannerRun>> runs = new IdentityHashMap<>();
+        Map<PlannerSource, List<PlannerReport>> reports = new IdentityHashMap<>();
+        if (!sources.isEmpty()) {
+            Map<Long, PlannerSource> sourcesById = sources.stream()
+                    .collect(Collectors.toMap(PlannerSource::getId, Function.identity()));
+            List<Long> sourceIds = List.copyOf(sourcesById.keySet());
+            for (PlannerRun run : plannerRunRepository.findByPlannerSourceIdIn(sourceIds)) {
+                runs.computeIfAbsent(sourcesById.get(run.getPlannerSource().getId()), s -> new ArrayList<>()).add(run);
+            }
+            for (PlannerReport report : plannerReportRepository.findByPlannerSourceIdIn(sourceIds)) {
+                reports.computeIfAbsent(sourcesById.get(report.getPlannerSource().getId()), s -> new ArrayList<>())
+                        .add(report);
+            }
+        }
+        if (dto.getSources() != null) {
+            sources = diffSources(planner, sources, dto.getSources(), runs, reports, references, changes);
+        }
+
+        changes.write();
+        log.debug("Planner {} graph diff - inserted: {}, updated: {}, deleted: {}", plannerId, changes.inserted(),
+                changes.updated, changes.deleted());
+
+        sources.sort(Comparator.comparing(PlannerSource::getDisplayOrder));
+        runs.values().forEach(list -> list.sort(Comparator.comparing(PlannerRun::getDisplayOrder)));
+        reports.values().forEach(list -> list.sort(Comparator.comparing(PlannerReport::getDisplayOrder)));
+        return new PlannerGraph(funds, sources, runs, reports,
+                changes.inserted() + changes.updated + changes.deleted() > 0);
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private List<PlannerFund> diffFunds(Planner planner, List<PlannerFund> stored, List<PlannerFundDTO> requested,
+            References references, Changes changes) {
+        Set<Long> storedIds = stored.stream().map(BaseEntity::getId).collect(Collectors.toSet());
+        Map<Long, PlannerFund> unclaimed = new LinkedHashMap<>();
+        for (PlannerFund fund : stored) {
+            unclaimed.put(fund.getFund().getId(), fund);
+        }
+
+        List<PlannerFund> result = new ArrayList<>(requested.size());
+        Set<Long> seenFunds = new HashSet<>();
+        for (PlannerFundDTO item : requested) {
+            if (item == null || item.getFundId() == null) {
+                throw new BusinessRuleViolationException("Fund ID is required for every planner fund");
+            }
+            if (!seenFunds.add(item.getFundId())) {
+                throw new BusinessRuleViolationException(
+                        "Fund with ID " + item.getFundId() + " is assigned more than once");
+            }
+            if (item.getId() != null && !storedIds.contains(item.getId())) {
+                throw new BusinessRuleViolationException(
+                        "Planner fund with ID " + item.getId() + " does not belong to planner " + planner.getId());
+            }
+
+            Fund fund = resolve(references.funds(), item.getFundId(), "Fund");
+            FundAlias alias = resolve(references.aliases(), item.getFundAliasId(), "Fund alias");
+            if (alias != null && !alias.getFund().getId().equals(fund.getId())) {
+                throw new BusinessRuleViolationException("Fund alias with ID " + alias.getId()
+                        + " does not belong to fund " + fund.getId());
+            }
+
+            PlannerFund plannerFund = unclaimed.remove(fund.getId());
+            if (plannerFund == null) {
+                plannerFund = PlannerFund.builder().planner(planner).fund(fund).fundAlias(alias).build();
+                changes.newFunds.add(plannerFund);
+            } else if (!Objects.equals(idOf(plannerFund.getFundAlias()), item.getFundAliasId())) {
+                plannerFund.setFundAlias(alias);
+                changes.updated++;
+            }
+            result.add(plannerFund);
+        }
+
+        changes.deletedFunds.addAll(unclaimed.values());
+        return result;
+    }
+
+    private List<PlannerSource> diffSources(Planner planner, List<PlannerSource> stored,
+            List<PlannerSourceDTO> requested, Map<PlannerSource, List<PlannerRun>> runs,
+            Map<PlannerSource, List<PlannerReport>> reports, References references, Changes changes) {
+        Match<PlannerSource> match = match(stored, requested, PlannerSourceDTO::getId,
+                PlannerSourceDTO::getDisplayOrder, PlannerSource::getDisplayOrder,
+                "Planner source", "planner " + planner.getId());
+
+        List<PlannerSource> result = new ArrayList<>(requested.size());
+        for (int i = 0; i < requested.size(); i++) {
+            PlannerSourceDTO item = requested.get(i);
+            int order = displayOrder(item.getDisplayOrder(), i);
+            SourceName sourceName = resolve(references.sourceNames(), item.getSourceNameId(), "Source name");
+
+            PlannerSource source = match.rows().get(i);
+            if (source == null) {
+                source = PlannerSource.builder().planner(planner).sourceName(sourceName).displayOrder(order).build();
+                List<PlannerRunDTO> newRuns = nullSafe(item.getRuns());
+                for (int r = 0; r < newRuns.size(); r++) {
+                    source.addRun(newRun(newRuns.get(r), r, references));
+                }
+                List<PlannerReportDTO> newReports = nullSafe(item.getReports());
+                for (int r = 0; r < newReports.size(); r++) {
+                    source.addReport(newReport(newReports.get(r), r, references));
+                }
+                runs.put(source, new ArrayList<>(source.getRuns()));
+                reports.put(source, new ArrayList<>(source.getReports()));
+                changes.newSources.add(source);
+            } else {
+                if (!Objects.equals(idOf(source.getSourceName()), item.getSourceNameId())) {
+                    source.setSourceName(sourceName);
+                    changes.updated++;
+                }
+                if (!Objects.equals(source.getDisplayOrder(), order)) {
+                    source.setDisplayOrder(order);
+                    changes.updated++;
+                }
+                if (item.getRuns() != null) {
+                    runs.put(source, diffRuns(source, runs.getOrDefault(source, List.of()), item.getRuns(),
+                            references, changes));
+                }
+                if (item.getReports() != null) {
+                    reports.put(source, diffReports(source, reports.getOrDefault(source, List.of()),
+                            item.getReports(), references, changes));
+                }
+            }
+            result.add(source);
+        }
+
+        // Runs and reports of removed sources go with them (ON DELETE CASCADE)
+        for (PlannerSource removed : match.unclaimed()) {
+            runs.remove(removed);
+            reports.remove(removed);
+        }
+        changes.deletedSources.addAll(match.unclaimed());
+        return result;
+    }
+
+    private List<PlannerRun> diffRuns(PlannerSource source, List<PlannerRun> stored, List<PlannerRunDTO> requested,
+            References references, Changes changes) {
+        Match<PlannerRun> match = match(stored, requested, PlannerRunDTO::getId, PlannerRunDTO::getDisplayOrder,
+                PlannerRun::getDisplayOrder, "Planner run", "planner source " + source.getId());
+
+        List<PlannerRun> result = new ArrayList<>(requested.size());
+        for (int i = 0; i < requested.size(); i++) {
+            PlannerRunDTO item = requested.get(i);
+            PlannerRun run = match.rows().get(i);
+            if (run == null) {
+                run = newRun(item, i, references);
+                run.setPlannerSource(source);
+                changes.newRuns.add(run);
+            } else {
+                int order = displayOrder(item.getDisplayOrder(), i);
+                if (!Objects.equals(idOf(run.getRunName()), item.getRunNameId())) {
+                    run.setRunName(resolve(references.runNames(), item.getRunNameId(), "Run name"));
+                    changes.updated++;
+                }
+                if (!Objects.equals(run.getDisplayOrder(), order)) {
+                    run.setDisplayOrder(order);
+                    changes.updated++;
+                }
+            }
+            result.add(run);
+        }
+
+        changes.deletedRuns.addAll(match.unclaimed());
+        return result;
+    }
+
+    private List<PlannerReport> diffReports(PlannerSource source, List<PlannerReport> stored,
+            List<PlannerReportDTO> requested, References references, Changes changes) {
+        Match<PlannerReport> match = match(stored, requested, PlannerReportDTO::getId,
+                PlannerReportDTO::getDisplayOrder, PlannerReport::getDisplayOrder,
+                "Planner report", "planner source " + source.getId());
+
+        List<PlannerReport> result = new ArrayList<>(requested.size());
+        for (int i = 0; i < requested.size(); i++) {
+            PlannerReportDTO item = requested.get(i);
+            PlannerReport report = match.rows().get(i);
+            if (report == null) {
+                report = newReport(item, i, references);
+                report.setPlannerSource(source);
+                changes.newReports.add(report);
+            } else {
+                int order = displayOrder(item.getDisplayOrder(), i);
+                ReportType reportType = resolve(references.reportTypes(), item.getReportTypeId(), "Report type");
+                ReportName reportName = resolveReportName(item, reportType, references);
+                if (!Objects.equals(idOf(report.getReportType()), item.getReportTypeId())) {
+                    report.setReportType(reportType);
+                    changes.updated++;
+                }
+                if (!Objects.equals(idOf(report.getReportName()), item.getReportNameId())) {
+                    report.setReportName(reportName);
+                    changes.updated++;
+                }
+                if (!Objects.equals(report.getDisplayOrder(), order)) {
+                    report.setDisplayOrder(order);
+                    changes.updated++;
+                }
+            }
+            result.add(report);
+        }
+
+        changes.deletedReports.addAll(match.unclaimed());
+        return result;
+    }
+
+    private PlannerRun newRun(PlannerRunDTO item, int position, References references) {
+        if (item == null) {
+            throw new BusinessRuleViolationException("Planner run is required");
+        }
+        return PlannerRun.builder()
+                .runName(resolve(references.runNames(), item.getRunNameId(), "Run name"))
+                .displayOrder(displayOrder(item.getDisplayOrder(), position))
+                .build();
+    }
+
+    private PlannerReport newReport(PlannerReportDTO item, int position, References references) {
+        if (item == null) {
+            throw new BusinessRuleViolationException("Planner report is required");
+        }
+        ReportType reportType = resolve(references.reportTypes(), item.getReportTypeId(), "Report type");
+        return PlannerReport.builder()
+                .reportType(reportType)
+                .reportName(resolveReportName(item, reportType, references))
+                .displayOrder(displayOrder(item.getDisplayOrder(), position))
+                .build();
+    }
+
+    private ReportName resolveReportName(PlannerReportDTO item, ReportType reportType, References references) {
+        ReportName reportName = resolve(references.reportNames(), item.getReportNameId(), "Report name");
+        if (reportName != null && reportType != null && reportName.getReportType() != null
+                && !reportName.getReportType().getId().equals(reportType.getId())) {
+            throw new BusinessRuleViolationException("Report name with ID " + reportName.getId()
+                    + " does not belong to report type " + reportType.getId());
+        }
+        return reportName;
+    }
+
+    /**
+     * Pair each requested item with a stored row: first by id, then by display
+     * order among the rows not claimed by id. Requested items without a match
+     * are new; stored rows left unclaimed are to be deleted.
+     */
+    private static <E extends BaseEntity, D> Match<E> match(List<E> stored, List<D> requested,
+            Function<D, Long> requestedId, Function<D, Integer> requestedOrder, Function<E, Integer> storedOrder,
+            String type, String owner) {
+        Map<Long, E> unclaimed = new LinkedHashMap<>();
+        for (E row : stored) {
+            unclaimed.put(row.getId(), row);
+        }
+
+        List<E> rows = new ArrayList<>(requested.size());
+        Set<Long> claimedIds = new HashSet<>();
+        for (D item : requested) {
+            if (item == null) {
+                throw new BusinessRuleViolationException(type + " is required");
+            }
+            Long id = requestedId.apply(item);
+            E row = null;
+            if (id != null) {
+                if (!claimedIds.add(id)) {
+                    throw new BusinessRuleViolationException(type + " with ID " + id + " is listed more than once");
+                }
+                row = unclaimed.remove(id);
+                if (row == null) {
+                    throw new BusinessRuleViolationException(type + " with ID " + id + " does not belong to " + owner);
+                }
+            }
+            rows.add(row);
+        }
+
+        Map<Integer, Deque<E>> byOrder = new HashMap<>();
+        for (E row : unclaimed.values()) {
+            byOrder.computeIfAbsent(storedOrder.apply(row), order -> new ArrayDeque<>()).add(row);
+        }
+        for (int i = 0; i < requested.size(); i++) {
+            if (rows.get(i) != null || requestedId.apply(requested.get(i)) != null) {
+                continue;
+            }
+            Deque<E> candidates = byOrder.get(displayOrder(requestedOrder.apply(requested.get(i)), i));
+            if (candidates != null && !candidates.isEmpty()) {
+                E row = candidates.poll();
+                unclaimed.remove(row.getId());
+                rows.set(i, row);
+            }
+        }
+
+        return new Match<>(rows, List.copyOf(unclaimed.values()));
+    }
+
+    /**
+     * Load every master-data row referenced by the request with one query per type.
+     */
+    private References loadReferences(PlannerDTO dto) {
+        List<PlannerFundDTO> funds = nullSafe(dto.getFunds()).stream().filter(Objects::nonNull).toList();
+        List<PlannerSourceDTO> sources = nullSafe(dto.getSources()).stream().filter(Objects::nonNull).toList();
+        List<PlannerRunDTO> runs = sources.stream()
+                .flatMap(s -> nullSafe(s.getRuns()).stream()).filter(Objects::nonNull).toList();
+        List<PlannerReportDTO> reports = sources.stream()
+                .flatMap(s -> nullSafe(s.getReports()).stream()).filter(Objects::nonNull).toList();
+
+        return new References(
+                load(ids(funds.stream().map(PlannerFundDTO::getFundId)), fundRepository::findAllById),
+                load(ids(funds.stream().map(PlannerFundDTO::getFundAliasId)), fundAliasRepository::findAllById),
+                load(ids(sources.stream().map(PlannerSourceDTO::getSourceNameId)), sourceNameRepository::findAllById),
+                load(ids(runs.stream().map(PlannerRunDTO::getRunNameId)), runNameRepository::findAllById),
+                load(ids(reports.stream().map(PlannerReportDTO::getReportTypeId)), reportTypeRepository::findAllById),
+                load(ids(reports.stream().map(PlannerReportDTO::getReportNameId)), reportNameRepository::findAllById));
+    }
+
+    private static Set<Long> ids(Stream<Long> ids) {
+        return ids.filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <E extends BaseEntity> Map<Long, E> load(Set<Long> ids,
+            Function<Collection<Long>, List<E>> loader) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return loader.apply(ids).stream().collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+    }
+
+    private static <E> E resolve(Map<Long, E> loaded, Long id, String type) {
+        if (id == null) {
+            return null;
+        }
+        E entity = loaded.get(id);
+        if (entity == null) {
+            throw ResourceNotFoundException.forId(type, id);
+        }
+        return entity;
+    }
+
+    private static Long idOf(BaseEntity entity) {
+        return entity != null ? entity.getId() : null;
+    }
+
+    private static int displayOrder(Integer requested, int position) {
+        return requested != null ? requested : position;
+    }
+
+    private static <T> List<T> nullSafe(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private record Match<E>(List<E> rows, List<E> unclaimed) {
+    }
+
+    private record References(
+            Map<Long, Fund> funds,
+            Map<Long, FundAlias> aliases,
+            Map<Long, SourceName> sourceNames,
+            Map<Long, RunName> runNames,
+            Map<Long, ReportType> reportTypes,
+            Map<Long, ReportName> reportNames) {
+    }
+
+    /**
+     * Rows to insert and delete. Updated rows are only counted: they are
+     * flushed by dirty checking.
+     */
+    private final class Changes {
+        private int updated;
+        private final List<PlannerFund> newFunds = new ArrayList<>();
+        private final List<PlannerSource> newSources = new ArrayList<>();
+        private final List<PlannerRun> newRuns = new ArrayList<>();
+        private final List<PlannerReport> newReports = new ArrayList<>();
+        private final List<PlannerFund> deletedFunds = new ArrayList<>();
+        private final List<PlannerSource> deletedSources = new ArrayList<>();
+        private final List<PlannerRun> deletedRuns = new ArrayList<>();
+        private final List<PlannerReport> deletedReports = new ArrayList<>();
+
+        /**
+         * Deletes are issued first so a fund freed by a removed row can be
+         * inserted again in the same flush.
+         */
+        void write() {
+            delete(plannerReportRepository, deletedReports);
+            delete(plannerRunRepository, deletedRuns);
+            delete(plannerSourceRepository, deletedSources);
+            delete(plannerFundRepository, deletedFunds);
+
+            // New sources cascade to their runs and reports
+            insert(plannerFundRepository, newFunds);
+            insert(plannerSourceRepository, newSources);
+            insert(plannerRunRepository, newRuns);
+            insert(plannerReportRepository, newReports);
+        }
+
+        int inserted() {
+            return newFunds.size() + newSources.size() + newRuns.size() + newReports.size();
+        }
+
+        int deleted() {
+            return deletedFunds.size() + deletedSources.size() + deletedRuns.size() + deletedReports.size();
+        }
+
+        private <E extends BaseEntity> void delete(JpaRepository<E, Long> repository, List<E> rows) {
+            if (!rows.isEmpty()) {
+                repository.deleteAllByIdInBatch(rows.stream().map(BaseEntity::getId).toList());
+            }
+        }
+
+        private <E extends BaseEntity> void insert(JpaRepository<E, Long> repository, List<E> rows) {
+            if (!rows.isEmpty()) {
+                repository.saveAll(rows);
+            }
+        }
+    }
+}
@@ -1,22 +1,53 @@
 package com.swisspine.service;
 
+import com.swisspine.common.CountMode;
+import com.swisspine.common.KeysetCursor;
+import com.swisspine.common.LookAheadPageRequest;
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.common.SearchPattern;
 import com.swisspine.dto.ExternalConnectionDTO;
 import com.swisspine.dto.PageableResponseDTO;
+import com.swisspine.dto.PlannerAggregatesDTO;
 import com.swisspine.dto.PlannerDTO;
+import com.swisspine.dto.PlannerFundDTO;
+import com.swisspine.dto.PlannerReportDTO;
+import com.swisspine.dto.PlannerRunDTO;
+import com.swisspine.dto.PlannerSourceDTO;
 import com.swisspine.entity.ExternalConnection;
 import com.swisspine.entity.Planner;
+import com.swisspine.entity.PlannerFund;
+import com.swisspine.entity.PlannerReport;
+import com.swisspine.entity.PlannerRun;
+import com.swisspine.entity.PlannerSource;
+import com.swisspine.exception.BusinessRuleViolationException;
 import com.swisspine.exception.ResourceNotFoundException;
 import com.swisspine.repository.ExternalConnectionRepository;
+import com.swisspine.repository.PlannerFundRepository;
+import com.swisspine.repository.PlannerReportRepository;
 import com.swisspine.repository.PlannerRepository;
+import com.swisspine.repository.PlannerRepositoryCustom;
+import com.swisspine.repository.PlannerRunRepository;
+import com.swisspine.repository.PlannerSourceRepository;
+import com.swisspine.repository.projection.PlannerAggregateView;
+import com.swisspine.repository.projection.PlannerListRow;
+import com.swisspine.repository.projection.PlannerVersionRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
 /**
  * Service layer for Planner business logic.
  * 
@@ -32,49 +63,226 @@ public class PlannerService {
 
     private final PlannerRepository repository;
     private final ExternalConnectionRepository connectionRepository;
+    private final PlannerFundRepository plannerFundRepository;
+    private final PlannerSourceRepository plannerSourceRepository;
+    private final PlannerRunRepository plannerRunRepository;
+    private final PlannerReportRepository plannerReportRepository;
+    private final PlannerGraphUpdater graphUpdater;
+
+    /**
+     * Largest total that count=estimate still counts exactly.
+     */
+    @Value("${swisspine.pagination.exact-count-threshold:1000}")
+    private long exactCountThreshold = 1000;
 
     /**
      * Find all planners with pagination and optional status filtering.
+     * Totals are counted exactly.
      */
     @Transactional(readOnly = true)
     public PageableResponseDTO<PlannerDTO> findAll(String status, int page, int size) {
-        log.debug("Finding planners - status: {}, page: {}, size: {}", status, page, size);
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Planner> entityPage;
+        return findAll(status, page, size, CountMode.EXACT);
+    }
 
-        if (status != null && !status.trim().isEmpty()) {
-            entityPage = repository.findByStatusOrderByCreatedAtDesc(status.trim(), pageable);
-        } else {
-            entityPage = repository.findAll(pageable);
+    /**
+     * Find all planners with pagination, optional status filtering and the
+     * given count mode (see CountMode).
+     */
+    @Transactional(readOnly = true)
+    public PageableResponseDTO<PlannerDTO> findAll(String status, int page, int size, CountMode countMode) {
+        log.debug("Finding planners - status: {}, page: {}, size: {}, count: {}", status, page, size, countMode);
+
+        String statusFilter = normalizeStatus(status);
+        if (countMode == CountMode.EXACT) {
+            Page<PlannerDTO> dtoPage = repository.findListPage(statusFilter, PageRequest.of(page, size))
+                    .map(this::toListDTO);
+            return PageableResponseDTO.from(dtoPage);
         }
 
-        Page<PlannerDTO> dtoPage = entityPage.map(this::toDTO);
-
-        return PageableResponseDTO.from(dtoPage);
+        List<PlannerListRow> rows = repository.findListRows(statusFilter, lookAhead(page, size));
+        return toOffsetPage(rows, page, size, countMode,
+                () -> repository.estimateCount(null, false, statusFilter, exactCountThreshold));
     }
 
     /**
      * Search planners by name with pagination.
-     * Uses case-insensitive partial matching.
+     * Uses case-insensitive partial matching for terms of three or more
+     * characters and prefix matching for shorter terms (see SearchPattern).
      * Optionally filters by status.
      */
     @Transactional(readOnly = true)
     public PageableResponseDTO<PlannerDTO> search(String query, String status, int page, int size) {
-        log.debug("Searching planners - query: {}, status: {}, page: {}, size: {}", query, status, page, size);
+        return search(query, status, page, size, CountMode.EXACT);
+    }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Planner> entityPage;
+    /**
+     * Search planners by name with the given count mode.
+     */
+    @Transactional(readOnly = true)
+    public PageableResponseDTO<PlannerDTO> search(String query, String status, int page, int size,
+            CountMode countMode) {
+        log.debug("Searching planners - query: {}, status: {}, page: {}, size: {}, count: {}",
+                query, status, page, size, countMode);
+
+        String pattern = SearchPattern.forTerm(query);
+        String statusFilter = normalizeStatus(status);
+        if (countMode == CountMode.EXACT) {
+            Page<PlannerDTO> dtoPage = repository.searchListPage(pattern, statusFilter, PageRequest.of(page, size))
+                    .map(this::toListDTO);
+            return PageableResponseDTO.from(dtoPage);
+        }
 
-        if (status != null && !status.trim().isEmpty()) {
-            entityPage = repository.searchByNameAndStatus(query, status.trim(), pageable);
-        } else {
-            entityPage = repository.searchByName(query, pageable);
+        List<PlannerListRow> rows = repository.searchListRows(pattern, statusFilter, lookAhead(page, size));
+        return toOffsetPage(rows, page, size, countMode,
+                () -> repository.estimateCount(pattern, false, statusFilter, exactCountThreshold));
+    }
+
+    /**
+     * Ranked search over planner name and description.
+     * Results are ordered by trigram similarity of the term to the name, so
+     * the closest matches come first.
+     */
+    @Transactional(readOnly = true)
+    public PageableResponseDTO<PlannerDTO> searchRanked(String query, String status, int page, int size) {
+        return searchRanked(query, status, page, size, CountMode.EXACT);
+    }
+
+    /**
+     * Ranked search over planner name and description with the given count mode.
+     */
+    @Transactional(readOnly = true)
+    public PageableResponseDTO<PlannerDTO> searchRanked(String query, String status, int page, int size,
+            CountMode countMode) {
+        log.debug("Ranked planner search - query: {}, status: {}, page: {}, size: {}, count: {}",
+                query, status, page, size, countMode);
+
+        String pattern = SearchPattern.forTerm(query);
+        String term = SearchPattern.normalize(query);
+        String statusFilter = normalizeStatus(status);
+        if (countMode == CountMode.EXACT) {
+            Page<PlannerDTO> dtoPage = repository.searchRankedListPage(
+                    pattern, term, statusFilter, PageRequest.of(page, size))
+                    .map(this::toListDTO);
+            return PageableResponseDTO.from(dtoPage);
+        }
+
+        List<PlannerListRow> rows = repository.searchRankedListRows(pattern, term, statusFilter, lookAhead(page, size));
+        return toOffsetPage(rows, page, size, countMode,
+                () -> repository.estimateCount(pattern, true, statusFilter, exactCountThreshold));
+    }
+
+    /**
+     * Find planners using keyset (cursor) pagination ordered by
+     * (createdAt DESC, id DESC). No count query is executed, so the cost of a
+     * page does not depend on how deep the client has paged.
+     *
+     * @param cursor Opaque cursor from a previous response, or blank for the
+     *               first page
+     */
+    @Transactional(readOnly = true)
+    public PageableResponseDTO<PlannerDTO> findAllByCursor(String status, String cursor, int size) {
+        log.debug("Finding planners by cursor - status: {}, cursor: {}, size: {}", status, cursor, size);
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable limit = keysetLimit(size);
+        String statusFilter = normalizeStatus(status);
+
+        List<PlannerListRow> rows = position == null
+                ? repository.findFirstKeysetPage(statusFilter, limit)
+                : repository.findKeysetPageAfter(statusFilter, position.createdAt(), position.id(), limit);
+
+        return toCursorPage(rows, size, position == null);
+    }
+
+    /**
+     * Search planners by name using keyset (cursor) pagination.
+     */
+    @Transactional(readOnly = true)
+    public PageableResponseDTO<PlannerDTO> searchByCursor(String query, String status, String cursor, int size) {
+        log.debug("Searching planners by cursor - query: {}, status: {}, cursor: {}, size: {}",
+                query, status, cursor, size);
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable limit = keysetLimit(size);
+        String statusFilter = normalizeStatus(status);
+
+        String pattern = SearchPattern.forTerm(query);
+
+        List<PlannerListRow> rows = position == null
+                ? repository.searchFirstKeysetPage(pattern, statusFilter, limit)
+                : repository.searchKeysetPageAfter(pattern, statusFilter, position.createdAt(), position.id(), limit);
+
+        return toCursorPage(rows, size, position == null);
+    }
+
+    /**
+     * Planner counts by status, planner type and external connection.
+     * Served from the trigger-maintained planner_aggregates table, so the
+     * cost depends on the number of groups rather than the number of planners.
+     */
+    @Transactional(readOnly = true)
+    public PlannerAggregatesDTO getAggregates() {
+        log.debug("Loading planner aggregates");
+
+        PlannerAggregatesDTO dto = new PlannerAggregatesDTO();
+        for (PlannerAggregateView row : repository.findAggregates()) {
+            PlannerAggregatesDTO.GroupCount group = PlannerAggregatesDTO.GroupCount.builder()
+                    .key(row.getGroupKey().isEmpty() ? null : row.getGroupKey())
+                    .name(row.getGroupName())
+                    .count(row.getPlannerCount())
+                    .build();
+            switch (row.getDimension()) {
+                case "status" -> {
+                    dto.getByStatus().add(group);
+                    // Status is NOT NULL, so its groups partition all planners
+                    dto.setTotal(dto.getTotal() + group.getCount());
+                }
+                case "planner_type" -> dto.getByPlannerType().add(group);
+                case "connection" -> dto.getByConnection().add(group);
+                default -> log.warn("Ignoring unknown planner aggregate dimension: {}", row.getDimension());
+            }
         }
+        return dto;
+    }
+
+    /**
+     * Validators for a single planner: its version combined with that of its
+     * external connection, whose summary the response embeds. Reads only the
+     * version columns.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getVersion(Long id) {
+        return rowVersion("planner", id);
+    }
 
-        Page<PlannerDTO> dtoPage = entityPage.map(this::toDTO);
+    /**
+     * Validators for the full planner graph. Child changes touch the planner
+     * (see update), so the planner version also covers funds and sources.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getFullVersion(Long id) {
+        return rowVersion("planner-full", id);
+    }
 
-        return PageableResponseDTO.from(dtoPage);
+    /**
+     * Validators for planner lists and searches: the planner change counter
+     * combined with that of the connections whose summaries the rows embed.
+     * Two primary-key range reads, whatever the filter, page or count mode.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getListVersion() {
+        return ResourceVersion.ofChangeCount("planners", repository.findChangeCount())
+                .and(connectionsVersion());
+    }
+
+    /**
+     * Validators for the planner aggregates, which derive from all planners
+     * and the connection names.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getAggregatesVersion() {
+        return ResourceVersion.ofChangeCount("planner-aggregates", repository.findChangeCount())
+                .and(connectionsVersion());
     }
 
     /**
@@ -90,6 +298,37 @@ public class PlannerService {
         return toDTO(entity);
     }
 
+    /**
+     * Find planner by ID with its full graph: funds, sources, and each source's
+     * runs and reports.
+     * 
+     * Executes at most five queries regardless of graph size: the planner with
+     * its connection, then one IN query per collection level keyed by the
+     * parent ids.
+     */
+    @Transactional(readOnly = true)
+    public PlannerDTO findFullById(Long id) {
+        log.debug("Finding full planner graph by ID: {}", id);
+
+        Planner entity = repository.findWithRelationsById(id)
+                .orElseThrow(() -> ResourceNotFoundException.forId("Planner", id));
+
+        List<PlannerFund> funds = plannerFundRepository.findByPlannerIdIn(List.of(id));
+        List<PlannerSource> sources = plannerSourceRepository.findByPlannerIdIn(List.of(id));
+
+        List<Long> sourceIds = sources.stream().map(PlannerSource::getId).toList();
+        Map<Long, List<PlannerRun>> runsBySource = sourceIds.isEmpty() ? Map.of()
+                : plannerRunRepository.findByPlannerSourceIdIn(sourceIds).stream()
+                        .collect(Collectors.groupingBy(run -> run.getPlannerSource().getId()));
+        Map<Long, List<PlannerReport>> reportsBySource = sourceIds.isEmpty() ? Map.of()
+                : plannerReportRepository.findByPlannerSourceIdIn(sourceIds).stream()
+                        .collect(Collectors.groupingBy(report -> report.getPlannerSource().getId()));
+
+        return toFullDTO(entity, funds, sources,
+                source -> runsBySource.getOrDefault(source.getId(), List.of()),
+                source -> reportsBySource.getOrDefault(source.getId(), List.of()));
+    }
+
     /**
      * Create a new planner.
      */
@@ -106,6 +345,11 @@ public class PlannerService {
 
     /**
      * Update an existing planner.
+     * 
+     * If the request carries funds or sources, they are diffed against the
+     * stored graph and only the differences are written (see
+     * PlannerGraphUpdater); the response then contains the full graph. A
+     * request without funds and sources leaves the children untouched.
      */
     public PlannerDTO update(Long id, PlannerDTO dto) {
         log.info("Updating planner ID: {}", id);
@@ -115,11 +359,24 @@ public class PlannerService {
 
         // Update fields
         updateEntityFromDTO(existing, dto);
+        PlannerGraphUpdater.PlannerGraph graph = dto.getFunds() != null || dto.getSources() != null
+                ? graphUpdater.apply(existing, dto)
+                : null;
+        if (graph != null && graph.changed()) {
+            // Move the planner's version and updated_at with its children;
+            // they are the validators for the full graph
+            existing.setUpdatedAt(Instant.now());
+        }
         Planner saved = repository.save(existing);
 
         log.info("Successfully updated planner ID: {}", id);
 
-        return toDTO(saved);
+        if (graph == null) {
+            return toDTO(saved);
+        }
+        return toFullDTO(saved, graph.funds(), graph.sources(),
+                source -> graph.runs().getOrDefault(source, List.of()),
+                source -> graph.reports().getOrDefault(source, List.of()));
     }
 
     /**
@@ -138,6 +395,108 @@ public class PlannerService {
 
     // ==================== Private Helper Methods ====================
 
+    private ResourceVersion rowVersion(String type, Long id) {
+        PlannerVersionRow row = repository.findVersionById(id)
+                .orElseThrow(() -> ResourceNotFoundException.forId("Planner", id));
+
+        ResourceVersion version = ResourceVersion.ofRow(type, id, row.version(), row.updatedAt());
+        if (row.connectionId() == null) {
+            return version;
+        }
+        return version.and(ResourceVersion.ofRow("connection", row.connectionId(), row.connectionVersion(),
+                row.connectionUpdatedAt()));
+    }
+
+    private ResourceVersion connectionsVersion() {
+        return ResourceVersion.ofChangeCount("connections", connectionRepository.findChangeCount());
+    }
+
+    private Pageable keysetLimit(int size) {
+        if (size < 1) {
+            throw new BusinessRuleViolationException("Page size must be at least 1");
+        }
+        // One look-ahead row tells us whether a next page exists
+        return PageRequest.of(0, size + 1);
+    }
+
+    private Pageable lookAhead(int page, int size) {
+        if (size < 1) {
+            throw new BusinessRuleViolationException("Page size must be at least 1");
+        }
+        return LookAheadPageRequest.of(page, size);
+    }
+
+    /**
+     * Trim the look-ahead row and attach an estimated total, or none at all
+     * for {@link CountMode#NONE}. A non-empty last page carries its exact
+     * total without a count.
+     */
+    private PageableResponseDTO<PlannerDTO> toOffsetPage(List<PlannerListRow> rows, int page, int size,
+            CountMode countMode, Supplier<PlannerRepositoryCustom.CountEstimate> estimate) {
+        boolean hasNext = rows.size() > size;
+        List<PlannerDTO> content = (hasNext ? rows.subList(0, size) : rows).stream()
+                .map(this::toListDTO)
+                .toList();
+
+        if (countMode == CountMode.NONE) {
+            return PageableResponseDTO.fromOffset(content, page, size, hasNext, null, false);
+        }
+
+        long seen = (long) page * size + content.size() + (hasNext ? 1 : 0);
+        if (!hasNext && !content.isEmpty()) {
+            // A non-empty last page proves the exact total; no count needed
+            return PageableResponseDTO.fromOffset(content, page, size, false, seen, true);
+        }
+
+        PlannerRepositoryCustom.CountEstimate count = estimate.get();
+        // Never report fewer rows than this page has proven to exist; an empty
+        // page past the end proves nothing
+        long total = content.isEmpty() ? count.count() : Math.max(count.count(), seen);
+        return PageableResponseDTO.fromOffset(content, page, size, hasNext, total, count.exact() && total == count.count());
+    }
+
+    private String normalizeStatus(String status) {
+        return status != null && !status.trim().isEmpty() ? status.trim() : null;
+    }
+
+    /**
+     * Trim the look-ahead row and derive the next cursor from the last row kept.
+     */
+    private PageableResponseDTO<PlannerDTO> toCursorPage(List<PlannerListRow> rows, int size, boolean first) {
+        boolean hasNext = rows.size() > size;
+        List<PlannerListRow> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            PlannerListRow last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.createdAt(), last.id()).encode();
+        }
+
+        List<PlannerDTO> content = pageRows.stream().map(this::toListDTO).toList();
+        return PageableResponseDTO.fromCursor(content, size, first, nextCursor);
+    }
+
+    private PlannerDTO toFullDTO(Planner entity, List<PlannerFund> funds, List<PlannerSource> sources,
+            Function<PlannerSource, List<PlannerRun>> runsOf, Function<PlannerSource, List<PlannerReport>> reportsOf) {
+        PlannerDTO dto = toDTO(entity);
+        dto.setFunds(funds.stream().map(this::toFundDTO).collect(Collectors.toList()));
+
+        List<PlannerSourceDTO> sourceDTOs = new ArrayList<>(sources.size());
+        for (PlannerSource source : sources) {
+            PlannerSourceDTO sourceDTO = toSourceDTO(source);
+            sourceDTO.setRuns(runsOf.apply(source).stream()
+                    .map(this::toRunDTO)
+                    .collect(Collectors.toList()));
+            sourceDTO.setReports(reportsOf.apply(source).stream()
+                    .map(this::toReportDTO)
+                    .collect(Collectors.toList()));
+            sourceDTOs.add(sourceDTO);
+        }
+        dto.setSources(sourceDTOs);
+
+        return dto;
+    }
+
     private PlannerDTO toDTO(Planner entity) {
         PlannerDTO.PlannerDTOBuilder builder = PlannerDTO.builder()
                 .id(entity.getId())
@@ -159,6 +518,35 @@ public class PlannerService {
         return builder.build();
     }
 
+    /**
+     * Map a list projection row; the connection summary comes from the joined
+     * columns, so no lazy association is touched.
+     */
+    private PlannerDTO toListDTO(PlannerListRow row) {
+        PlannerDTO.PlannerDTOBuilder builder = PlannerDTO.builder()
+                .id(row.id())
+                .name(row.name())
+                .description(row.description())
+                .plannerType(row.plannerType())
+                .status(row.status())
+                .finishedAt(row.finishedAt())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .version(row.version());
+
+        if (row.connectionId() != null) {
+            builder.externalSystemConfigId(row.connectionId());
+            builder.externalSystemConfig(ExternalConnectionDTO.builder()
+                    .id(row.connectionId())
+                    .name(row.connectionName())
+                    .baseUrl(row.connectionBaseUrl())
+                    .authenticationMethod(row.connectionAuthenticationMethod())
+                    .build());
+        }
+
+        return builder.build();
+    }
+
     private Planner toEntity(PlannerDTO dto) {
         Planner.PlannerBuilder builder = Planner.builder()
                 .name(dto.getName())
@@ -194,6 +582,63 @@ public class PlannerService {
         }
     }
 
+    private PlannerFundDTO toFundDTO(PlannerFund entity) {
+        PlannerFundDTO.PlannerFundDTOBuilder builder = PlannerFundDTO.builder()
+                .id(entity.getId())
+                .fundId(entity.getFund().getId())
+                .fundName(entity.getFund().getName());
+
+        if (entity.getFundAlias() != null) {
+            builder.fundAliasId(entity.getFundAlias().getId());
+            builder.fundAliasName(entity.getFundAlias().getAliasName());
+        }
+
+        return builder.build();
+    }
+
+    private PlannerSourceDTO toSourceDTO(PlannerSource entity) {
+        PlannerSourceDTO.PlannerSourceDTOBuilder builder = PlannerSourceDTO.builder()
+                .id(entity.getId())
+                .displayOrder(entity.getDisplayOrder());
+
+        if (entity.getSourceName() != null) {
+            builder.sourceNameId(entity.getSourceName().getId());
+            builder.sourceName(entity.getSourceName().getName());
+        }
+
+        return builder.build();
+    }
+
+    private PlannerRunDTO toRunDTO(PlannerRun entity) {
+        PlannerRunDTO.PlannerRunDTOBuilder builder = PlannerRunDTO.builder()
+                .id(entity.getId())
+                .displayOrder(entity.getDisplayOrder());
+
+        if (entity.getRunName() != null) {
+            builder.runNameId(entity.getRunName().getId());
+            builder.runName(entity.getRunName().getName());
+        }
+
+        return builder.build();
+    }
+
+    private PlannerReportDTO toReportDTO(PlannerReport entity) {
+        PlannerReportDTO.PlannerReportDTOBuilder builder = PlannerReportDTO.builder()
+                .id(entity.getId())
+                .displayOrder(entity.getDisplayOrder());
+
+        if (entity.getReportType() != null) {
+            builder.reportTypeId(entity.getReportType().getId());
+            builder.reportTypeName(entity.getReportType().getName());
+        }
+        if (entity.getReportName() != null) {
+            builder.reportNameId(entity.getReportName().getId());
+            builder.reportName(entity.getReportName().getName());
+        }
+
+        return builder.build();
+    }
+
     private ExternalConnectionDTO toConnectionDTO(ExternalConnection entity) {
         return ExternalConnectionDTO.builder()
                 .id(entity.getId())
@@ -0,0 +1,67 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.entity.Fund;
+import com.swisspine.entity.ReportName;
+import com.swisspine.entity.ReportType;
+import com.swisspine.entity.RunName;
+import com.swisspine.entity.SourceName;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+
+/**
+ * Drops second-level cache regions after bulk master-data changes.
+ * 
+ * Bulk changes (seeding, CSV import) are written with plain JDBC, which
+ * Hibernate does not see, so neither the entity region nor the cached query
+ * results would notice them. Single-row changes go through JPA, which keeps
+ * the regions current itself.
+ * 
+ * @author SwissPine Engineering Team
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecondLevelCacheInvalidator {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMasterDataChanged(MasterDataChangedEvent event) {
+        if (event.isSingleRow()) {
+            return;
+        }
+        entityManagerFactory.getCache().evict(entityClass(event.type()));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        log.debug("Evicted second-level cache for {}", event.type());
+    }
+
+    /**
+     * Drop the given rows of a type and the cached query results, for rows
+     * another replica changed.
+     */
+    public void evict(MasterDataType type, Collection<Long> ids) {
+        Class<?> entity = entityClass(type);
+        Cache cache = entityManagerFactory.getCache();
+        ids.forEach(id -> cache.evict(entity, id));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+
+    static Class<?> entityClass(MasterDataType type) {
+        return switch (type) {
+            case SOURCE_NAME -> SourceName.class;
+            case RUN_NAME -> RunName.class;
+            case REPORT_TYPE -> ReportType.class;
+            case REPORT_NAME -> ReportName.class;
+            case FUND -> Fund.class;
+        };
+    }
+}
@@ -0,0 +1,256 @@
+package com.swisspine.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Times every JDBC statement executed through the application DataSource
+ * (see SqlStatementMetricsConfiguration) and records it per normalized SQL
+ * shape: literals and IN lists replaced by {@code ?}, whitespace collapsed.
+ *
+ * Each shape gets a {@code swisspine.sql.statement} timer (tag {@code shape},
+ * a short id of the text) with a latency histogram; all statements also feed
+ * {@code swisspine.sql.statements}. Statements slower than
+ * {@code swisspine.sql.slow-threshold-ms} are counted, logged without bind
+ * values and kept in a bounded list of the slowest shapes.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Component
+@Slf4j
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    /**
+     * Shape of statements recorded after the shape limit is reached.
+     */
+    static final String OTHER_SHAPE = "other";
+
+    private static final String START_NANOS = SqlStatementRecorder.class.getName() + ".start";
+    private static final int MAX_SHAPE_LENGTH = 1000;
+    private static final int MAX_CACHED_SQL = 2000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MeterRegistry meterRegistry;
+    private final Timer allStatements;
+    private final LongAdder slowStatementCount = new LongAdder();
+
+    /**
+     * Shapes by normalized text; bounded by maxShapes.
+     */
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    /**
+     * Raw SQL to its shape, so repeated prepared statements skip normalization.
+     */
+    private final Map<String, Shape> shapesBySql = new ConcurrentHashMap<>();
+
+    /**
+     * Slowest execution per shape, at most slowestStatements entries.
+     */
+    private final Map<String, SlowStatement> slowest = new HashMap<>();
+
+    @Value("${swisspine.sql.slow-threshold-ms:500}")
+    private long slowThresholdMs = 500;
+
+    @Value("${swisspine.sql.slowest-statements:20}")
+    private int slowestStatements = 20;
+
+    @Value("${swisspine.sql.max-shapes:500}")
+    private int maxShapes = 500;
+
+    public SqlStatementRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.allStatements = Timer.builder("swisspine.sql.statements")
+                .description("JDBC statement execution time")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * A normalized SQL shape and its timer.
+     */
+    public record Shape(String id, String sql, Timer timer) {
+
+        public double p95(TimeUnit unit) {
+            return SqlStatementRecorder.p95(timer, unit);
+        }
+    }
+
+    /**
+     * Slowest recorded execution of a shape.
+     */
+    public record SlowStatement(String shapeId, String sql, double elapsedMs, Instant executedAt) {
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        // A batch runs one prepared statement; its first query names the shape
+        record(queryInfoList.get(0).getQuery(), System.nanoTime() - start);
+    }
+
+    /**
+     * Record one execution of the given SQL.
+     */
+    public void record(String sql, long elapsedNanos) {
+        Shape shape = shapeOf(sql);
+        shape.timer().record(elapsedNanos, TimeUnit.NANOSECONDS);
+        allStatements.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        double elapsedMs = elapsedNanos / 1_000_000.0;
+        if (elapsedMs >= slowThresholdMs) {
+            slowStatementCount.increment();
+            log.warn("Slow SQL statement ({} ms, shape {}): {}", Math.round(elapsedMs), shape.id(), shape.sql());
+            rememberSlow(new SlowStatement(shape.id(), shape.sql(), elapsedMs, Instant.now()));
+        }
+    }
+
+    /**
+     * Timer over all statements.
+     */
+    public Timer allStatements() {
+        return allStatements;
+    }
+
+    public long slowStatementCount() {
+        return slowStatementCount.sum();
+    }
+
+    public Collection<Shape> shapes() {
+        return shapes.values();
+    }
+
+    /**
+     * Slowest executions, slowest first, one per shape.
+     */
+    public List<SlowStatement> slowestStatements() {
+        List<SlowStatement> result;
+        synchronized (slowest) {
+            result = new ArrayList<>(slowest.values());
+        }
+        result.sort(Comparator.comparingDouble(SlowStatement::elapsedMs).reversed());
+        return result;
+    }
+
+    /**
+     * SQL text without literals or bind values: string and numeric literals
+     * and IN lists become {@code ?}, whitespace collapses to single spaces.
+     */
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+
+    /**
+     * 95th percentile of a timer's histogram, 0 when not yet recorded.
+     */
+    static double p95(Timer timer, TimeUnit unit) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.95) {
+                return value.value(unit);
+            }
+        }
+        return 0.0;
+    }
+
+    private Shape shapeOf(String sql) {
+        Shape cached = shapesBySql.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String text = normalize(sql);
+        Shape shape = shapes.get(text);
+        if (shape == null) {
+            shape = shapes.size() < maxShapes
+                    ? shapes.computeIfAbsent(text, key -> newShape(shapeId(key), key))
+                    : shapes.computeIfAbsent(OTHER_SHAPE, key -> newShape(OTHER_SHAPE, "(other statements)"));
+        }
+        if (shapesBySql.size() < MAX_CACHED_SQL) {
+            shapesBySql.put(sql, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * Stable short id of a shape text, used as the metric tag.
+     */
+    static String shapeId(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Shape newShape(String id, String text) {
+        Timer timer = Timer.builder("swisspine.sql.statement")
+                .description("JDBC statement execution time per SQL shape")
+                .tag("shape", id)
+                .publishPercentiles(0.95)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return new Shape(id, text, timer);
+    }
+
+    private void rememberSlow(SlowStatement statement) {
+        synchronized (slowest) {
+            SlowStatement previous = slowest.get(statement.shapeId());
+            if (previous != null) {
+                if (statement.elapsedMs() > previous.elapsedMs()) {
+                    slowest.put(statement.shapeId(), statement);
+                }
+                return;
+            }
+            if (slowest.size() >= slowestStatements) {
+                SlowStatement fastest = slowest.values().stream()
+                        .min(Comparator.comparingDouble(SlowStatement::elapsedMs))
+                        .orElseThrow();
+                if (fastest.elapsedMs() >= statement.elapsedMs()) {
+                    return;
+                }
+                slowest.remove(fastest.shapeId());
+            }
+            slowest.put(statement.shapeId(), statement);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.swisspine.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.swisspine.dto.PerformanceStatisticsDTO;
-import com.swisspine.repository.*;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.HikariPoolMXBean;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -10,49 +11,140 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.SessionFactory;
 import org.hibernate.stat.Statistics;
-import org.springframework.boot.info.BuildProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.persistence.EntityManagerFactory;
+import javax.cache.CacheManager;
 import javax.sql.DataSource;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.ThreadMXBean;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Performance statistics for the dashboard.
+ *
+ * Statistics are sampled in the background every
+ * {@code swisspine.statistics.sample-interval} and requests are served the
+ * latest sample, so polling the dashboard adds no load to the database it
+ * monitors. Table sizes come from one catalog query; only tables estimated
+ * below {@code swisspine.statistics.exact-count-threshold} rows are counted
+ * exactly. Live samples for the statistics stream reuse the table sizes of
+ * the latest background sample and read only in-memory sources.
+ *
+ * @author SwissPine Engineering Team
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StatisticsService {
 
+    /**
+     * Record count keys of the dashboard and the tables they count.
+     */
+    static final Map<String, String> RECORD_TABLES = recordTables();
+
+    private static final String ESTIMATE_SQL = "SELECT c.relname AS table_name, "
+            + "COALESCE(NULLIF(s.n_live_tup, 0), GREATEST(c.reltuples, 0)::bigint) AS estimate "
+            + "FROM pg_class c LEFT JOIN pg_stat_user_tables s ON s.relid = c.oid "
+            + "WHERE c.oid IN (" + String.join(", ",
+                    RECORD_TABLES.values().stream().map(table -> "'" + table + "'::regclass").toList()) + ")";
+
+    /**
+     * SQL shapes listed in topStatements.
+     */
+    static final int TOP_STATEMENTS = 10;
+
     private final EntityManagerFactory entityManagerFactory;
     private final DataSource dataSource;
     private final MeterRegistry meterRegistry;
-    private final PlannerRepository plannerRepository;
-    private final ExternalConnectionRepository externalConnectionRepository;
-    private final FundRepository fundRepository;
-    private final FundAliasRepository fundAliasRepository;
-    private final SourceNameRepository sourceNameRepository;
-    private final RunNameRepository runNameRepository;
-    private final ReportTypeRepository reportTypeRepository;
-    private final ReportNameRepository reportNameRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager hibernateCacheManager;
+    private final SqlStatementRecorder sqlStatementRecorder;
+    private final EndpointStatisticsCollector endpointStatisticsCollector;
+
+    /**
+     * Largest estimated table size that is still counted exactly.
+     */
+    @Value("${swisspine.statistics.exact-count-threshold:10000}")
+    private long exactCountThreshold = 10000;
+
+    private final AtomicReference<PerformanceStatisticsDTO> latestSample = new AtomicReference<>();
 
     private final long startTime = System.currentTimeMillis();
 
     /**
-     * Collect and aggregate performance statistics from all sources.
+     * Latest statistics sample with its age in milliseconds. Collected
+     * synchronously only when no sample has been taken yet.
      */
     public PerformanceStatisticsDTO getPerformanceStatistics() {
-        log.debug("Collecting performance statistics");
+        PerformanceStatisticsDTO sample = latestSample.get();
+        if (sample == null) {
+            sample = sample();
+        }
+        return sample.toBuilder()
+                .ageMs(Math.max(0, Duration.between(sample.getTimestamp(), Instant.now()).toMillis()))
+                .build();
+    }
+
+    /**
+     * Collect and aggregate performance statistics from all sources and make
+     * them the latest sample.
+     */
+    @Scheduled(fixedDelayString = "${swisspine.statistics.sample-interval:PT15S}")
+    public PerformanceStatisticsDTO sample() {
+        log.debug("Sampling performance statistics");
+
+        PerformanceStatisticsDTO sample = meterRegistry.timer("swisspine.statistics.sample").record(() -> {
+            Map<String, Long> totalRecords = new HashMap<>();
+            TreeSet<String> estimatedRecords = new TreeSet<>();
+            countRecords(totalRecords, estimatedRecords);
+            return collect(totalRecords, estimatedRecords);
+        });
+        latestSample.set(sample);
+        return sample;
+    }
 
+    /**
+     * Current statistics without querying the database: record counts of the
+     * latest background sample (empty before the first one), everything else
+     * read fresh. Does not replace the latest sample.
+     */
+    public PerformanceStatisticsDTO liveSample() {
+        PerformanceStatisticsDTO latest = latestSample.get();
+        if (latest == null || latest.getDatabase() == null) {
+            return collect(Map.of(), Set.of());
+        }
+        return collect(latest.getDatabase().getTotalRecords(), latest.getDatabase().getEstimatedRecords());
+    }
+
+    private PerformanceStatisticsDTO collect(Map<String, Long> totalRecords, Set<String> estimatedRecords) {
         return PerformanceStatisticsDTO.builder()
                 .timestamp(Instant.now())
                 .uptime(calculateUptime())
-                .database(collectDatabaseStatistics())
-                .endpoints(collectEndpointStatistics())
+                .database(PerformanceStatisticsDTO.DatabaseStatistics.builder()
+                        .totalRecords(totalRecords)
+                        .estimatedRecords(estimatedRecords)
+                        .queryStats(collectQueryStatistics())
+                        .connectionPool(collectConnectionPoolStatistics())
+                        .build())
+                .endpoints(endpointStatisticsCollector.collect())
                 .jvm(collectJvmStatistics())
                 .build();
     }
@@ -65,33 +157,48 @@ public class StatisticsService {
         return String.format("%dh %dm %ds", hours, minutes, seconds);
     }
 
-    private PerformanceStatisticsDTO.DatabaseStatistics collectDatabaseStatistics() {
-        Map<String, Long> totalRecords = new HashMap<>();
-        totalRecords.put("planners", plannerRepository.count());
-        totalRecords.put("funds", fundRepository.count());
-        totalRecords.put("externalConnections", externalConnectionRepository.count());
-        totalRecords.put("fundAliases", fundAliasRepository.count());
-        totalRecords.put("sourceNames", sourceNameRepository.count());
-        totalRecords.put("runNames", runNameRepository.count());
-        totalRecords.put("reportTypes", reportTypeRepository.count());
-        totalRecords.put("reportNames", reportNameRepository.count());
-
-        return PerformanceStatisticsDTO.DatabaseStatistics.builder()
-                .totalRecords(totalRecords)
-                .queryStats(collectQueryStatistics())
-                .connectionPool(collectConnectionPoolStatistics())
-                .build();
+    private void countRecords(Map<String, Long> totalRecords, Set<String> estimatedRecords) {
+        try {
+            Map<String, Long> estimates = new HashMap<>();
+            for (Map<String, Object> row : jdbcTemplate.queryForList(ESTIMATE_SQL)) {
+                estimates.put((String) row.get("table_name"), ((Number) row.get("estimate")).longValue());
+            }
+            RECORD_TABLES.forEach((key, table) -> {
+                Long estimate = estimates.get(table);
+                if (estimate != null && estimate > exactCountThreshold) {
+                    totalRecords.put(key, estimate);
+                    estimatedRecords.add(key);
+                } else {
+                    // Small or never analyzed: an exact count is cheap
+                    totalRecords.put(key, jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Unable to collect record counts: {}", e.getMessage());
+        }
     }
 
     private PerformanceStatisticsDTO.QueryStatistics collectQueryStatistics() {
+        Timer statements = sqlStatementRecorder.allStatements();
+        PerformanceStatisticsDTO.QueryStatistics.QueryStatisticsBuilder builder =
+                PerformanceStatisticsDTO.QueryStatistics.builder()
+                        .avgExecutionTime(statements.mean(TimeUnit.MILLISECONDS))
+                        .p95ExecutionTime(SqlStatementRecorder.p95(statements, TimeUnit.MILLISECONDS))
+                        .slowQueries((int) Math.min(Integer.MAX_VALUE, sqlStatementRecorder.slowStatementCount()))
+                        .totalQueries(statements.count())
+                        .topStatements(collectTopStatements())
+                        .slowestStatements(sqlStatementRecorder.slowestStatements().stream()
+                                .map(slow -> PerformanceStatisticsDTO.SlowStatement.builder()
+                                        .shape(slow.shapeId())
+                                        .sql(slow.sql())
+                                        .executionTime(slow.elapsedMs())
+                                        .executedAt(slow.executedAt())
+                                        .build())
+                                .toList());
         try {
             SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
             Statistics stats = sessionFactory.getStatistics();
 
-            long queryCount = stats.getQueryExecutionCount();
-            long queryTime = stats.getQueryExecutionMaxTime();
-            double avgTime = queryCount > 0 ? (double) queryTime / queryCount : 0.0;
-
             // Calculate cache hit rate
             long hitCount = stats.getSecondLevelCacheHitCount();
             long missCount = stats.getSecondLevelCacheMissCount();
@@ -99,26 +206,65 @@ public class StatisticsService {
                     ? (double) hitCount / (hitCount + missCount) * 100
                     : 0.0;
 
-            return PerformanceStatisticsDTO.QueryStatistics.builder()
-                    .avgExecutionTime(avgTime)
-                    .slowQueries(0) // Will be enhanced later with actual slow query detection
-                    .totalQueries(queryCount)
+            return builder
                     .cacheHitRate(cacheHitRate)
+                    .cacheRegions(collectCacheRegionStatistics())
                     .build();
         } catch (Exception e) {
             log.warn("Unable to collect query statistics: {}", e.getMessage());
-            return PerformanceStatisticsDTO.QueryStatistics.builder()
-                    .avgExecutionTime(0.0)
-                    .slowQueries(0)
-                    .totalQueries(0L)
-                    .cacheHitRate(0.0)
-                    .build();
+            return builder.cacheHitRate(0.0).build();
+        }
+    }
+
+    /**
+     * SQL shapes with the highest total execution time.
+     */
+    private List<PerformanceStatisticsDTO.StatementStatistics> collectTopStatements() {
+        return sqlStatementRecorder.shapes().stream()
+                .filter(shape -> shape.timer().count() > 0)
+                .sorted(Comparator.comparingDouble(
+                        (SqlStatementRecorder.Shape shape) -> shape.timer().totalTime(TimeUnit.MILLISECONDS))
+                        .reversed())
+                .limit(TOP_STATEMENTS)
+                .map(shape -> PerformanceStatisticsDTO.StatementStatistics.builder()
+                        .shape(shape.id())
+                        .sql(shape.sql())
+                        .count(shape.timer().count())
+                        .totalTime(shape.timer().totalTime(TimeUnit.MILLISECONDS))
+                        .avgTime(shape.timer().mean(TimeUnit.MILLISECONDS))
+                        .p95Time(shape.p95(TimeUnit.MILLISECONDS))
+                        .maxTime(shape.timer().max(TimeUnit.MILLISECONDS))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Per-region statistics of the second-level cache, keyed by entity simple
+     * name or query region name. Eviction counts come from Caffeine, which
+     * Hibernate's own region statistics do not expose.
+     */
+    private Map<String, PerformanceStatisticsDTO.CacheRegionStatistics> collectCacheRegionStatistics() {
+        Map<String, PerformanceStatisticsDTO.CacheRegionStatistics> regions = new TreeMap<>();
+        for (String name : hibernateCacheManager.getCacheNames()) {
+            Cache<?, ?> cache = hibernateCacheManager.getCache(name).unwrap(Cache.class);
+            CacheStats stats = cache.stats();
+            regions.put(name.substring(name.lastIndexOf('.') + 1),
+                    PerformanceStatisticsDTO.CacheRegionStatistics.builder()
+                            .size(cache.estimatedSize())
+                            .hitCount(stats.hitCount())
+                            .missCount(stats.missCount())
+                            .evictionCount(stats.evictionCount())
+                            .hitRate(stats.requestCount() > 0 ? stats.hitRate() * 100 : 0.0)
+                            .build());
         }
+        return regions;
     }
 
     private PerformanceStatisticsDTO.ConnectionPoolStatistics collectConnectionPoolStatistics() {
         try {
-            if (dataSource instanceof HikariDataSource hikariDataSource) {
+            // The pool sits behind the statement-timing proxy
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikariDataSource = dataSource.unwrap(HikariDataSource.class);
                 HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
                 return PerformanceStatisticsDTO.ConnectionPoolStatistics.builder()
                         .active(poolMXBean.getActiveConnections())
@@ -135,52 +281,6 @@ public class StatisticsService {
                 .active(0).idle(0).max(0).waiting(0).build();
     }
 
-    private Map<String, PerformanceStatisticsDTO.EndpointStatistics> collectEndpointStatistics() {
-        Map<String, PerformanceStatisticsDTO.EndpointStatistics> endpointStats = new HashMap<>();
-
-        // Collect metrics for our main endpoints with HTTP method classification
-        String[] endpoints = {
-                "/api/planners",
-                "/api/planners/{id}",
-                "/api/external-connections",
-                "/api/external-connections/{id}",
-                "/api/master-data/funds",
-                "/api/statistics/performance"
-        };
-
-        String[] methods = { "GET", "POST", "PUT", "DELETE" };
-
-        for (String endpoint : endpoints) {
-            for (String method : methods) {
-                try {
-                    Timer timer = meterRegistry.find("http.server.requests")
-                            .tag("uri", endpoint)
-                            .tag("method", method) // Add method tag for separation
-                            .timer();
-
-                    if (timer != null && timer.count() > 0) {
-                        double avgTime = timer.mean(java.util.concurrent.TimeUnit.MILLISECONDS);
-                        double p95Time = timer.percentile(0.95, java.util.concurrent.TimeUnit.MILLISECONDS);
-                        long count = timer.count();
-
-                        // Use "METHOD /path" as the key for better clarity
-                        String key = method + " " + endpoint;
-                        endpointStats.put(key, PerformanceStatisticsDTO.EndpointStatistics.builder()
-                                .avgResponseTime(avgTime)
-                                .p95ResponseTime(p95Time)
-                                .requestCount(count)
-                                .errorRate(0.0) // Will be enhanced with actual error tracking
-                                .build());
-                    }
-                } catch (Exception e) {
-                    log.debug("Unable to collect stats for {} {}: {}", method, endpoint, e.getMessage());
-                }
-            }
-        }
-
-        return endpointStats;
-    }
-
     private PerformanceStatisticsDTO.JvmStatistics collectJvmStatistics() {
         MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
         ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
@@ -199,4 +299,17 @@ public class StatisticsService {
                 .threadCount(threadMXBean.getThreadCount())
                 .build();
     }
+
+    private static Map<String, String> recordTables() {
+        Map<String, String> tables = new LinkedHashMap<>();
+        tables.put("planners", "planners");
+        tables.put("funds", "funds");
+        tables.put("externalConnections", "external_connections");
+        tables.put("fundAliases", "fund_aliases");
+        tables.put("sourceNames", "source_names");
+        tables.put("runNames", "run_names");
+        tables.put("reportTypes", "report_types");
+        tables.put("reportNames", "report_names");
+        return Collections.unmodifiableMap(tables);
+    }
 }
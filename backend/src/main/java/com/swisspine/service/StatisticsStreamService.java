@@ -0,0 +1,273 @@
+package com.swisspine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live performance statistics over Server-Sent Events.
+ *
+ * While clients are connected, one live statistics sample is taken every
+ * {@code swisspine.statistics.stream.interval} and serialized once for all of
+ * them. Live samples read in-memory sources only; record counts are those of
+ * the latest background sample. A new client first receives the last full
+ * sample as a {@code snapshot} event, then every tick a {@code delta} event
+ * holding a JSON merge patch (RFC 7386) of the fields that changed.
+ * Heartbeat comments keep idle connections open.
+ *
+ * Each client has a queue of {@code swisspine.statistics.stream.queue-capacity}
+ * events drained on its own sender task, so a stalled client never delays
+ * the others; a client whose queue overflows is disconnected. Emitter
+ * methods block while another thread sends on the same emitter, so they are
+ * only called from sender tasks, never from the scheduled methods or while
+ * holding this service's monitor.
+ *
+ * @author SwissPine Engineering Team
+ */
+@Service
+@Slf4j
+public class StatisticsStreamService {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DELTA_EVENT = "delta";
+
+    private final StatisticsService statisticsService;
+    private final ObjectMapper objectMapper;
+    private final Executor senders;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Last sample and its sequence number; guarded by this
+    private JsonNode lastSnapshot;
+    private String lastSnapshotJson;
+    private long sequence;
+
+    @Value("${swisspine.statistics.stream.queue-capacity:8}")
+    private int queueCapacity = 8;
+
+    @Autowired
+    public StatisticsStreamService(StatisticsService statisticsService, ObjectMapper objectMapper) {
+        this(statisticsService, objectMapper, Executors.newCachedThreadPool(new SenderThreadFactory()));
+    }
+
+    StatisticsStreamService(StatisticsService statisticsService, ObjectMapper objectMapper, Executor senders) {
+        this.statisticsService = statisticsService;
+        this.objectMapper = objectMapper;
+        this.senders = senders;
+    }
+
+    /**
+     * One queued SSE event: a named JSON payload, or a comment when name is null.
+     */
+    record StreamEvent(String id, String name, String data) {
+    }
+
+    /**
+     * Register a new client; it receives the last snapshot, if any, right away.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter();
+        register(emitter);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        synchronized (this) {
+            subscribers.add(subscriber);
+            if (lastSnapshotJson != null) {
+                enqueue(subscriber, new StreamEvent(Long.toString(sequence), SNAPSHOT_EVENT, lastSnapshotJson));
+            }
+        }
+        log.debug("Statistics stream client connected ({} total)", subscribers.size());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Take one sample for all connected clients and send each the fields
+     * that changed since the previous tick. Does nothing without clients.
+     */
+    @Scheduled(fixedDelayString = "${swisspine.statistics.stream.interval:PT2S}")
+    public void tick() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        JsonNode snapshot = objectMapper.valueToTree(statisticsService.liveSample());
+        String snapshotJson = snapshot.toString();
+
+        synchronized (this) {
+            sequence++;
+            String id = Long.toString(sequence);
+            StreamEvent event = lastSnapshot == null
+                    ? new StreamEvent(id, SNAPSHOT_EVENT, snapshotJson)
+                    : new StreamEvent(id, DELTA_EVENT, mergePatch(lastSnapshot, snapshot).toString());
+            lastSnapshot = snapshot;
+            lastSnapshotJson = snapshotJson;
+            for (Subscriber subscriber : subscribers) {
+                enqueue(subscriber, event);
+            }
+        }
+    }
+
+    /**
+     * Send an SSE comment to every client, so proxies keep idle connections
+     * open and broken ones are detected.
+     */
+    @Scheduled(fixedRateString = "${swisspine.statistics.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        StreamEvent heartbeat = new StreamEvent(null, null, "heartbeat");
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, heartbeat);
+        }
+    }
+
+    /**
+     * JSON merge patch turning {@code previous} into {@code current}: changed
+     * and new fields with their new value, removed fields as null, nested
+     * objects patched recursively.
+     */
+    static ObjectNode mergePatch(JsonNode previous, JsonNode current) {
+        ObjectNode patch = JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode before = previous.get(field.getKey());
+            JsonNode after = field.getValue();
+            if (before != null && before.isObject() && after.isObject()) {
+                ObjectNode nested = mergePatch(before, after);
+                if (!nested.isEmpty()) {
+                    patch.set(field.getKey(), nested);
+                }
+            } else if (!after.equals(before)) {
+                patch.set(field.getKey(), after);
+            }
+        }
+        Iterator<String> previousNames = previous.fieldNames();
+        while (previousNames.hasNext()) {
+            String name = previousNames.next();
+            if (!current.has(name)) {
+                patch.putNull(name);
+            }
+        }
+        return patch;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue an event and make sure a sender task is running. A client whose
+     * queue is full is closed here and completed by its sender task.
+     */
+    private void enqueue(Subscriber subscriber, StreamEvent event) {
+        if (subscriber.closed().get()) {
+            return;
+        }
+        if (!subscriber.queue().offer(event)) {
+            log.info("Dropping statistics stream client: {} events queued", queueCapacity);
+            close(subscriber);
+        }
+        if (subscriber.sending().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Stop streaming to a client without touching its emitter.
+     */
+    private void close(Subscriber subscriber) {
+        subscriber.closed().set(true);
+        subscribers.remove(subscriber);
+        subscriber.queue().clear();
+    }
+
+    /**
+     * Send queued events until the queue is empty, or complete the emitter
+     * once the client is closed; runs on a sender thread, at most once per
+     * subscriber at a time.
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            StreamEvent event;
+            while (!subscriber.closed().get() && (event = subscriber.queue().poll()) != null) {
+                try {
+                    subscriber.emitter().send(toSse(event));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Statistics stream client gone: {}", e.getMessage());
+                    close(subscriber);
+                    subscriber.emitter().completeWithError(e);
+                    return;
+                }
+            }
+            if (subscriber.closed().get()) {
+                // Keeps the sending flag set, so no further task is started
+                subscriber.emitter().complete();
+                return;
+            }
+            subscriber.sending().set(false);
+            // An event queued, or the client closed, after the checks above but
+            // before the flag was cleared
+        } while ((!subscriber.queue().isEmpty() || subscriber.closed().get())
+                && subscriber.sending().compareAndSet(false, true));
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(StreamEvent event) {
+        if (event.name() == null) {
+            return SseEmitter.event().comment(event.data());
+        }
+        return SseEmitter.event().id(event.id()).name(event.name()).data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private record Subscriber(SseEmitter emitter, BlockingQueue<StreamEvent> queue, AtomicBoolean sending,
+            AtomicBoolean closed) {
+
+        Subscriber(SseEmitter emitter, BlockingQueue<StreamEvent> queue) {
+            this(emitter, queue, new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "statistics-stream-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Flyway Migration: Planner Keyset Pagination Indexes
+-- Version: V3
+-- Description: Composite indexes matching the (created_at DESC, id DESC) keyset order
+
+-- Serves unfiltered keyset pages; supersedes the single-column created_at index
+CREATE INDEX idx_planner_created_id ON planners(created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_planner_created;
+
+-- Serves keyset pages filtered by status
+CREATE INDEX idx_planner_status_created_id ON planners(status, created_at DESC, id DESC);
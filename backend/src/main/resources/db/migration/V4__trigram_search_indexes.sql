@@ -0,0 +1,22 @@
+-- Flyway Migration: Trigram Search Indexes
+-- Version: V4
+-- Description: Index-backed substring search on planner and connection names
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ============================================
+-- Substring search (terms of 3+ characters)
+-- ============================================
+
+-- Serve LOWER(column) LIKE '%term%' and similarity ranking
+CREATE INDEX idx_planner_name_trgm ON planners USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX idx_planner_description_trgm ON planners USING gin (LOWER(description) gin_trgm_ops);
+CREATE INDEX idx_ext_conn_name_trgm ON external_connections USING gin (LOWER(name) gin_trgm_ops);
+
+-- ============================================
+-- Prefix search (terms shorter than 3 characters)
+-- ============================================
+
+-- Terms that yield no trigrams fall back to LOWER(column) LIKE 'term%'
+CREATE INDEX idx_planner_name_prefix ON planners (LOWER(name) text_pattern_ops);
+CREATE INDEX idx_ext_conn_name_prefix ON external_connections (LOWER(name) text_pattern_ops);
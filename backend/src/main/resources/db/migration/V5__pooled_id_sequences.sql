@@ -0,0 +1,27 @@
+-- Flyway Migration: Pooled ID Sequences
+-- Version: V5
+-- Description: Sequence increments matching Hibernate's pooled id allocation
+--
+-- BaseEntity now uses GenerationType.SEQUENCE with Hibernate's pooled
+-- optimizer and an allocation size of 50 (BaseEntity.ID_ALLOCATION_SIZE),
+-- drawing from the sequences that already back the BIGSERIAL columns.
+-- The pooled optimizer treats each nextval() as the upper end of a block
+-- of 50 ids, so the sequences must increment by the same amount.
+--
+-- Existing rows are untouched: the next nextval() returns last_value + 50
+-- and Hibernate uses (last_value, last_value + 50], which starts right
+-- after the highest id already issued. The column DEFAULT nextval(...) is
+-- kept, so plain SQL inserts still work; they simply consume a whole block.
+
+ALTER SEQUENCE source_names_id_seq INCREMENT BY 50;
+ALTER SEQUENCE run_names_id_seq INCREMENT BY 50;
+ALTER SEQUENCE report_types_id_seq INCREMENT BY 50;
+ALTER SEQUENCE report_names_id_seq INCREMENT BY 50;
+ALTER SEQUENCE funds_id_seq INCREMENT BY 50;
+ALTER SEQUENCE fund_aliases_id_seq INCREMENT BY 50;
+ALTER SEQUENCE external_connections_id_seq INCREMENT BY 50;
+ALTER SEQUENCE planners_id_seq INCREMENT BY 50;
+ALTER SEQUENCE planner_funds_id_seq INCREMENT BY 50;
+ALTER SEQUENCE planner_sources_id_seq INCREMENT BY 50;
+ALTER SEQUENCE planner_runs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE planner_reports_id_seq INCREMENT BY 50;
@@ -0,0 +1,105 @@
+-- Flyway Migration: Planner Aggregates
+-- Version: V6
+-- Description: Summary table of planner counts by status, planner type and
+--              external connection, maintained incrementally by triggers
+--
+-- Reads are O(number of groups). Statement-level triggers with transition
+-- tables fold every INSERT/UPDATE/DELETE statement into one delta per group,
+-- so a multi-row batch insert costs one upsert per touched group rather
+-- than one per row.
+
+CREATE TABLE planner_aggregates (
+    dimension VARCHAR(20) NOT NULL,          -- 'status', 'planner_type' or 'connection'
+    group_key VARCHAR(255) NOT NULL,         -- group value; '' when the planner column is NULL
+    planner_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_planner_aggregates PRIMARY KEY (dimension, group_key)
+);
+
+-- Backfill from existing planners
+INSERT INTO planner_aggregates (dimension, group_key, planner_count)
+SELECT 'status', status, COUNT(*) FROM planners GROUP BY status
+UNION ALL
+SELECT 'planner_type', COALESCE(planner_type, ''), COUNT(*) FROM planners GROUP BY COALESCE(planner_type, '')
+UNION ALL
+SELECT 'connection', COALESCE(external_system_config_id::text, ''), COUNT(*) FROM planners
+GROUP BY COALESCE(external_system_config_id::text, '');
+
+-- ============================================
+-- TRIGGERS
+-- ============================================
+
+-- Applies +1 for every row in new_rows and -1 for every row in old_rows.
+-- For updates, unchanged columns cancel out and are skipped by HAVING.
+-- Rows are upserted in key order so concurrent statements lock groups in
+-- the same order and cannot deadlock on each other.
+CREATE OR REPLACE FUNCTION maintain_planner_aggregates()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO planner_aggregates (dimension, group_key, planner_count)
+        SELECT d.dimension, d.group_key, SUM(d.delta)
+        FROM (
+            SELECT 'status' AS dimension, status AS group_key, 1 AS delta FROM new_rows
+            UNION ALL SELECT 'planner_type', COALESCE(planner_type, ''), 1 FROM new_rows
+            UNION ALL SELECT 'connection', COALESCE(external_system_config_id::text, ''), 1 FROM new_rows
+        ) d
+        GROUP BY d.dimension, d.group_key
+        ORDER BY d.dimension, d.group_key
+        ON CONFLICT (dimension, group_key)
+        DO UPDATE SET planner_count = planner_aggregates.planner_count + EXCLUDED.planner_count;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO planner_aggregates (dimension, group_key, planner_count)
+        SELECT d.dimension, d.group_key, SUM(d.delta)
+        FROM (
+            SELECT 'status' AS dimension, status AS group_key, -1 AS delta FROM old_rows
+            UNION ALL SELECT 'planner_type', COALESCE(planner_type, ''), -1 FROM old_rows
+            UNION ALL SELECT 'connection', COALESCE(external_system_config_id::text, ''), -1 FROM old_rows
+        ) d
+        GROUP BY d.dimension, d.group_key
+        ORDER BY d.dimension, d.group_key
+        ON CONFLICT (dimension, group_key)
+        DO UPDATE SET planner_count = planner_aggregates.planner_count + EXCLUDED.planner_count;
+    ELSE
+        INSERT INTO planner_aggregates (dimension, group_key, planner_count)
+        SELECT d.dimension, d.group_key, SUM(d.delta)
+        FROM (
+            SELECT 'status' AS dimension, status AS group_key, 1 AS delta FROM new_rows
+            UNION ALL SELECT 'planner_type', COALESCE(planner_type, ''), 1 FROM new_rows
+            UNION ALL SELECT 'connection', COALESCE(external_system_config_id::text, ''), 1 FROM new_rows
+            UNION ALL SELECT 'status', status, -1 FROM old_rows
+            UNION ALL SELECT 'planner_type', COALESCE(planner_type, ''), -1 FROM old_rows
+            UNION ALL SELECT 'connection', COALESCE(external_system_config_id::text, ''), -1 FROM old_rows
+        ) d
+        GROUP BY d.dimension, d.group_key
+        HAVING SUM(d.delta) <> 0
+        ORDER BY d.dimension, d.group_key
+        ON CONFLICT (dimension, group_key)
+        DO UPDATE SET planner_count = planner_aggregates.planner_count + EXCLUDED.planner_count;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables require one trigger per event
+CREATE TRIGGER planner_aggregates_insert AFTER INSERT ON planners
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION maintain_planner_aggregates();
+
+CREATE TRIGGER planner_aggregates_update AFTER UPDATE ON planners
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION maintain_planner_aggregates();
+
+CREATE TRIGGER planner_aggregates_delete AFTER DELETE ON planners
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION maintain_planner_aggregates();
+
+CREATE OR REPLACE FUNCTION reset_planner_aggregates()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM planner_aggregates;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER planner_aggregates_truncate AFTER TRUNCATE ON planners
+    FOR EACH STATEMENT EXECUTE FUNCTION reset_planner_aggregates();
@@ -0,0 +1,130 @@
+-- Flyway Migration: Change Notifications
+-- Version: V7
+-- Description: pg_notify on master-data changes, so every backend replica
+--              can drop the affected entries of its in-process caches
+--
+-- Statement-level triggers send one notification per statement on channel
+-- 'swisspine_changes' (delivered at commit, dropped on rollback):
+--
+--   {"table": "funds", "op": "INSERT", "node": "<application_name>",
+--    "rows": [{"id": 1, "name": "Alpha"}, ...]}
+--
+-- "node" is the writer's application_name, so a replica can skip the changes
+-- it made itself. "rows" is left out for statements touching more than 100
+-- rows, for TRUNCATE, and whenever the payload would exceed the 8000-byte
+-- NOTIFY limit; listeners then reload the whole table.
+--
+-- Planners and external connections keep no in-process state (their ETags
+-- are read from the database), so they are not notified.
+
+CREATE OR REPLACE FUNCTION notify_table_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    payload JSONB;
+    changed_count BIGINT;
+    changed JSONB;
+BEGIN
+    payload := jsonb_build_object(
+        'table', TG_TABLE_NAME,
+        'op', TG_OP,
+        'node', current_setting('application_name'));
+
+    IF TG_OP = 'TRUNCATE' THEN
+        PERFORM pg_notify('swisspine_changes', payload::text);
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'DELETE' THEN
+        SELECT COUNT(*), jsonb_agg(jsonb_strip_nulls(jsonb_build_object('id', r.id, 'name', to_jsonb(r) ->> 'name')))
+        INTO changed_count, changed
+        FROM (SELECT * FROM old_rows LIMIT 101) r;
+    ELSE
+        SELECT COUNT(*), jsonb_agg(jsonb_strip_nulls(jsonb_build_object('id', r.id, 'name', to_jsonb(r) ->> 'name')))
+        INTO changed_count, changed
+        FROM (SELECT * FROM new_rows LIMIT 101) r;
+    END IF;
+
+    -- Statement triggers also fire for statements that changed no row
+    IF changed_count = 0 THEN
+        RETURN NULL;
+    END IF;
+    IF changed_count <= 100 AND octet_length((payload || jsonb_build_object('rows', changed))::text) < 8000 THEN
+        payload := payload || jsonb_build_object('rows', changed);
+    END IF;
+    PERFORM pg_notify('swisspine_changes', payload::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables require one trigger per event
+CREATE TRIGGER notify_source_names_insert AFTER INSERT ON source_names
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_source_names_update AFTER UPDATE ON source_names
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_source_names_delete AFTER DELETE ON source_names
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_source_names_truncate AFTER TRUNCATE ON source_names
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+
+CREATE TRIGGER notify_run_names_insert AFTER INSERT ON run_names
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_run_names_update AFTER UPDATE ON run_names
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_run_names_delete AFTER DELETE ON run_names
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_run_names_truncate AFTER TRUNCATE ON run_names
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+
+CREATE TRIGGER notify_report_types_insert AFTER INSERT ON report_types
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_report_types_update AFTER UPDATE ON report_types
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_report_types_delete AFTER DELETE ON report_types
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_report_types_truncate AFTER TRUNCATE ON report_types
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+
+CREATE TRIGGER notify_report_names_insert AFTER INSERT ON report_names
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_report_names_update AFTER UPDATE ON report_names
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_report_names_delete AFTER DELETE ON report_names
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_report_names_truncate AFTER TRUNCATE ON report_names
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+
+CREATE TRIGGER notify_funds_insert AFTER INSERT ON funds
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_funds_update AFTER UPDATE ON funds
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_funds_delete AFTER DELETE ON funds
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_funds_truncate AFTER TRUNCATE ON funds
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+
+CREATE TRIGGER notify_fund_aliases_insert AFTER INSERT ON fund_aliases
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_fund_aliases_update AFTER UPDATE ON fund_aliases
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_fund_aliases_delete AFTER DELETE ON fund_aliases
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+CREATE TRIGGER notify_fund_aliases_truncate AFTER TRUNCATE ON fund_aliases
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
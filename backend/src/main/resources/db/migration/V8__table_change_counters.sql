@@ -0,0 +1,73 @@
+-- Flyway Migration: Table Change Counters
+-- Version: V8
+-- Description: Per-table change counter for conditional GETs on planner and
+--              external connection lists
+--
+-- Statement-level triggers bump the counter of the table in the same
+-- statement as every INSERT, UPDATE, DELETE or TRUNCATE that changed rows,
+-- so list validators are read from a few primary-key rows instead of
+-- COUNT/MAX over the table.
+--
+-- Each table's counter is striped over 64 slots and a transaction bumps the
+-- slot picked by its transaction id. A bumped slot stays locked until the
+-- writing transaction ends, so readers never see a new counter with old
+-- rows, but concurrent writers only wait for each other when their
+-- transaction ids share a slot. The validator is the sum over all slots,
+-- which grows with every committed change.
+
+CREATE TABLE table_changes (
+    table_name VARCHAR(63) NOT NULL,
+    slot SMALLINT NOT NULL,
+    change_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_table_changes PRIMARY KEY (table_name, slot)
+);
+
+INSERT INTO table_changes (table_name, slot)
+SELECT t.table_name, s.slot
+FROM (VALUES ('planners'), ('external_connections')) AS t(table_name)
+CROSS JOIN generate_series(0, 63) AS s(slot);
+
+CREATE OR REPLACE FUNCTION count_table_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- Statement triggers also fire for statements that changed no row
+    IF TG_OP = 'DELETE' THEN
+        IF NOT EXISTS (SELECT 1 FROM old_rows) THEN
+            RETURN NULL;
+        END IF;
+    ELSIF TG_OP <> 'TRUNCATE' THEN
+        IF NOT EXISTS (SELECT 1 FROM new_rows) THEN
+            RETURN NULL;
+        END IF;
+    END IF;
+
+    UPDATE table_changes SET change_count = change_count + 1
+    WHERE table_name = TG_TABLE_NAME AND slot = txid_current() % 64;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables require one trigger per event
+CREATE TRIGGER planners_count_insert AFTER INSERT ON planners
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_table_change();
+CREATE TRIGGER planners_count_update AFTER UPDATE ON planners
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_table_change();
+CREATE TRIGGER planners_count_delete AFTER DELETE ON planners
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_table_change();
+CREATE TRIGGER planners_count_truncate AFTER TRUNCATE ON planners
+    FOR EACH STATEMENT EXECUTE FUNCTION count_table_change();
+
+CREATE TRIGGER external_connections_count_insert AFTER INSERT ON external_connections
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_table_change();
+CREATE TRIGGER external_connections_count_update AFTER UPDATE ON external_connections
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_table_change();
+CREATE TRIGGER external_connections_count_delete AFTER DELETE ON external_connections
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_table_change();
+CREATE TRIGGER external_connections_count_truncate AFTER TRUNCATE ON external_connections
+    FOR EACH STATEMENT EXECUTE FUNCTION count_table_change();
@@ -1,6 +1,7 @@
 package com.swisspine.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.common.ResourceVersion;
 import com.swisspine.dto.ExternalConnectionDTO;
 import com.swisspine.dto.PageableResponseDTO;
 import com.swisspine.service.ExternalConnectionService;
@@ -15,6 +16,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -66,6 +68,14 @@ class ExternalConnectionControllerTest {
                 .andExpect(jsonPath("$.name").value("Test Connection"));
     }
 
+    @Test
+    void getConnectionById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/external-connections/1")
+                .header("If-None-Match", "\"connection-1-v0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"connection-1-v0\""));
+    }
+
     @Test
     void createConnection_ShouldReturnCreated() throws Exception {
         mockMvc.perform(post("/api/external-connections")
@@ -108,11 +118,21 @@ class ExternalConnectionControllerTest {
             return PageableResponseDTO.<ExternalConnectionDTO>builder()
                     .content(Collections
                             .singletonList(ExternalConnectionDTO.builder().id(1L).name("Test Connection").build()))
-                    .totalElements(1)
+                    .totalElements(1L)
                     .totalPages(1)
                     .build();
         }
 
+        @Override
+        public ResourceVersion getListVersion() {
+            return ResourceVersion.ofChangeCount("connections", 1);
+        }
+
+        @Override
+        public ResourceVersion getVersion(Long id) {
+            return ResourceVersion.ofRow("connection", id, 0L, Instant.EPOCH);
+        }
+
         @Override
         public ExternalConnectionDTO findById(Long id) {
             return ExternalConnectionDTO.builder().id(id).name("Test Connection").build();
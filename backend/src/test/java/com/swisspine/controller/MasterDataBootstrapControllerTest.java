@@ -0,0 +1,80 @@
+package com.swisspine.controller;
+
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.service.MasterDataBootstrapService;
+import com.swisspine.service.MasterDataBootstrapService.BootstrapBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class MasterDataBootstrapControllerTest {
+
+    private static final byte[] JSON = "{\"funds\":[]}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIP = { 0x1f, (byte) 0x8b, 8, 0 };
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new MasterDataBootstrapController(new TestBootstrapService()))
+                .build();
+    }
+
+    @Test
+    void getBootstrap_ShouldReturnPlainJson_WhenGzipNotAccepted() throws Exception {
+        mockMvc.perform(get("/api/master-data/bootstrap"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"bootstrap-abc\""))
+                .andExpect(jsonPath("$.funds").isArray());
+    }
+
+    @Test
+    void getBootstrap_ShouldReturnGzippedBytes_WhenAccepted() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/master-data/bootstrap")
+                .header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("ETag", "\"bootstrap-abc-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(GZIP, body);
+    }
+
+    @Test
+    void getBootstrap_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/master-data/bootstrap")
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", "\"bootstrap-abc-gzip\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourZeroQuality() {
+        assertTrue(MasterDataBootstrapController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(MasterDataBootstrapController.acceptsGzip("gzip;q=0"));
+        assertFalse(MasterDataBootstrapController.acceptsGzip("identity"));
+        assertFalse(MasterDataBootstrapController.acceptsGzip(null));
+    }
+
+    // Manual Stub
+    static class TestBootstrapService extends MasterDataBootstrapService {
+        TestBootstrapService() {
+            super(null, null, null, new io.micrometer.core.instrument.simple.SimpleMeterRegistry());
+        }
+
+        @Override
+        public BootstrapBody getBootstrap() {
+            return new BootstrapBody(0, JSON, GZIP, new ResourceVersion("\"bootstrap-abc\"", Instant.EPOCH));
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.swisspine.controller;
 
+import com.swisspine.common.MasterDataType;
+import com.swisspine.common.ResourceVersion;
+import com.swisspine.dto.FundResolutionResultDTO;
+import com.swisspine.dto.FundSuggestionDTO;
 import com.swisspine.dto.MasterDataDTO;
+import com.swisspine.dto.PageableResponseDTO;
 import com.swisspine.service.MasterDataService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,10 +15,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -71,10 +81,111 @@ class MasterDataControllerTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void getAllFunds_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/master-data/funds")
+                .header("If-None-Match", "\"funds-1-0\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getAllFunds_ShouldReturnOk_WhenETagIsStale() throws Exception {
+        mockMvc.perform(get("/api/master-data/funds")
+                .header("If-None-Match", "\"funds-0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"funds-1-0\""))
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andExpect(jsonPath("$[0].name").value("Test Fund"));
+    }
+
+    @Test
+    void suggestFunds_ShouldReturnMatches() throws Exception {
+        mockMvc.perform(get("/api/master-data/funds/suggest")
+                .param("q", "alp")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fundId").value(1))
+                .andExpect(jsonPath("$[0].fundName").value("Alpine Growth"))
+                .andExpect(jsonPath("$[0].fundAliasId").doesNotExist());
+    }
+
+    @Test
+    void resolveFunds_ShouldReturnItemsInRequestOrder() throws Exception {
+        mockMvc.perform(post("/api/master-data/funds/resolve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"Alt-ABC\", \"Unknown\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.items[0].fundId").value(1))
+                .andExpect(jsonPath("$.items[1].status").value("UNMATCHED"));
+    }
+
+    @Test
+    void getFundPage_ShouldReturnCursorPage() throws Exception {
+        mockMvc.perform(get("/api/master-data/funds/page")
+                .param("size", "1")
+                .param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"funds-node-c2\""))
+                .andExpect(jsonPath("$.content[0].name").value("Test Fund"))
+                .andExpect(jsonPath("$.content[0].createdAt").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getReportNamesByTypeIndex_ShouldReturnMappingWithCombinedETag() throws Exception {
+        mockMvc.perform(get("/api/master-data/report-names/by-type"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$['1'][0].name").value("Test Report Name"))
+                .andExpect(jsonPath("$['2']").isEmpty());
+    }
+
     // Manual Stub
     static class TestMasterDataService extends MasterDataService {
         public TestMasterDataService() {
-            super(null, null, null, null, null);
+            super(null, null, null, null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public ResourceVersion getVersion(MasterDataType type) {
+            return ResourceVersion.ofTable(type.getKey(), 1, Instant.EPOCH);
+        }
+
+        @Override
+        public ResourceVersion getChangeVersion(MasterDataType type) {
+            return ResourceVersion.ofChangeCount(type.getKey() + "-node", 2);
+        }
+
+        @Override
+        public FundResolutionResultDTO resolveFunds(List<String> names) {
+            return FundResolutionResultDTO.builder()
+                    .total(names.size())
+                    .items(List.of(
+                            FundResolutionResultDTO.ItemResult.builder().index(0)
+                                    .status(FundResolutionResultDTO.ItemStatus.MATCHED).fundId(1L).build(),
+                            FundResolutionResultDTO.ItemResult.builder().index(1)
+                                    .status(FundResolutionResultDTO.ItemStatus.UNMATCHED).build()))
+                    .build();
+        }
+
+        @Override
+        public PageableResponseDTO<MasterDataDTO> getFundPage(String cursor, int size, String fields) {
+            return PageableResponseDTO.fromCursor(
+                    List.of(MasterDataDTO.builder().id(1L).name("Test Fund").build()), size, true, "next");
+        }
+
+        @Override
+        public List<FundSuggestionDTO> suggestFunds(String query, int limit) {
+            return List.of(FundSuggestionDTO.builder().fundId(1L).fundName("Alpine Growth").build());
+        }
+
+        @Override
+        public Map<Long, List<MasterDataDTO>> getReportNamesByTypeIndex() {
+            Map<Long, List<MasterDataDTO>> index = new LinkedHashMap<>();
+            index.put(1L, List.of(MasterDataDTO.builder().id(1L).name("Test Report Name").reportTypeId(1L).build()));
+            index.put(2L, List.of());
+            return index;
         }
 
         @Override
@@ -0,0 +1,72 @@
+package com.swisspine.controller;
+
+import com.swisspine.dto.MasterDataImportResultDTO;
+import com.swisspine.service.MasterDataImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MasterDataImportControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new MasterDataImportController(new TestImportService()))
+                .build();
+    }
+
+    @Test
+    void importFunds_ShouldReturnCounts() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "funds.csv", "text/csv",
+                "name\nAlpha\n\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/master-data/funds/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejections[0].line").value(3))
+                .andExpect(jsonPath("$.rejections[0].error").value("Name is required"));
+    }
+
+    @Test
+    void importFundAliases_ShouldReturnCounts() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "aliases.csv", "text/csv",
+                "fund_name,alias_name\nAlpha,ALP\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/master-data/fund-aliases/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    // Manual Stub
+    static class TestImportService extends MasterDataImportService {
+        public TestImportService() {
+            super(null, null);
+        }
+
+        @Override
+        public MasterDataImportResultDTO importFunds(InputStream csv) {
+            return MasterDataImportResultDTO.builder()
+                    .total(2).inserted(1).rejected(1)
+                    .rejections(List.of(new MasterDataImportResultDTO.Rejection(3, "Name is required")))
+                    .build();
+        }
+
+        @Override
+        public MasterDataImportResultDTO importFundAliases(InputStream csv) {
+            return MasterDataImportResultDTO.builder().total(1).inserted(1).build();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.swisspine.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.dto.PlannerBatchResultDTO;
+import com.swisspine.dto.PlannerBatchResultDTO.ItemResult;
+import com.swisspine.dto.PlannerBatchResultDTO.ItemStatus;
+import com.swisspine.dto.PlannerDTO;
+import com.swisspine.service.PlannerBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PlannerBatchControllerTest {
+
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new PlannerBatchController(new TestPlannerBatchService()))
+                .build();
+    }
+
+    @Test
+    void createBatch_ShouldReturnPerItemResults() throws Exception {
+        List<PlannerDTO> planners = List.of(
+                PlannerDTO.builder().name("First").build(),
+                PlannerDTO.builder().name("").build());
+
+        mockMvc.perform(post("/api/planners/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(planners)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[1].error").value("Planner name is required"));
+    }
+
+    // Manual Stub
+    static class TestPlannerBatchService extends PlannerBatchService {
+        TestPlannerBatchService() {
+            super(null, null, null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public PlannerBatchResultDTO createAll(List<PlannerDTO> planners) {
+            List<ItemResult> items = new ArrayList<>();
+            for (int i = 0; i < planners.size(); i++) {
+                boolean named = !planners.get(i).getName().isBlank();
+                items.add(ItemResult.builder()
+                        .index(i)
+                        .status(named ? ItemStatus.CREATED : ItemStatus.FAILED)
+                        .id(named ? (long) i + 1 : null)
+                        .error(named ? null : "Planner name is required")
+                        .build());
+            }
+            return PlannerBatchResultDTO.builder().total(planners.size()).items(items).build();
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.swisspine.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.common.CountMode;
+import com.swisspine.common.ResourceVersion;
 import com.swisspine.config.JpaConfiguration;
 import com.swisspine.dto.PageableResponseDTO;
+import com.swisspine.dto.PlannerAggregatesDTO;
 import com.swisspine.dto.PlannerDTO;
+import com.swisspine.dto.PlannerFundDTO;
+import com.swisspine.dto.PlannerRunDTO;
+import com.swisspine.dto.PlannerSourceDTO;
 import com.swisspine.service.PlannerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,7 +22,9 @@ import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -72,6 +80,46 @@ class PlannerControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllPlanners_WithCursor_ShouldUseCursorMode() throws Exception {
+        mockMvc.perform(get("/api/planners")
+                .param("cursor", "")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getAllPlanners_WithCountNone_ShouldOmitTotals() throws Exception {
+        mockMvc.perform(get("/api/planners")
+                .param("count", "none")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalElementsExact").doesNotExist())
+                .andExpect(jsonPath("$.last").value(true));
+    }
+
+    @Test
+    void getAllPlanners_WithCountEstimate_ShouldFlagInexactTotal() throws Exception {
+        mockMvc.perform(get("/api/planners")
+                .param("count", "ESTIMATE")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElementsExact").value(false));
+    }
+
+    @Test
+    void getAggregates_ShouldReturnCounts() throws Exception {
+        mockMvc.perform(get("/api/planners/aggregates")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus[0].key").value("Draft"))
+                .andExpect(jsonPath("$.byStatus[0].count").value(3));
+    }
+
     @Test
     void getPlannerById_ShouldReturnOk() throws Exception {
         mockMvc.perform(get("/api/planners/1")
@@ -80,6 +128,39 @@ class PlannerControllerTest {
                 .andExpect(jsonPath("$.name").value("Test Planner"));
     }
 
+    @Test
+    void getFullPlannerById_ShouldReturnGraph() throws Exception {
+        mockMvc.perform(get("/api/planners/1/full")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.funds[0].fundName").value("Fund A"))
+                .andExpect(jsonPath("$.sources[0].runs[0].runName").value("Daily EOD"));
+    }
+
+    @Test
+    void getPlannerById_ShouldSetValidators() throws Exception {
+        mockMvc.perform(get("/api/planners/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"planner-1-v3\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getPlannerById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/planners/1")
+                .header("If-None-Match", "\"planner-1-v3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllPlanners_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/planners")
+                .header("If-None-Match", "\"planners-c1\""))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void createPlanner_ShouldReturnCreated() throws Exception {
         mockMvc.perform(post("/api/planners")
@@ -107,30 +188,86 @@ class PlannerControllerTest {
     // Manual Stub
     static class TestPlannerService extends PlannerService {
         public TestPlannerService() {
-            super(null, null);
+            super(null, null, null, null, null, null, null);
         }
 
         @Override
-        public PageableResponseDTO<PlannerDTO> findAll(String status, int page, int size) {
+        public PageableResponseDTO<PlannerDTO> findAll(String status, int page, int size, CountMode countMode) {
+            List<PlannerDTO> content = Collections.singletonList(PlannerDTO.builder().id(1L).name("Test Planner").build());
+            if (countMode == CountMode.NONE) {
+                return PageableResponseDTO.fromOffset(content, page, size, false, null, false);
+            }
             return PageableResponseDTO.<PlannerDTO>builder()
-                    .content(Collections.singletonList(PlannerDTO.builder().id(1L).name("Test Planner").build()))
-                    .totalElements(1)
+                    .content(content)
+                    .totalElements(1L)
                     .totalPages(1)
+                    .totalElementsExact(countMode == CountMode.EXACT)
                     .build();
         }
 
         @Override
-        public PageableResponseDTO<PlannerDTO> search(String query, String status, int page, int size) {
+        public PageableResponseDTO<PlannerDTO> search(String query, String status, int page, int size,
+                CountMode countMode) {
             return PageableResponseDTO.<PlannerDTO>builder()
                     .content(Collections.singletonList(PlannerDTO.builder().id(1L).name("Test Planner").build()))
                     .build();
         }
 
+        @Override
+        public PageableResponseDTO<PlannerDTO> findAllByCursor(String status, String cursor, int size) {
+            return PageableResponseDTO.fromCursor(
+                    Collections.singletonList(PlannerDTO.builder().id(1L).name("Test Planner").build()),
+                    size, true, "next");
+        }
+
+        @Override
+        public PlannerAggregatesDTO getAggregates() {
+            return PlannerAggregatesDTO.builder()
+                    .total(3)
+                    .byStatus(List.of(PlannerAggregatesDTO.GroupCount.builder().key("Draft").count(3).build()))
+                    .build();
+        }
+
+        @Override
+        public ResourceVersion getListVersion() {
+            return ResourceVersion.ofChangeCount("planners", 1);
+        }
+
+        @Override
+        public ResourceVersion getAggregatesVersion() {
+            return ResourceVersion.ofChangeCount("planner-aggregates", 3);
+        }
+
+        @Override
+        public ResourceVersion getVersion(Long id) {
+            return ResourceVersion.ofRow("planner", id, 3L, Instant.parse("2024-01-01T00:00:00Z"));
+        }
+
+        @Override
+        public ResourceVersion getFullVersion(Long id) {
+            return ResourceVersion.ofRow("planner-full", id, 3L, Instant.parse("2024-01-01T00:00:00Z"));
+        }
+
         @Override
         public PlannerDTO findById(Long id) {
             return PlannerDTO.builder().id(id).name("Test Planner").build();
         }
 
+        @Override
+        public PlannerDTO findFullById(Long id) {
+            PlannerSourceDTO source = PlannerSourceDTO.builder()
+                    .id(10L)
+                    .sourceName("Bloomberg")
+                    .runs(Collections.singletonList(PlannerRunDTO.builder().id(100L).runName("Daily EOD").build()))
+                    .build();
+            return PlannerDTO.builder()
+                    .id(id)
+                    .name("Test Planner")
+                    .funds(Collections.singletonList(PlannerFundDTO.builder().id(5L).fundName("Fund A").build()))
+                    .sources(Collections.singletonList(source))
+                    .build();
+        }
+
         @Override
         public PlannerDTO create(PlannerDTO dto) {
             return dto;
@@ -0,0 +1,69 @@
+package com.swisspine.controller;
+
+import com.swisspine.common.ExportFormat;
+import com.swisspine.service.PlannerExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PlannerExportControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new PlannerExportController(new TestPlannerExportService()))
+                .build();
+    }
+
+    @Test
+    void export_ShouldStreamNdjsonByDefault() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/planners/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"planners.ndjson\""))
+                .andExpect(content().string("NDJSON:all\n"));
+    }
+
+    @Test
+    void export_ShouldStreamCsvWithStatusFilter() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/planners/export")
+                .param("format", "csv")
+                .param("status", "Draft"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"planners.csv\""))
+                .andExpect(content().string("CSV:Draft\n"));
+    }
+
+    // Manual Stub
+    static class TestPlannerExportService extends PlannerExportService {
+        TestPlannerExportService() {
+            super(null, null);
+        }
+
+        @Override
+        public long export(String status, ExportFormat format, OutputStream out) throws IOException {
+            out.write((format + ":" + (status != null ? status : "all") + "\n").getBytes(StandardCharsets.UTF_8));
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.swisspine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.common.MasterDataType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeNotificationListenerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ChangeNotificationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new ChangeNotificationListener(new DataSourceProperties(), jdbcTemplate, new ObjectMapper(),
+                eventPublisher, secondLevelCacheInvalidator, meterRegistry, false);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn("planner-a");
+        listener.resolveNodeName();
+    }
+
+    @Test
+    void handle_ShouldApplyInsertedRowsIncrementally() {
+        listener.handle("{\"table\":\"funds\",\"op\":\"INSERT\",\"node\":\"planner-b\","
+                + "\"rows\":[{\"id\":1,\"name\":\"Alpha\"},{\"id\":2,\"name\":\"Beta\"}]}");
+
+        verify(secondLevelCacheInvalidator).evict(MasterDataType.FUND, List.of(1L, 2L));
+        verify(eventPublisher).publishEvent(MasterDataChangedEvent.created(MasterDataType.FUND, 1L, "Alpha"));
+        verify(eventPublisher).publishEvent(MasterDataChangedEvent.created(MasterDataType.FUND, 2L, "Beta"));
+        assertEquals(1.0, meterRegistry.counter("swisspine.cache.notifications", "table", "funds").count());
+    }
+
+    @Test
+    void handle_ShouldApplyDeletedRows() {
+        listener.handle("{\"table\":\"run_names\",\"op\":\"DELETE\",\"node\":\"psql\","
+                + "\"rows\":[{\"id\":7,\"name\":\"Daily EOD\"}]}");
+
+        verify(secondLevelCacheInvalidator).evict(MasterDataType.RUN_NAME, List.of(7L));
+        verify(eventPublisher).publishEvent(MasterDataChangedEvent.deleted(MasterDataType.RUN_NAME, 7L));
+    }
+
+    @Test
+    void handle_ShouldReloadType_WhenRowsAreOmittedOrUpdated() {
+        listener.handle("{\"table\":\"funds\",\"op\":\"INSERT\",\"node\":\"planner-b\"}");
+        listener.handle("{\"table\":\"report_types\",\"op\":\"UPDATE\",\"node\":\"planner-b\","
+                + "\"rows\":[{\"id\":3,\"name\":\"Risk\"}]}");
+        listener.handle("{\"table\":\"fund_aliases\",\"op\":\"INSERT\",\"node\":\"planner-b\","
+                + "\"rows\":[{\"id\":9}]}");
+
+        verify(eventPublisher, times(2)).publishEvent(new MasterDataChangedEvent(MasterDataType.FUND));
+        verify(eventPublisher).publishEvent(new MasterDataChangedEvent(MasterDataType.REPORT_TYPE));
+        verify(secondLevelCacheInvalidator, never()).evict(any(), any());
+    }
+
+    @Test
+    void handle_ShouldSkipOwnChangesAndUnknownTables() {
+        listener.handle("{\"table\":\"funds\",\"op\":\"INSERT\",\"node\":\"planner-a\",\"rows\":[{\"id\":1}]}");
+        listener.handle("{\"table\":\"planners\",\"op\":\"INSERT\",\"node\":\"planner-b\"}");
+        listener.handle("not json");
+
+        verifyNoInteractions(eventPublisher, secondLevelCacheInvalidator);
+    }
+
+    @Test
+    void invalidateAll_ShouldReloadEveryType() {
+        listener.invalidateAll();
+
+        for (MasterDataType type : MasterDataType.values()) {
+            verify(eventPublisher).publishEvent(new MasterDataChangedEvent(type));
+        }
+    }
+}
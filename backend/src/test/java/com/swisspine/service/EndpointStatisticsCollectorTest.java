@@ -0,0 +1,94 @@
+package com.swisspine.service;
+
+import com.swisspine.dto.PerformanceStatisticsDTO;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.CollectorRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointStatisticsCollectorTest {
+
+    private MockClock clock;
+    // Publishes the request histograms that the simple registry leaves out
+    private PrometheusMeterRegistry meterRegistry;
+    private EndpointStatisticsCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MockClock();
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT, new CollectorRegistry(), clock);
+        collector = new EndpointStatisticsCollector(meterRegistry);
+    }
+
+    @Test
+    void collect_ShouldDiscoverEveryEndpointAndGroupByUriAndMethod() {
+        // Arrange
+        record("GET", "/api/master-data/report-names/by-type", "200", "SUCCESS", 10, 8);
+        record("GET", "/api/master-data/report-names/by-type", "500", "SERVER_ERROR", 50, 2);
+        record("POST", "/api/external-connections/{id}/copy", "404", "CLIENT_ERROR", 5, 1);
+        clock.add(Duration.ofSeconds(10));
+
+        // Act
+        Map<String, PerformanceStatisticsDTO.EndpointStatistics> stats = collector.collect();
+
+        // Assert
+        assertEquals(2, stats.size());
+        PerformanceStatisticsDTO.EndpointStatistics byType = stats.get("GET /api/master-data/report-names/by-type");
+        assertEquals(10L, byType.getRequestCount());
+        assertEquals(18.0, byType.getAvgResponseTime(), 0.001);
+        assertEquals(20.0, byType.getErrorRate(), 0.001);
+        assertEquals(0.0, byType.getClientErrorRate(), 0.001);
+        assertEquals(1.0, byType.getThroughput(), 0.001);
+        assertTrue(byType.getP50ResponseTime() > 0 && byType.getP50ResponseTime() < 12.0,
+                "p50 falls in the bucket of the fast requests");
+        assertTrue(byType.getP99ResponseTime() > 40.0, "p99 falls in the bucket of the failures");
+        assertEquals(100.0, stats.get("POST /api/external-connections/{id}/copy").getClientErrorRate(), 0.001);
+    }
+
+    @Test
+    void collect_ShouldComputeRatesOverSlidingWindow() {
+        // First minute: 60 successful requests
+        record("GET", "/api/planners", "200", "SUCCESS", 5, 60);
+        clock.add(Duration.ofSeconds(60));
+        assertEquals(1.0, collector.collect().get("GET /api/planners").getThroughput(), 0.001);
+
+        // Second minute: 30 requests, a third of them failing
+        record("GET", "/api/planners", "200", "SUCCESS", 5, 20);
+        record("GET", "/api/planners", "503", "SERVER_ERROR", 5, 10);
+        clock.add(Duration.ofSeconds(60));
+        PerformanceStatisticsDTO.EndpointStatistics planners = collector.collect().get("GET /api/planners");
+
+        assertEquals(90L, planners.getRequestCount(), "request count stays cumulative");
+        assertEquals(0.5, planners.getThroughput(), 0.001);
+        assertEquals(100.0 / 3, planners.getErrorRate(), 0.001);
+    }
+
+    @Test
+    void percentile_ShouldInterpolateWithinCumulativeBuckets() {
+        TreeMap<Double, Double> buckets = new TreeMap<>(Map.of(10.0, 50.0, 20.0, 90.0, 40.0, 100.0));
+
+        assertEquals(10.0, EndpointStatisticsCollector.percentile(buckets, 0.50), 0.001);
+        assertEquals(30.0, EndpointStatisticsCollector.percentile(buckets, 0.95), 0.001);
+        assertEquals(0.0, EndpointStatisticsCollector.percentile(new TreeMap<>(), 0.95));
+    }
+
+    private void record(String method, String uri, String status, String outcome, long millis, int times) {
+        Timer timer = Timer.builder(EndpointStatisticsCollector.REQUESTS_METER)
+                .tags("method", method, "uri", uri, "status", status, "outcome", outcome, "exception", "none")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        for (int i = 0; i < times; i++) {
+            timer.record(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
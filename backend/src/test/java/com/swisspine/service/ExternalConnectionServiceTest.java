@@ -46,6 +46,39 @@ class ExternalConnectionServiceTest {
         assertEquals("Bloomberg", result.getContent().get(0).getName());
     }
 
+    @Test
+    void findAll_ShouldUseSubstringPattern_ForTrigramLengthTerms() {
+        when(repository.searchByName(eq("%bloom%"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        service.findAll(" Bloom ", 0, 10);
+
+        verify(repository).searchByName(eq("%bloom%"), any(Pageable.class));
+    }
+
+    @Test
+    void findAll_ShouldFallBackToPrefixPattern_ForShortTerms() {
+        when(repository.searchByName(eq("b\\_%"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        service.findAll("B_", 0, 10);
+
+        verify(repository).searchByName(eq("b\\_%"), any(Pageable.class));
+    }
+
+    @Test
+    void searchRanked_ShouldPassPatternAndTermAndMaskValues() {
+        ExternalConnection conn = ExternalConnection.builder().name("Bloomberg").valueField("secret").valueFieldSet(true)
+                .build();
+        conn.setId(1L);
+        when(repository.searchByNameRanked(eq("%bloom%"), eq("bloom"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(conn)));
+
+        PageableResponseDTO<ExternalConnectionDTO> result = service.searchRanked("Bloom", 0, 10);
+
+        assertEquals("********", result.getContent().get(0).getValueField());
+    }
+
     @Test
     void findById_ShouldReturnDto_WhenExists() {
         ExternalConnection conn = ExternalConnection.builder().name("Bloomberg").build();
@@ -0,0 +1,94 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.dto.FundResolutionResultDTO;
+import com.swisspine.dto.FundResolutionResultDTO.ItemStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FundNameResolverTest {
+
+    private FundNameResolver resolver;
+    private AtomicInteger loads;
+    private Supplier<List<FundNameEntry>> loader;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new FundNameResolver();
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return List.of(
+                    new FundNameEntry(1, "Alpha Equity", null, "Alpha Equity"),
+                    new FundNameEntry(1, "Alpha Equity", 10L, "Ticker-ALEQ"),
+                    new FundNameEntry(2, "Beta Bond", null, "Beta Bond"),
+                    new FundNameEntry(2, "Beta Bond", 20L, "Alt-Shared"),
+                    new FundNameEntry(3, "Gamma Income", 30L, "Alt-Shared"));
+        };
+    }
+
+    @Test
+    void resolve_ShouldMatchNamesAndAliasesIgnoringCaseAndPunctuation() {
+        FundResolutionResultDTO result = resolver.resolve(
+                Arrays.asList("ticker aleq", "BETA-BOND", "alt-shared", "Unknown", null), loader);
+
+        assertEquals(5, result.getTotal());
+        assertEquals(2, result.getMatched());
+        assertEquals(1, result.getAmbiguous());
+        assertEquals(2, result.getUnmatched());
+        assertEquals(1L, result.getItems().get(0).getFundId());
+        assertEquals(2L, result.getItems().get(1).getFundId());
+        assertEquals(ItemStatus.AMBIGUOUS, result.getItems().get(2).getStatus());
+        assertEquals(List.of(2L, 3L), result.getItems().get(2).getCandidateFundIds().stream().sorted().toList());
+        assertEquals(ItemStatus.UNMATCHED, result.getItems().get(4).getStatus());
+        assertEquals(4, result.getItems().get(4).getIndex());
+    }
+
+    @Test
+    void resolve_ShouldGrowTableAndBuildOnce() {
+        List<FundNameEntry> many = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            many.add(new FundNameEntry(i, "Fund " + i, null, "Fund " + i));
+        }
+        List<String> names = many.stream().map(FundNameEntry::name).toList();
+
+        resolver.resolve(names, () -> many);
+        FundResolutionResultDTO result = resolver.resolve(names, () -> fail("table should be reused"));
+
+        assertEquals(5000, result.getMatched());
+        assertEquals(4321L, result.getItems().get(4321).getFundId());
+        assertEquals(5000, resolver.size());
+    }
+
+    @Test
+    void onMasterDataChanged_ShouldApplyFundChangesInPlace() {
+        resolver.resolve(List.of("x"), loader);
+
+        resolver.onMasterDataChanged(MasterDataChangedEvent.created(MasterDataType.FUND, 4L, "Delta Growth"));
+        resolver.onMasterDataChanged(MasterDataChangedEvent.deleted(MasterDataType.FUND, 3L));
+
+        FundResolutionResultDTO result = resolver.resolve(List.of("delta growth", "Alt-Shared"), loader);
+        assertEquals(4L, result.getItems().get(0).getFundId());
+        assertEquals(2L, result.getItems().get(1).getFundId(), "aliases of the deleted fund are gone");
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onMasterDataChanged_ShouldReloadAfterBulkChange() {
+        resolver.resolve(List.of("x"), loader);
+
+        resolver.onMasterDataChanged(new MasterDataChangedEvent(MasterDataType.FUND));
+
+        assertEquals(-1, resolver.size());
+        resolver.resolve(List.of("x"), loader);
+        assertEquals(2, loads.get());
+    }
+}
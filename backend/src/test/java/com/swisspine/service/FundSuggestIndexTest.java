@@ -0,0 +1,129 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.dto.FundSuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FundSuggestIndexTest {
+
+    private FundSuggestIndex index;
+    private AtomicInteger loads;
+    private Supplier<List<FundNameEntry>> loader;
+
+    @BeforeEach
+    void setUp() {
+        index = new FundSuggestIndex();
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return List.of(
+                    fund(1, "Global Alpha Fund"),
+                    fund(2, "Alpha Equity"),
+                    fund(3, "Zürich Bond Fund"),
+                    new FundNameEntry(3, "Zürich Bond Fund", 30L, "ZBF Income"));
+        };
+    }
+
+    @Test
+    void suggest_ShouldRankWholeQueryPrefixFirstThenAlphabetical() {
+        List<FundSuggestionDTO> result = index.suggest("alp", 10, loader);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(FundSuggestionDTO::getFundId).toList());
+    }
+
+    @Test
+    void suggest_ShouldRequireEveryQueryTokenAndIgnoreCaseAndAccents() {
+        assertEquals(List.of(1L), fundIds(index.suggest("FUND glo", 10, loader)));
+        assertEquals(List.of(3L), fundIds(index.suggest("zur bo", 10, loader)));
+        assertTrue(index.suggest("alpha bond", 10, loader).isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldReturnAliasWithOwningFund() {
+        FundSuggestionDTO match = index.suggest("zbf", 10, loader).get(0);
+
+        assertEquals(3L, match.getFundId());
+        assertEquals("Zürich Bond Fund", match.getFundName());
+        assertEquals(30L, match.getFundAliasId());
+        assertEquals("ZBF Income", match.getFundAliasName());
+    }
+
+    @Test
+    void suggest_ShouldLimitResultsAndServeBlankQueryAlphabetically() {
+        assertEquals(1, index.suggest("fund", 1, loader).size());
+        assertEquals(List.of(2L, 1L), fundIds(index.suggest("  ", 2, loader)));
+        assertEquals(1, loads.get(), "index is built once");
+    }
+
+    @Test
+    void suggest_ShouldRankTheSameWhetherWideRangeIsWalkedOrSorted() {
+        List<FundNameEntry> funds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            funds.add(fund(100 + i, String.format("Alpha Fund %02d", i)));
+            funds.add(fund(200 + i, String.format("Fund %02d", i)));
+        }
+        Supplier<List<FundNameEntry>> many = () -> funds;
+
+        // limit 55: the 100-token range of "f" is walked name by name
+        List<Long> walked = fundIds(index.suggest("f", 55, many));
+        // limit 100: the range is sorted instead
+        List<Long> sorted = fundIds(index.suggest("f", 100, many));
+
+        assertEquals(55, walked.size());
+        assertEquals(200L, walked.get(0), "names starting with the query first");
+        assertEquals(100L, walked.get(50), "then the rest A-Z");
+        assertEquals(walked, sorted.subList(0, 55));
+    }
+
+    @Test
+    void onMasterDataChanged_ShouldMergeChangesWithoutReloading() {
+        index.suggest("alp", 10, loader);
+
+        index.onMasterDataChanged(MasterDataChangedEvent.created(MasterDataType.FUND, 4L, "Alpine Growth"));
+        index.onMasterDataChanged(MasterDataChangedEvent.deleted(MasterDataType.FUND, 3L));
+        index.onMasterDataChanged(MasterDataChangedEvent.created(MasterDataType.RUN_NAME, 9L, "Alpha Run"));
+
+        assertEquals(List.of(2L, 4L, 1L), fundIds(index.suggest("alp", 10, loader)));
+        assertTrue(index.suggest("zbf", 10, loader).isEmpty(), "aliases go with their fund");
+        assertEquals(3, index.size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onMasterDataChanged_ShouldRebuildAfterBulkChange() {
+        index.suggest("alp", 10, loader);
+
+        index.onMasterDataChanged(new MasterDataChangedEvent(MasterDataType.FUND));
+
+        assertEquals(-1, index.size());
+        index.suggest("alp", 10, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void suggest_ShouldNotInstallIndexLoadedBeforeConcurrentChange() {
+        List<FundSuggestionDTO> result = index.suggest("alp", 10, () -> {
+            index.onMasterDataChanged(MasterDataChangedEvent.created(MasterDataType.FUND, 4L, "Alpine Growth"));
+            return loader.get();
+        });
+
+        assertEquals(2, result.size(), "the caller still gets the loaded index");
+        assertEquals(-1, index.size());
+    }
+
+    private static FundNameEntry fund(long id, String name) {
+        return new FundNameEntry(id, name, null, name);
+    }
+
+    private static List<Long> fundIds(List<FundSuggestionDTO> suggestions) {
+        return suggestions.stream().map(FundSuggestionDTO::getFundId).toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.swisspine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.common.MasterDataType;
+import com.swisspine.dto.MasterDataDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MasterDataBootstrapServiceTest {
+
+    @Mock
+    private MasterDataService masterDataService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private SimpleMeterRegistry meterRegistry;
+    private MasterDataSnapshotCache snapshotCache;
+    private MasterDataBootstrapService bootstrapService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        snapshotCache = new MasterDataSnapshotCache(meterRegistry);
+        bootstrapService = new MasterDataBootstrapService(masterDataService, snapshotCache, objectMapper,
+                meterRegistry);
+
+        lenient().when(masterDataService.getAllSourceNames()).thenReturn(List.of(dto(1L, "Bloomberg", null)));
+        lenient().when(masterDataService.getAllRunNames()).thenReturn(List.of());
+        lenient().when(masterDataService.getAllReportTypes()).thenReturn(List.of(dto(10L, "Risk", null),
+                dto(11L, "Trading", null)));
+        lenient().when(masterDataService.getAllReportNames()).thenReturn(List.of(dto(20L, "VaR", 10L),
+                dto(21L, "Unassigned", null)));
+        lenient().when(masterDataService.getAllFunds()).thenReturn(List.of(dto(30L, "Fund A", null)));
+        lenient().when(masterDataService.getReportNamesByTypeIndex()).thenReturn(Map.of(
+                10L, List.of(dto(20L, "VaR", 10L)),
+                11L, List.of()));
+    }
+
+    @Test
+    void getBootstrap_ShouldGroupReportNamesByType() throws Exception {
+        // Act
+        MasterDataBootstrapService.BootstrapBody body = bootstrapService.getBootstrap();
+
+        // Assert
+        JsonNode json = objectMapper.readTree(body.json());
+        assertEquals("Bloomberg", json.at("/sourceNames/0/name").asText());
+        assertEquals(2, json.at("/reportNames").size());
+        assertEquals("VaR", json.at("/reportNamesByType/10/0/name").asText());
+        assertEquals(0, json.at("/reportNamesByType/11").size(), "types without names map to an empty list");
+        assertNull(body.version().lastModified(), "deletes do not move the latest update");
+    }
+
+    @Test
+    void getBootstrap_ShouldServeSameBytesUntilMasterDataChanges() throws Exception {
+        // Act
+        MasterDataBootstrapService.BootstrapBody first = bootstrapService.getBootstrap();
+        MasterDataBootstrapService.BootstrapBody second = bootstrapService.getBootstrap();
+
+        // Assert
+        assertSame(first, second);
+        verify(masterDataService, times(1)).getAllFunds();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.json(), gzip.readAllBytes());
+        }
+
+        // A committed change to any type rebuilds the body
+        when(masterDataService.getAllFunds()).thenReturn(List.of(dto(30L, "Fund A", null), dto(31L, "Fund B", null)));
+        snapshotCache.onMasterDataChanged(new MasterDataChangedEvent(MasterDataType.FUND));
+        MasterDataBootstrapService.BootstrapBody third = bootstrapService.getBootstrap();
+
+        assertNotSame(first, third);
+        assertNotEquals(first.version().eTag(), third.version().eTag());
+        assertEquals(2.0, meterRegistry.get("swisspine.masterdata.bootstrap.rebuilds").counter().count());
+    }
+
+    private static MasterDataDTO dto(Long id, String name, Long reportTypeId) {
+        return MasterDataDTO.builder()
+                .id(id)
+                .name(name)
+                .reportTypeId(reportTypeId)
+                .updatedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id * 86_400))
+                .build();
+    }
+}
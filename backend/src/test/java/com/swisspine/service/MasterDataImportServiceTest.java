@@ -0,0 +1,143 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.dto.MasterDataImportResultDTO;
+import com.swisspine.exception.BusinessRuleViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MasterDataImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    private MasterDataImportService importService;
+
+    private final InputStream csv = new ByteArrayInputStream(
+            "name\nAlpha\nBeta\n\nAlpha\n".getBytes(StandardCharsets.UTF_8));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        importService = new MasterDataImportService(jdbcTemplate, eventPublisher);
+
+        lenient().when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        lenient().when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        lenient().when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+    }
+
+    @Test
+    void importFunds_ShouldCopyValidateAndMerge() throws Exception {
+        // Arrange: 4 lines, 2 rejected (blank and duplicate), 1 new
+        when(copyManager.copyIn(anyString(), eq(csv), anyInt())).thenReturn(4L);
+        lenient().when(jdbcTemplate.update(startsWith("WITH new_rows"))).thenReturn(1);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*)"), eq(Long.class))).thenReturn(2L);
+        List<MasterDataImportResultDTO.Rejection> rejections = List.of(
+                new MasterDataImportResultDTO.Rejection(4, "Name is required"),
+                new MasterDataImportResultDTO.Rejection(5, "Duplicate of line 2"));
+        when(jdbcTemplate.query(startsWith("SELECT line, error"), any(RowMapper.class), eq(100)))
+                .thenReturn(rejections);
+
+        // Act
+        MasterDataImportResultDTO result = importService.importFunds(csv);
+
+        // Assert
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUnchanged(), "Beta already exists");
+        assertEquals(2, result.getRejected());
+        assertEquals(rejections, result.getRejections());
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TEMP TABLE fund_import"));
+        verify(copyManager).copyIn(eq(MasterDataImportService.FUNDS.copy()), eq(csv), anyInt());
+        verify(eventPublisher).publishEvent(new MasterDataChangedEvent(MasterDataType.FUND));
+    }
+
+    @Test
+    void importFunds_ShouldNotPublishEvent_WhenNothingInserted() throws Exception {
+        when(copyManager.copyIn(anyString(), eq(csv), anyInt())).thenReturn(3L);
+        when(jdbcTemplate.update(anyString())).thenReturn(0);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+
+        MasterDataImportResultDTO result = importService.importFunds(csv);
+
+        assertEquals(3, result.getUnchanged());
+        assertTrue(result.getRejections().isEmpty());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void importFundAliases_ShouldUseAliasStaging() throws Exception {
+        when(copyManager.copyIn(anyString(), eq(csv), anyInt())).thenReturn(2L);
+        lenient().when(jdbcTemplate.update(startsWith("WITH new_rows"))).thenReturn(2);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+
+        MasterDataImportResultDTO result = importService.importFundAliases(csv);
+
+        assertEquals(2, result.getInserted());
+        verify(copyManager).copyIn(
+                eq("COPY fund_alias_import (fund_name, alias_name) FROM STDIN WITH (FORMAT csv, HEADER true)"),
+                eq(csv), anyInt());
+        verify(jdbcTemplate).update(contains("ON CONFLICT (fund_id, alias_name) DO NOTHING"));
+    }
+
+    @Test
+    void importFunds_ShouldRejectMalformedCsv() throws Exception {
+        lenient().doThrow(new DataIntegrityViolationException("copy failed",
+                new IllegalStateException("extra data after last expected column")))
+                .when(jdbcTemplate).execute(any(ConnectionCallback.class));
+
+        BusinessRuleViolationException error = assertThrows(BusinessRuleViolationException.class,
+                () -> importService.importFunds(csv));
+
+        assertEquals("Invalid CSV: extra data after last expected column", error.getMessage());
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+
+    @Test
+    void mergeSql_ShouldAllocateIdsInSequenceBlocks() {
+        String merge = MasterDataImportService.FUNDS.merge();
+
+        assertTrue(merge.contains("nextval('funds_id_seq')"));
+        assertTrue(merge.contains("b.upper - 50 + 1 + r.n % 50"));
+        assertTrue(merge.endsWith("ON CONFLICT (name) DO NOTHING"));
+    }
+}
@@ -1,20 +1,35 @@
 package com.swisspine.service;
 
+import com.swisspine.common.MasterDataType;
+import com.swisspine.common.NameKeysetCursor;
+import com.swisspine.dto.FundResolutionResultDTO;
+import com.swisspine.dto.FundSuggestionDTO;
 import com.swisspine.dto.MasterDataDTO;
+import com.swisspine.dto.PageableResponseDTO;
+import com.swisspine.exception.BusinessRuleViolationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.swisspine.entity.*;
 import com.swisspine.repository.*;
+import com.swisspine.repository.projection.FundAliasRow;
+import com.swisspine.repository.projection.FundRow;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,7 +38,7 @@ class MasterDataServiceTest {
     @Mock
     private FundRepository fundRepository;
     @Mock
-    private FundAliasRepository fundAliasRepository; // Not used yet but present in Service
+    private FundAliasRepository fundAliasRepository;
     @Mock
     private SourceNameRepository sourceNameRepository;
     @Mock
@@ -33,6 +48,15 @@ class MasterDataServiceTest {
     @Mock
     private ReportNameRepository reportNameRepository;
 
+    @Spy
+    private MasterDataSnapshotCache snapshotCache = new MasterDataSnapshotCache(new SimpleMeterRegistry());
+    @Spy
+    private FundSuggestIndex fundSuggestIndex = new FundSuggestIndex();
+    @Spy
+    private FundNameResolver fundNameResolver = new FundNameResolver();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private MasterDataService service;
 
@@ -166,6 +190,15 @@ class MasterDataServiceTest {
         verify(reportTypeRepository).deleteById(1L);
     }
 
+    @Test
+    void deleteReportType_ShouldReloadReportNames() {
+        // report_names.report_type_id is set to NULL by the database
+        service.deleteReportType(1L);
+
+        verify(eventPublisher).publishEvent(MasterDataChangedEvent.deleted(MasterDataType.REPORT_TYPE, 1L));
+        verify(eventPublisher).publishEvent(new MasterDataChangedEvent(MasterDataType.REPORT_NAME));
+    }
+
     // --- ReportName Tests ---
     @Test
     void getAllReportNames_ShouldReturnList() {
@@ -182,10 +215,15 @@ class MasterDataServiceTest {
 
     @Test
     void getReportNamesByType_ShouldReturnFilteredList() {
+        ReportType type = new ReportType();
+        type.setName("Risk");
+        type.setId(10L);
         ReportName entity = new ReportName();
         entity.setName("Report A");
         entity.setId(1L);
-        when(reportNameRepository.findByReportTypeIdOrderByNameAsc(10L)).thenReturn(Collections.singletonList(entity));
+        entity.setReportType(type);
+        when(reportTypeRepository.findAllByOrderByNameAsc()).thenReturn(Collections.singletonList(type));
+        when(reportNameRepository.findAllByOrderByNameAsc()).thenReturn(Collections.singletonList(entity));
 
         List<MasterDataDTO> result = service.getReportNamesByType(10L);
 
@@ -193,6 +231,67 @@ class MasterDataServiceTest {
         assertEquals("Report A", result.get(0).getName());
     }
 
+    @Test
+    void getReportNamesByTypeIndex_ShouldGroupNamesUnderEveryType() {
+        ReportType risk = new ReportType();
+        risk.setName("Risk");
+        risk.setId(10L);
+        ReportType trading = new ReportType();
+        trading.setName("Trading");
+        trading.setId(11L);
+        ReportName var = new ReportName();
+        var.setName("VaR");
+        var.setId(20L);
+        var.setReportType(risk);
+        ReportName unassigned = new ReportName();
+        unassigned.setName("Unassigned");
+        unassigned.setId(21L);
+        when(reportTypeRepository.findAllByOrderByNameAsc()).thenReturn(List.of(risk, trading));
+        when(reportNameRepository.findAllByOrderByNameAsc()).thenReturn(List.of(unassigned, var));
+
+        Map<Long, List<MasterDataDTO>> index = service.getReportNamesByTypeIndex();
+
+        assertEquals(List.of(10L, 11L), List.copyOf(index.keySet()));
+        assertEquals(List.of("VaR"), index.get(10L).stream().map(MasterDataDTO::getName).toList());
+        assertTrue(index.get(11L).isEmpty(), "types without names map to an empty list");
+        assertThrows(UnsupportedOperationException.class, () -> index.put(12L, List.of()));
+    }
+
+    @Test
+    void getReportNamesByTypeIndex_ShouldRebuildOnlyAfterReportNamesChange() {
+        ReportType risk = new ReportType();
+        risk.setName("Risk");
+        risk.setId(10L);
+        when(reportTypeRepository.findAllByOrderByNameAsc()).thenReturn(List.of(risk));
+        when(reportNameRepository.findAllByOrderByNameAsc()).thenReturn(List.of());
+
+        Map<Long, List<MasterDataDTO>> first = service.getReportNamesByTypeIndex();
+        assertSame(first, service.getReportNamesByTypeIndex());
+        verify(reportNameRepository, times(1)).findAllByOrderByNameAsc();
+
+        ReportName var = new ReportName();
+        var.setName("VaR");
+        var.setId(20L);
+        var.setReportType(risk);
+        when(reportNameRepository.findAllByOrderByNameAsc()).thenReturn(List.of(var));
+        snapshotCache.invalidate(MasterDataType.REPORT_NAME);
+
+        Map<Long, List<MasterDataDTO>> second = service.getReportNamesByTypeIndex();
+        assertNotSame(first, second);
+        assertEquals("VaR", second.get(10L).get(0).getName());
+        verify(reportTypeRepository, times(1)).findAllByOrderByNameAsc();
+    }
+
+    @Test
+    void getChangeVersion_ShouldChangeOnInvalidateWithoutLoadingFunds() {
+        String before = service.getChangeVersion(MasterDataType.FUND).eTag();
+
+        assertEquals(before, service.getChangeVersion(MasterDataType.FUND).eTag());
+        snapshotCache.invalidate(MasterDataType.FUND);
+        assertNotEquals(before, service.getChangeVersion(MasterDataType.FUND).eTag());
+        verifyNoInteractions(fundRepository);
+    }
+
     @Test
     void createReportName_ShouldSaveAndReturnDto() {
         MasterDataDTO dto = MasterDataDTO.builder().name("New Report").build();
@@ -211,4 +310,110 @@ class MasterDataServiceTest {
         service.deleteReportName(1L);
         verify(reportNameRepository).deleteById(1L);
     }
+
+    // --- Snapshot Tests ---
+    @Test
+    void getAllFunds_ShouldServeSnapshotWithoutQuerying_OnRepeatedReads() {
+        Fund fund = Fund.builder().name("Fund A").build();
+        fund.setId(1L);
+        when(fundRepository.findAllByOrderByNameAsc()).thenReturn(Collections.singletonList(fund));
+
+        List<MasterDataDTO> first = service.getAllFunds();
+        List<MasterDataDTO> second = service.getAllFunds();
+
+        assertSame(first, second);
+        verify(fundRepository, times(1)).findAllByOrderByNameAsc();
+    }
+
+    @Test
+    void createFund_ShouldPublishChangeEvent() {
+        Fund entity = Fund.builder().name("New Fund").build();
+        entity.setId(1L);
+        when(fundRepository.save(any(Fund.class))).thenReturn(entity);
+
+        service.createFund(MasterDataDTO.builder().name("New Fund").build());
+
+        verify(eventPublisher).publishEvent(MasterDataChangedEvent.created(MasterDataType.FUND, 1L, "New Fund"));
+    }
+
+    @Test
+    void suggestFunds_ShouldMatchNamesAndAliasesFromOneLoad() {
+        Fund fund = Fund.builder().name("Alpine Growth").build();
+        fund.setId(1L);
+        when(fundRepository.findAllByOrderByNameAsc()).thenReturn(List.of(fund));
+        when(fundAliasRepository.findAllRows()).thenReturn(List.of(new FundAliasRow(7L, 1L, "AGF Europe")));
+
+        List<FundSuggestionDTO> byName = service.suggestFunds("gro", 10);
+        List<FundSuggestionDTO> byAlias = service.suggestFunds("agf", 10);
+
+        assertEquals(1, byName.size());
+        assertNull(byName.get(0).getFundAliasId());
+        assertEquals(1L, byAlias.get(0).getFundId());
+        assertEquals("AGF Europe", byAlias.get(0).getFundAliasName());
+        verify(fundAliasRepository, times(1)).findAllRows();
+    }
+
+    @Test
+    void suggestFunds_ShouldRejectLimitOutOfRange() {
+        assertThrows(BusinessRuleViolationException.class, () -> service.suggestFunds("a", 0));
+        assertThrows(BusinessRuleViolationException.class, () -> service.suggestFunds("a", 51));
+    }
+
+    @Test
+    void resolveFunds_ShouldResolveAliasesToFundIds() {
+        Fund fund = Fund.builder().name("Alpine Growth").build();
+        fund.setId(1L);
+        when(fundRepository.findAllByOrderByNameAsc()).thenReturn(List.of(fund));
+        when(fundAliasRepository.findAllRows()).thenReturn(List.of(new FundAliasRow(7L, 1L, "ISIN-CH0000000001")));
+
+        FundResolutionResultDTO result = service.resolveFunds(List.of("isin ch0000000001", "Other"));
+
+        assertEquals(1, result.getMatched());
+        assertEquals(1, result.getUnmatched());
+        assertEquals(1L, result.getItems().get(0).getFundId());
+    }
+
+    @Test
+    void resolveFunds_ShouldRejectEmptyRequest() {
+        assertThrows(BusinessRuleViolationException.class, () -> service.resolveFunds(List.of()));
+        verifyNoInteractions(fundAliasRepository);
+    }
+
+    @Test
+    void getFundPage_ShouldSelectOnlyIdAndNameAndReturnNextCursor() {
+        when(fundRepository.findFirstNameOnlyPage(any(Pageable.class))).thenReturn(List.of(
+                new FundRow(1L, "Alpha"), new FundRow(2L, "Beta"), new FundRow(3L, "Gamma")));
+
+        PageableResponseDTO<MasterDataDTO> page = service.getFundPage(null, 2, "id, name");
+
+        assertEquals(2, page.getContent().size());
+        assertEquals("Beta", page.getContent().get(1).getName());
+        assertEquals(new NameKeysetCursor("Beta").encode(), page.getNextCursor());
+        assertFalse(page.isLast());
+        verify(fundRepository, never()).findFirstNamePage(any());
+    }
+
+    @Test
+    void getFundPage_ShouldContinueAfterCursorWithRequestedFields() {
+        Instant updated = Instant.parse("2024-01-01T00:00:00Z");
+        when(fundRepository.findNamePageAfter(eq("Beta"), any(Pageable.class))).thenReturn(List.of(
+                new FundRow(3L, "Gamma", updated, updated)));
+
+        PageableResponseDTO<MasterDataDTO> page = service.getFundPage(new NameKeysetCursor("Beta").encode(), 2,
+                "name,updatedAt");
+
+        MasterDataDTO fund = page.getContent().get(0);
+        assertNull(fund.getId());
+        assertNull(fund.getCreatedAt());
+        assertEquals(updated, fund.getUpdatedAt());
+        assertNull(page.getNextCursor());
+        assertTrue(page.isLast());
+    }
+
+    @Test
+    void getFundPage_ShouldRejectUnknownFieldAndBadSize() {
+        assertThrows(BusinessRuleViolationException.class, () -> service.getFundPage(null, 10, "id,aliases"));
+        assertThrows(BusinessRuleViolationException.class, () -> service.getFundPage(null, 501, null));
+        verifyNoInteractions(fundRepository);
+    }
 }
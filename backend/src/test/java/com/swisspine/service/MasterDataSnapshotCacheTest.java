@@ -0,0 +1,84 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.dto.MasterDataDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MasterDataSnapshotCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MasterDataSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new MasterDataSnapshotCache(meterRegistry);
+    }
+
+    @Test
+    void get_ShouldBuildOnceAndCountHits() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(MasterDataType.FUND, () -> {
+            loads.incrementAndGet();
+            return List.of(dto("Fund A"), dto("Fund B"));
+        });
+        List<MasterDataDTO> result = cache.get(MasterDataType.FUND, () -> fail("snapshot should be served"));
+
+        assertEquals(2, result.size());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, counter("swisspine.masterdata.snapshot.hits"));
+        assertEquals(1.0, counter("swisspine.masterdata.snapshot.rebuilds"));
+        assertEquals(2.0, meterRegistry.get("swisspine.masterdata.snapshot.size").tag("type", "funds").gauge().value());
+    }
+
+    @Test
+    void onMasterDataChanged_ShouldBumpVersionAndRebuildOnNextRead() {
+        cache.get(MasterDataType.FUND, () -> List.of(dto("Fund A")));
+
+        cache.onMasterDataChanged(new MasterDataChangedEvent(MasterDataType.FUND));
+        List<MasterDataDTO> result = cache.get(MasterDataType.FUND, () -> List.of(dto("Fund A"), dto("Fund B")));
+
+        assertEquals(2, result.size());
+        assertEquals(1L, cache.version(MasterDataType.FUND));
+        assertEquals(0L, cache.version(MasterDataType.RUN_NAME), "other types are unaffected");
+    }
+
+    @Test
+    void get_ShouldNotInstallListLoadedBeforeConcurrentChange() {
+        // A change is committed while the first read is still loading
+        List<MasterDataDTO> stale = cache.get(MasterDataType.FUND, () -> {
+            cache.invalidate(MasterDataType.FUND);
+            return List.of(dto("Fund A"));
+        });
+
+        List<MasterDataDTO> fresh = cache.get(MasterDataType.FUND, () -> List.of(dto("Fund A"), dto("Fund B")));
+
+        assertEquals(1, stale.size());
+        assertEquals(2, fresh.size());
+        assertEquals(1.0, counter("swisspine.masterdata.snapshot.rebuilds"));
+    }
+
+    @Test
+    void get_ShouldReturnUnmodifiableSnapshot() {
+        List<MasterDataDTO> result = cache.get(MasterDataType.RUN_NAME, () -> new ArrayList<>(List.of(dto("Daily"))));
+
+        assertThrows(UnsupportedOperationException.class, () -> result.add(dto("Weekly")));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("type", "funds").counter().count();
+    }
+
+    private static MasterDataDTO dto(String name) {
+        return MasterDataDTO.builder().name(name).build();
+    }
+}
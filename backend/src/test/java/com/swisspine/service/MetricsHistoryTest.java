@@ -0,0 +1,132 @@
+package com.swisspine.service;
+
+import com.swisspine.dto.PerformanceHistoryDTO;
+import com.swisspine.exception.BusinessRuleViolationException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsHistoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // No pool behind this DataSource; pool series stay 0
+        dataSource = (DataSource) java.lang.reflect.Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[] { DataSource.class },
+                (proxy, method, args) -> method.getName().equals("isWrapperFor") ? false : null);
+    }
+
+    @Test
+    void getHistory_ShouldReturnPerSecondSamples() {
+        // Arrange
+        MetricsHistory history = history(Duration.ofHours(1), 32);
+        Timer planners = requests("GET", "/api/planners");
+        history.sample(100);
+        record(planners, 10, 20);
+        history.sample(101);
+
+        // Act
+        PerformanceHistoryDTO result = history.getHistory(Instant.ofEpochSecond(100), 1);
+
+        // Assert
+        assertArrayEquals(new long[] { 100, 101 }, result.getTimestamps());
+        assertEquals(1L, result.getStep());
+        assertTrue(result.getSeries().get("threadCount")[1] > 0);
+        assertTrue(result.getSeries().get("heapUsedMb")[1] > 0);
+        assertArrayEquals(new double[] { 0, 0 }, result.getSeries().get("poolActive"));
+        PerformanceHistoryDTO.EndpointHistory endpoint = result.getEndpoints().get("GET /api/planners");
+        assertArrayEquals(new double[] { 0, 10 }, endpoint.getThroughput(), 0.001);
+        assertArrayEquals(new double[] { 0, 20 }, endpoint.getAvgResponseTime(), 0.001);
+    }
+
+    @Test
+    void getHistory_ShouldAverageSamplesIntoSteps() {
+        // Arrange: 10 requests at 20 ms, then 30 at 40 ms
+        MetricsHistory history = history(Duration.ofHours(1), 32);
+        Timer planners = requests("GET", "/api/planners");
+        history.sample(100);
+        record(planners, 10, 20);
+        history.sample(101);
+        record(planners, 30, 40);
+        history.sample(102);
+
+        // Act
+        PerformanceHistoryDTO result = history.getHistory(Instant.ofEpochSecond(101), 2);
+
+        // Assert
+        assertArrayEquals(new long[] { 101 }, result.getTimestamps());
+        PerformanceHistoryDTO.EndpointHistory endpoint = result.getEndpoints().get("GET /api/planners");
+        assertEquals(20.0, endpoint.getThroughput()[0], 0.001);
+        assertEquals(35.0, endpoint.getAvgResponseTime()[0], 0.001, "weighted by requests");
+    }
+
+    @Test
+    void getHistory_ShouldServeMinuteSamplesForLongSteps() {
+        // Arrange: one request per second for a minute
+        MetricsHistory history = history(Duration.ofSeconds(10), 32);
+        Timer planners = requests("GET", "/api/planners");
+        for (long second = 60; second <= 120; second++) {
+            record(planners, 1, 5);
+            history.sample(second);
+        }
+
+        // Act
+        PerformanceHistoryDTO result = history.getHistory(Instant.ofEpochSecond(0), 60);
+
+        // Assert: the minute starting at 60 is complete, 120 is still open
+        assertArrayEquals(new long[] { 60 }, result.getTimestamps());
+        assertEquals(1.0, result.getEndpoints().get("GET /api/planners").getThroughput()[0], 0.001);
+        assertEquals(5.0, result.getEndpoints().get("GET /api/planners").getAvgResponseTime()[0], 0.001);
+        assertEquals(10, history.getHistory(Instant.ofEpochSecond(0), 1).getTimestamps().length,
+                "the per-second ring keeps only its window");
+    }
+
+    @Test
+    void getHistory_ShouldTrackEndpointsUpToLimit() {
+        MetricsHistory history = history(Duration.ofHours(1), 1);
+        requests("GET", "/api/planners");
+        requests("GET", "/api/planners/{id}");
+        history.sample(100);
+
+        PerformanceHistoryDTO result = history.getHistory(Instant.ofEpochSecond(100), 1);
+
+        assertEquals(1, result.getEndpoints().size());
+        assertTrue(result.getEndpoints().containsKey("GET /api/planners"));
+    }
+
+    @Test
+    void getHistory_ShouldRejectStepBelowOneSecond() {
+        MetricsHistory history = history(Duration.ofHours(1), 32);
+
+        assertThrows(BusinessRuleViolationException.class, () -> history.getHistory(null, 0));
+    }
+
+    private MetricsHistory history(Duration fineWindow, int maxEndpoints) {
+        return new MetricsHistory(meterRegistry, dataSource, fineWindow, Duration.ofDays(1), maxEndpoints);
+    }
+
+    private Timer requests(String method, String uri) {
+        return Timer.builder(EndpointStatisticsCollector.REQUESTS_METER)
+                .tags("method", method, "uri", uri, "status", "200", "outcome", "SUCCESS", "exception", "none")
+                .register(meterRegistry);
+    }
+
+    private void record(Timer timer, int times, long millis) {
+        for (int i = 0; i < times; i++) {
+            timer.record(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
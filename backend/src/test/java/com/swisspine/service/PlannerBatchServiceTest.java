@@ -0,0 +1,198 @@
+package com.swisspine.service;
+
+import com.swisspine.common.BaseEntity;
+import com.swisspine.dto.PlannerBatchResultDTO;
+import com.swisspine.dto.PlannerBatchResultDTO.ItemStatus;
+import com.swisspine.dto.PlannerDTO;
+import com.swisspine.dto.PlannerFundDTO;
+import com.swisspine.dto.PlannerReportDTO;
+import com.swisspine.dto.PlannerRunDTO;
+import com.swisspine.dto.PlannerSourceDTO;
+import com.swisspine.entity.Fund;
+import com.swisspine.entity.FundAlias;
+import com.swisspine.entity.RunName;
+import com.swisspine.entity.SourceName;
+import com.swisspine.exception.BusinessRuleViolationException;
+import com.swisspine.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlannerBatchServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ExternalConnectionRepository connectionRepository;
+
+    @Mock
+    private FundRepository fundRepository;
+
+    @Mock
+    private FundAliasRepository fundAliasRepository;
+
+    @Mock
+    private SourceNameRepository sourceNameRepository;
+
+    @Mock
+    private RunNameRepository runNameRepository;
+
+    @Mock
+    private ReportTypeRepository reportTypeRepository;
+
+    @Mock
+    private ReportNameRepository reportNameRepository;
+
+    @InjectMocks
+    private PlannerBatchService batchService;
+
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any()))
+                .thenAnswer(invocation -> {
+                    int blocks = invocation.getArgument(2);
+                    return LongStream.range(0, blocks)
+                            .map(i -> sequence.addAndGet(BaseEntity.ID_ALLOCATION_SIZE))
+                            .boxed().toList();
+                });
+    }
+
+    @Test
+    void createAll_ShouldInsertGraphWithOneBatchPerTable() {
+        // Arrange
+        Fund fund = new Fund();
+        fund.setId(1L);
+        FundAlias alias = new FundAlias();
+        alias.setId(2L);
+        alias.setFund(fund);
+        SourceName sourceName = new SourceName();
+        sourceName.setId(3L);
+        RunName runName = new RunName();
+        runName.setId(4L);
+        when(fundRepository.findAllById(any())).thenReturn(List.of(fund));
+        when(fundAliasRepository.findAllById(any())).thenReturn(List.of(alias));
+        when(sourceNameRepository.findAllById(any())).thenReturn(List.of(sourceName));
+        when(runNameRepository.findAllById(any())).thenReturn(List.of(runName));
+
+        PlannerSourceDTO source = PlannerSourceDTO.builder()
+                .sourceNameId(3L)
+                .runs(List.of(PlannerRunDTO.builder().runNameId(4L).build(), PlannerRunDTO.builder().runNameId(4L).build()))
+                .reports(List.of(PlannerReportDTO.builder().build()))
+                .build();
+        PlannerDTO first = PlannerDTO.builder()
+                .name("First")
+                .funds(List.of(PlannerFundDTO.builder().fundId(1L).fundAliasId(2L).build()))
+                .sources(List.of(source))
+                .build();
+        PlannerDTO second = PlannerDTO.builder().name("Second").status("Finished").build();
+
+        // Act
+        PlannerBatchResultDTO result = batchService.createAll(List.of(first, second));
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getItems().stream().allMatch(item -> item.getStatus() == ItemStatus.CREATED));
+        assertEquals(1L, result.getItems().get(0).getId());
+        assertEquals(2L, result.getItems().get(1).getId(), "ids come from one pooled block");
+        verify(fundRepository, times(1)).findAllById(any());
+        verify(transactionTemplate, times(1)).execute(any());
+
+        ArgumentCaptor<List<Object[]>> planners = rowsCaptor();
+        verify(jdbcTemplate).batchUpdate(eq(PlannerBatchService.INSERT_PLANNER), planners.capture(), any(int[].class));
+        assertEquals(2, planners.getValue().size());
+        assertEquals("Draft", planners.getValue().get(0)[5]);
+        assertNotNull(planners.getValue().get(1)[6], "finished_at is set for Finished planners");
+
+        ArgumentCaptor<List<Object[]>> runs = rowsCaptor();
+        verify(jdbcTemplate).batchUpdate(eq(PlannerBatchService.INSERT_RUN), runs.capture(), any(int[].class));
+        assertEquals(2, runs.getValue().size());
+        assertEquals(1, runs.getValue().get(1)[3], "display order defaults to list position");
+    }
+
+    @Test
+    void createAll_ShouldFailOnlyItemsWithUnknownReferences() {
+        // Arrange
+        when(fundRepository.findAllById(any())).thenReturn(List.of());
+        PlannerDTO valid = PlannerDTO.builder().name("Valid").build();
+        PlannerDTO invalid = PlannerDTO.builder()
+                .name("Invalid")
+                .funds(List.of(PlannerFundDTO.builder().fundId(99L).build()))
+                .build();
+        PlannerDTO unnamed = PlannerDTO.builder().name(" ").build();
+
+        // Act
+        PlannerBatchResultDTO result = batchService.createAll(List.of(valid, invalid, unnamed));
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(ItemStatus.CREATED, result.getItems().get(0).getStatus());
+        assertEquals("Fund with ID 99 not found", result.getItems().get(1).getError());
+        assertEquals("Planner name is required", result.getItems().get(2).getError());
+    }
+
+    @Test
+    void createAll_ShouldRetryFailedChunkItemByItem() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(eq(PlannerBatchService.INSERT_PLANNER), anyList(), any(int[].class)))
+                .thenAnswer(invocation -> {
+                    List<Object[]> rows = invocation.getArgument(1);
+                    if (rows.stream().anyMatch(row -> "Broken".equals(row[1]))) {
+                        throw new DataIntegrityViolationException("value too long");
+                    }
+                    return new int[rows.size()];
+                });
+
+        // Act
+        PlannerBatchResultDTO result = batchService.createAll(List.of(
+                PlannerDTO.builder().name("Good").build(),
+                PlannerDTO.builder().name("Broken").build()));
+
+        // Assert
+        assertEquals(ItemStatus.CREATED, result.getItems().get(0).getStatus());
+        assertEquals(ItemStatus.FAILED, result.getItems().get(1).getStatus());
+        assertEquals("value too long", result.getItems().get(1).getError());
+        // One chunk attempt plus one transaction per item
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void createAll_ShouldRejectEmptyBatch() {
+        assertThrows(BusinessRuleViolationException.class, () -> batchService.createAll(List.of()));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static ArgumentCaptor<List<Object[]>> rowsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.swisspine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.common.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlannerExportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PlannerExportService exportService;
+
+    private final Instant createdAt = Instant.parse("2025-01-01T10:00:00Z");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exportService = new PlannerExportService(jdbcTemplate, objectMapper);
+
+        // Two rows: one with a connection, one without
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        when(resultSet.getString(2)).thenReturn("Alpha", "Beta, \"quoted\"");
+        when(resultSet.getString(3)).thenReturn(null, "multi\nline");
+        when(resultSet.getString(4)).thenReturn("Standard", (String) null);
+        when(resultSet.getString(5)).thenReturn("Draft", "Finished");
+        when(resultSet.getTimestamp(6)).thenReturn(null, Timestamp.from(createdAt));
+        when(resultSet.getTimestamp(7)).thenReturn(Timestamp.from(createdAt));
+        when(resultSet.getTimestamp(8)).thenReturn(Timestamp.from(createdAt));
+        when(resultSet.getLong(9)).thenReturn(0L, 3L);
+        when(resultSet.getLong(10)).thenReturn(7L, 0L);
+        when(resultSet.wasNull()).thenReturn(false, false, false, true);
+        when(resultSet.getString(11)).thenReturn("Bloomberg", (String) null);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void export_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(null, ExportFormat.NDJSON, out);
+
+        // Assert
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("Alpha", first.get("name").asText());
+        assertEquals(7, first.get("externalSystemConfigId").asLong());
+        assertEquals("2025-01-01T10:00:00Z", first.get("createdAt").asText());
+        assertFalse(first.has("description"), "SQL NULLs are omitted");
+
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals("multi\nline", second.get("description").asText());
+        assertFalse(second.has("externalSystemConfigId"));
+    }
+
+    @Test
+    void export_ShouldWriteCsvWithHeaderAndEscaping() throws Exception {
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(null, ExportFormat.CSV, out);
+
+        // Assert
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith(String.join(",", PlannerExportService.COLUMNS) + "\r\n"));
+        assertTrue(csv.contains("1,Alpha,,Standard,Draft,,2025-01-01T10:00:00Z,2025-01-01T10:00:00Z,0,7,Bloomberg\r\n"));
+        assertTrue(csv.contains("2,\"Beta, \"\"quoted\"\"\",\"multi\nline\",,Finished,"));
+    }
+
+    @Test
+    void export_ShouldUseForwardOnlyCursorWithFetchSizeAndStatusFilter() throws Exception {
+        // Arrange
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+
+        // Act
+        exportService.export(" Draft ", ExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        // Assert
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+        creator.getValue().createPreparedStatement(connection);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture(), eq(ResultSet.TYPE_FORWARD_ONLY),
+                eq(ResultSet.CONCUR_READ_ONLY));
+        assertTrue(sql.getValue().contains("WHERE p.status = ?"));
+        verify(statement).setFetchSize(PlannerExportService.FETCH_SIZE);
+        verify(statement).setString(1, "Draft");
+    }
+}
@@ -0,0 +1,223 @@
+package com.swisspine.service;
+
+import com.swisspine.dto.PlannerDTO;
+import com.swisspine.dto.PlannerFundDTO;
+import com.swisspine.dto.PlannerReportDTO;
+import com.swisspine.dto.PlannerRunDTO;
+import com.swisspine.dto.PlannerSourceDTO;
+import com.swisspine.entity.*;
+import com.swisspine.exception.BusinessRuleViolationException;
+import com.swisspine.exception.ResourceNotFoundException;
+import com.swisspine.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlannerGraphUpdaterTest {
+
+    @Mock
+    private PlannerFundRepository plannerFundRepository;
+
+    @Mock
+    private PlannerSourceRepository plannerSourceRepository;
+
+    @Mock
+    private PlannerRunRepository plannerRunRepository;
+
+    @Mock
+    private PlannerReportRepository plannerReportRepository;
+
+    @Mock
+    private FundRepository fundRepository;
+
+    @Mock
+    private FundAliasRepository fundAliasRepository;
+
+    @Mock
+    private SourceNameRepository sourceNameRepository;
+
+    @Mock
+    private RunNameRepository runNameRepository;
+
+    @Mock
+    private ReportTypeRepository reportTypeRepository;
+
+    @Mock
+    private ReportNameRepository reportNameRepository;
+
+    @InjectMocks
+    private PlannerGraphUpdater graphUpdater;
+
+    private Planner planner;
+    private Fund fund;
+    private SourceName sourceName;
+    private RunName runName;
+    private PlannerFund storedFund;
+    private PlannerSource storedSource;
+    private PlannerRun storedRun;
+
+    @BeforeEach
+    void setUp() {
+        planner = Planner.builder().name("Graph").build();
+        planner.setId(1L);
+        fund = Fund.builder().name("Fund A").build();
+        fund.setId(100L);
+        sourceName = SourceName.builder().name("Bloomberg").build();
+        sourceName.setId(200L);
+        runName = RunName.builder().name("Daily EOD").build();
+        runName.setId(300L);
+
+        storedFund = PlannerFund.builder().planner(planner).fund(fund).build();
+        storedFund.setId(10L);
+        storedSource = PlannerSource.builder().planner(planner).sourceName(sourceName).displayOrder(0).build();
+        storedSource.setId(20L);
+        storedRun = PlannerRun.builder().plannerSource(storedSource).runName(runName).displayOrder(0).build();
+        storedRun.setId(30L);
+
+        lenient().when(plannerFundRepository.findByPlannerIdIn(List.of(1L))).thenReturn(List.of(storedFund));
+        lenient().when(plannerSourceRepository.findByPlannerIdIn(List.of(1L))).thenReturn(List.of(storedSource));
+        lenient().when(plannerRunRepository.findByPlannerSourceIdIn(List.of(20L))).thenReturn(List.of(storedRun));
+        lenient().when(plannerReportRepository.findByPlannerSourceIdIn(List.of(20L))).thenReturn(List.of());
+        lenient().when(fundRepository.findAllById(any())).thenReturn(List.of(fund));
+        lenient().when(sourceNameRepository.findAllById(any())).thenReturn(List.of(sourceName));
+        lenient().when(runNameRepository.findAllById(any())).thenReturn(List.of(runName));
+    }
+
+    @Test
+    void apply_ShouldWriteNoChildRows_WhenGraphUnchanged() {
+        // Arrange
+        PlannerDTO dto = PlannerDTO.builder()
+                .funds(List.of(PlannerFundDTO.builder().id(10L).fundId(100L).build()))
+                .sources(List.of(PlannerSourceDTO.builder().id(20L).sourceNameId(200L).displayOrder(0)
+                        .runs(List.of(PlannerRunDTO.builder().id(30L).runNameId(300L).displayOrder(0).build()))
+                        .reports(List.of())
+                        .build()))
+                .build();
+
+        // Act
+        PlannerGraphUpdater.PlannerGraph graph = graphUpdater.apply(planner, dto);
+
+        // Assert
+        assertSame(storedFund, graph.funds().get(0));
+        assertSame(storedRun, graph.runs().get(storedSource).get(0));
+        assertNull(storedFund.getFundAlias());
+        assertSame(sourceName, storedSource.getSourceName());
+        assertEquals(0, storedRun.getDisplayOrder());
+        verify(plannerFundRepository, never()).saveAll(any());
+        verify(plannerFundRepository, never()).deleteAllByIdInBatch(any());
+        verify(plannerSourceRepository, never()).saveAll(any());
+        verify(plannerSourceRepository, never()).deleteAllByIdInBatch(any());
+        verify(plannerRunRepository, never()).saveAll(any());
+        verify(plannerRunRepository, never()).deleteAllByIdInBatch(any());
+        verify(plannerReportRepository, never()).saveAll(any());
+        verify(plannerReportRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void apply_ShouldInsertUpdateAndDeleteOnlyTheDifferences() {
+        // Arrange
+        Fund otherFund = Fund.builder().name("Fund B").build();
+        otherFund.setId(101L);
+        when(fundRepository.findAllById(any())).thenReturn(List.of(otherFund));
+        RunName weekly = RunName.builder().name("Weekly").build();
+        weekly.setId(301L);
+        when(runNameRepository.findAllById(any())).thenReturn(List.of(weekly));
+        ReportType reportType = ReportType.builder().name("Risk").build();
+        reportType.setId(400L);
+        when(reportTypeRepository.findAllById(any())).thenReturn(List.of(reportType));
+
+        // Fund 100 is replaced by fund 101; the source is matched by display
+        // order, its run renamed and a report added
+        PlannerDTO dto = PlannerDTO.builder()
+                .funds(List.of(PlannerFundDTO.builder().fundId(101L).build()))
+                .sources(List.of(PlannerSourceDTO.builder().sourceNameId(200L).displayOrder(0)
+                        .runs(List.of(PlannerRunDTO.builder().runNameId(301L).build()))
+                        .reports(List.of(PlannerReportDTO.builder().reportTypeId(400L).build()))
+                        .build()))
+                .build();
+
+        // Act
+        PlannerGraphUpdater.PlannerGraph graph = graphUpdater.apply(planner, dto);
+
+        // Assert
+        verify(plannerFundRepository).deleteAllByIdInBatch(List.of(10L));
+        ArgumentCaptor<List<PlannerFund>> newFunds = listCaptor();
+        verify(plannerFundRepository).saveAll(newFunds.capture());
+        assertSame(otherFund, newFunds.getValue().get(0).getFund());
+
+        assertSame(weekly, storedRun.getRunName(), "matched run is updated in place");
+        verify(plannerRunRepository, never()).saveAll(any());
+        verify(plannerSourceRepository, never()).saveAll(any());
+        verify(plannerSourceRepository, never()).deleteAllByIdInBatch(any());
+
+        ArgumentCaptor<List<PlannerReport>> newReports = listCaptor();
+        verify(plannerReportRepository).saveAll(newReports.capture());
+        assertSame(storedSource, newReports.getValue().get(0).getPlannerSource());
+        assertEquals(1, graph.reports().get(storedSource).size());
+    }
+
+    @Test
+    void apply_ShouldDeleteRemovedSourcesAndInsertNewOnesWithChildren() {
+        // Arrange
+        PlannerDTO dto = PlannerDTO.builder()
+                .sources(List.of(PlannerSourceDTO.builder().sourceNameId(200L).displayOrder(5)
+                        .runs(List.of(PlannerRunDTO.builder().runNameId(300L).build()))
+                        .build()))
+                .build();
+
+        // Act
+        PlannerGraphUpdater.PlannerGraph graph = graphUpdater.apply(planner, dto);
+
+        // Assert
+        verify(plannerSourceRepository).deleteAllByIdInBatch(List.of(20L));
+        ArgumentCaptor<List<PlannerSource>> newSources = listCaptor();
+        verify(plannerSourceRepository).saveAll(newSources.capture());
+        PlannerSource created = newSources.getValue().get(0);
+        assertEquals(1, created.getRuns().size(), "runs of a new source are cascaded");
+        // Runs of the removed source go with it through ON DELETE CASCADE
+        verify(plannerRunRepository, never()).deleteAllByIdInBatch(any());
+        verify(plannerRunRepository, never()).saveAll(any());
+        assertFalse(graph.runs().containsKey(storedSource));
+        assertSame(storedFund, graph.funds().get(0), "funds are untouched when not sent");
+        verify(plannerFundRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void apply_ShouldRejectChildOfAnotherPlanner() {
+        PlannerDTO dto = PlannerDTO.builder()
+                .sources(List.of(PlannerSourceDTO.builder().id(99L).sourceNameId(200L).build()))
+                .build();
+
+        BusinessRuleViolationException error = assertThrows(BusinessRuleViolationException.class,
+                () -> graphUpdater.apply(planner, dto));
+        assertEquals("Planner source with ID 99 does not belong to planner 1", error.getMessage());
+        verify(plannerSourceRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void apply_ShouldRejectUnknownReference() {
+        when(fundRepository.findAllById(any())).thenReturn(List.of());
+        PlannerDTO dto = PlannerDTO.builder()
+                .funds(List.of(PlannerFundDTO.builder().fundId(999L).build()))
+                .build();
+
+        assertThrows(ResourceNotFoundException.class, () -> graphUpdater.apply(planner, dto));
+        verify(plannerFundRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> ArgumentCaptor<List<T>> listCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
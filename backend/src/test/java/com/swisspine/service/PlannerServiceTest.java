@@ -1,13 +1,21 @@
 package com.swisspine.service;
 
+import com.swisspine.common.CountMode;
+import com.swisspine.common.KeysetCursor;
+import com.swisspine.common.ResourceVersion;
 import com.swisspine.dto.PageableResponseDTO;
+import com.swisspine.dto.PlannerAggregatesDTO;
 import com.swisspine.dto.PlannerDTO;
-import com.swisspine.entity.Planner;
+import com.swisspine.entity.*;
+import com.swisspine.exception.BusinessRuleViolationException;
 import com.swisspine.exception.ResourceNotFoundException;
-import com.swisspine.repository.ExternalConnectionRepository;
-import com.swisspine.repository.PlannerRepository;
+import com.swisspine.repository.*;
+import com.swisspine.repository.projection.PlannerAggregateView;
+import com.swisspine.repository.projection.PlannerListRow;
+import com.swisspine.repository.projection.PlannerVersionRow;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,11 +23,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,16 +45,30 @@ class PlannerServiceTest {
     @Mock
     private ExternalConnectionRepository connectionRepository;
 
+    @Mock
+    private PlannerFundRepository plannerFundRepository;
+
+    @Mock
+    private PlannerSourceRepository plannerSourceRepository;
+
+    @Mock
+    private PlannerRunRepository plannerRunRepository;
+
+    @Mock
+    private PlannerReportRepository plannerReportRepository;
+
+    @Mock
+    private PlannerGraphUpdater graphUpdater;
+
     @InjectMocks
     private PlannerService plannerService;
 
     @Test
     void findAll_ShouldReturnPagedResults() {
         // Arrange
-        Planner planner = Planner.builder().name("Test Planner").build();
-        planner.setId(1L);
-        Page<Planner> page = new PageImpl<>(Collections.singletonList(planner));
-        when(repository.findAll(any(Pageable.class))).thenReturn(page);
+        PlannerListRow row = listRow(1L, "Test Planner", Instant.now(), 7L);
+        Page<PlannerListRow> page = new PageImpl<>(Collections.singletonList(row));
+        when(repository.findListPage(isNull(), any(Pageable.class))).thenReturn(page);
 
         // Act
         PageableResponseDTO<PlannerDTO> result = plannerService.findAll(null, 0, 10);
@@ -48,25 +76,57 @@ class PlannerServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        assertEquals("Test Planner", result.getContent().get(0).getName());
+        PlannerDTO dto = result.getContent().get(0);
+        assertEquals("Test Planner", dto.getName());
+        assertEquals(7L, dto.getExternalSystemConfigId());
+        assertEquals("Connection 7", dto.getExternalSystemConfig().getName());
+        verify(connectionRepository, never()).findById(any());
     }
 
     @Test
     void search_ShouldInvokeSearchRepositoryMethod() {
         // Arrange
         String query = "finance";
-        Planner planner = Planner.builder().name("Finance Plan").build();
-        planner.setId(1L);
-        Page<Planner> page = new PageImpl<>(Collections.singletonList(planner));
-        when(repository.searchByName(eq(query), any(Pageable.class))).thenReturn(page);
+        PlannerListRow row = listRow(1L, "Finance Plan", Instant.now(), null);
+        Page<PlannerListRow> page = new PageImpl<>(Collections.singletonList(row));
+        when(repository.searchListPage(eq("%finance%"), eq("Draft"), any(Pageable.class))).thenReturn(page);
 
         // Act
-        PageableResponseDTO<PlannerDTO> result = plannerService.search(query, null, 0, 10);
+        PageableResponseDTO<PlannerDTO> result = plannerService.search(query, "Draft", 0, 10);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getSize());
-        verify(repository).searchByName(eq(query), any(Pageable.class));
+        assertNull(result.getContent().get(0).getExternalSystemConfig());
+        verify(repository).searchListPage(eq("%finance%"), eq("Draft"), any(Pageable.class));
+    }
+
+    @Test
+    void searchRanked_ShouldRankByNormalizedTerm() {
+        // Arrange
+        PlannerListRow row = listRow(1L, "Global Equity Planner", Instant.now(), null);
+        when(repository.searchRankedListPage(eq("%equity%"), eq("equity"), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(row)));
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.searchRanked(" Equity ", null, 0, 10);
+
+        // Assert
+        assertEquals("Global Equity Planner", result.getContent().get(0).getName());
+    }
+
+    @Test
+    void searchByCursor_ShouldUsePrefixPattern_ForShortTerms() {
+        // Arrange
+        when(repository.searchFirstKeysetPage(eq("gl%"), isNull(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.searchByCursor("Gl", null, "", 10);
+
+        // Assert
+        assertTrue(result.isLast());
+        verify(repository).searchFirstKeysetPage(eq("gl%"), isNull(), any(Pageable.class));
     }
 
     @Test
@@ -95,6 +155,76 @@ class PlannerServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> plannerService.findById(id));
     }
 
+    @Test
+    void findFullById_ShouldAssembleGraphWithOneQueryPerLevel() {
+        // Arrange
+        Long id = 1L;
+        Planner planner = Planner.builder().name("Graph").build();
+        planner.setId(id);
+        when(repository.findWithRelationsById(id)).thenReturn(Optional.of(planner));
+
+        Fund fund = Fund.builder().name("Fund A").build();
+        fund.setId(20L);
+        PlannerFund plannerFund = PlannerFund.builder().planner(planner).fund(fund).build();
+        plannerFund.setId(2L);
+        when(plannerFundRepository.findByPlannerIdIn(List.of(id))).thenReturn(List.of(plannerFund));
+
+        SourceName sourceName = SourceName.builder().name("Bloomberg").build();
+        sourceName.setId(30L);
+        PlannerSource first = PlannerSource.builder().planner(planner).sourceName(sourceName).displayOrder(1).build();
+        first.setId(3L);
+        PlannerSource second = PlannerSource.builder().planner(planner).displayOrder(2).build();
+        second.setId(4L);
+        when(plannerSourceRepository.findByPlannerIdIn(List.of(id))).thenReturn(List.of(first, second));
+
+        RunName runName = RunName.builder().name("Daily EOD").build();
+        runName.setId(40L);
+        PlannerRun run = PlannerRun.builder().plannerSource(first).runName(runName).displayOrder(1).build();
+        run.setId(5L);
+        when(plannerRunRepository.findByPlannerSourceIdIn(List.of(3L, 4L))).thenReturn(List.of(run));
+
+        ReportType reportType = ReportType.builder().name("Risk").build();
+        reportType.setId(50L);
+        ReportName reportName = ReportName.builder().name("VaR").reportType(reportType).build();
+        reportName.setId(60L);
+        PlannerReport report = PlannerReport.builder()
+                .plannerSource(second).reportType(reportType).reportName(reportName).displayOrder(1).build();
+        report.setId(6L);
+        when(plannerReportRepository.findByPlannerSourceIdIn(List.of(3L, 4L))).thenReturn(List.of(report));
+
+        // Act
+        PlannerDTO result = plannerService.findFullById(id);
+
+        // Assert
+        assertEquals(1, result.getFunds().size());
+        assertEquals("Fund A", result.getFunds().get(0).getFundName());
+        assertEquals(2, result.getSources().size());
+        assertEquals("Bloomberg", result.getSources().get(0).getSourceName());
+        assertEquals("Daily EOD", result.getSources().get(0).getRuns().get(0).getRunName());
+        assertTrue(result.getSources().get(0).getReports().isEmpty());
+        assertTrue(result.getSources().get(1).getRuns().isEmpty());
+        assertEquals("VaR", result.getSources().get(1).getReports().get(0).getReportName());
+        assertEquals(50L, result.getSources().get(1).getReports().get(0).getReportTypeId());
+    }
+
+    @Test
+    void findFullById_ShouldSkipChildQueries_WhenNoSources() {
+        // Arrange
+        Long id = 1L;
+        Planner planner = Planner.builder().name("Empty").build();
+        planner.setId(id);
+        when(repository.findWithRelationsById(id)).thenReturn(Optional.of(planner));
+        when(plannerFundRepository.findByPlannerIdIn(List.of(id))).thenReturn(List.of());
+        when(plannerSourceRepository.findByPlannerIdIn(List.of(id))).thenReturn(List.of());
+
+        // Act
+        PlannerDTO result = plannerService.findFullById(id);
+
+        // Assert
+        assertTrue(result.getSources().isEmpty());
+        verifyNoInteractions(plannerRunRepository, plannerReportRepository);
+    }
+
     @Test
     void create_ShouldSaveAndReturnPlanner() {
         // Arrange
@@ -113,6 +243,92 @@ class PlannerServiceTest {
         assertEquals("Draft", result.getStatus()); // Default value check
     }
 
+    @Test
+    void update_ShouldLeaveChildrenUntouched_WhenRequestHasNoChildren() {
+        // Arrange
+        Planner existing = Planner.builder().name("Old").status("Draft").build();
+        existing.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.save(existing)).thenReturn(existing);
+        PlannerDTO dto = PlannerDTO.builder().name("Renamed").status("Draft").build();
+
+        // Act
+        PlannerDTO result = plannerService.update(1L, dto);
+
+        // Assert
+        assertEquals("Renamed", result.getName());
+        assertNull(result.getFunds());
+        verifyNoInteractions(graphUpdater);
+    }
+
+    @Test
+    void update_ShouldApplyGraphDiffAndReturnFullGraph_WhenChildrenGiven() {
+        // Arrange
+        Planner existing = Planner.builder().name("Graph").status("Draft").build();
+        existing.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.save(existing)).thenReturn(existing);
+
+        Fund fund = Fund.builder().name("Fund A").build();
+        fund.setId(20L);
+        PlannerFund plannerFund = PlannerFund.builder().planner(existing).fund(fund).build();
+        PlannerSource source = PlannerSource.builder().planner(existing).displayOrder(0).build();
+        RunName runName = RunName.builder().name("Daily EOD").build();
+        runName.setId(40L);
+        PlannerRun run = PlannerRun.builder().plannerSource(source).runName(runName).build();
+        PlannerDTO dto = PlannerDTO.builder().name("Graph").status("Draft").funds(List.of()).build();
+        when(graphUpdater.apply(existing, dto)).thenReturn(new PlannerGraphUpdater.PlannerGraph(
+                List.of(plannerFund), List.of(source), Map.of(source, List.of(run)), Map.of(), true));
+
+        // Act
+        PlannerDTO result = plannerService.update(1L, dto);
+
+        // Assert
+        assertEquals("Fund A", result.getFunds().get(0).getFundName());
+        assertEquals("Daily EOD", result.getSources().get(0).getRuns().get(0).getRunName());
+        assertTrue(result.getSources().get(0).getReports().isEmpty());
+        assertNotNull(existing.getUpdatedAt(), "child changes touch the planner");
+    }
+
+    @Test
+    void getVersion_ShouldCombinePlannerAndConnectionVersions() {
+        // Arrange
+        Instant plannerUpdated = Instant.parse("2024-01-01T00:00:00Z");
+        Instant connectionUpdated = Instant.parse("2024-02-01T00:00:00Z");
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(
+                new PlannerVersionRow(3L, plannerUpdated, 7L, 2L, connectionUpdated)));
+
+        // Act
+        ResourceVersion version = plannerService.getVersion(1L);
+
+        // Assert
+        assertEquals("W/\"planner-1-v3.connection-7-v2\"", version.eTag());
+        assertEquals(connectionUpdated, version.lastModified());
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void getVersion_ShouldThrowException_WhenNotFound() {
+        when(repository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> plannerService.getVersion(99L));
+    }
+
+    @Test
+    void getListVersion_ShouldCombinePlannerAndConnectionChangeCounters() {
+        // Arrange
+        when(repository.findChangeCount()).thenReturn(4L);
+        when(connectionRepository.findChangeCount()).thenReturn(2L);
+
+        // Act
+        ResourceVersion version = plannerService.getListVersion();
+
+        // Assert
+        assertEquals("W/\"planners-c4.connections-c2\"", version.eTag());
+        assertNull(version.lastModified());
+        verify(repository, never()).count();
+    }
+
     @Test
     void delete_ShouldRemoveEntity_WhenExists() {
         // Arrange
@@ -125,4 +341,219 @@ class PlannerServiceTest {
         // Assert
         verify(repository).deleteById(id);
     }
+
+    @Test
+    void findAllByCursor_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        // Arrange
+        Instant now = Instant.parse("2025-01-01T10:00:00Z");
+        PlannerListRow first = listRow(3L, "First", now, null);
+        PlannerListRow second = listRow(2L, "Second", now.minusSeconds(60), null);
+        PlannerListRow lookAhead = listRow(1L, "Third", now.minusSeconds(120), null);
+        when(repository.findFirstKeysetPage(isNull(), any(Pageable.class)))
+                .thenReturn(List.of(first, second, lookAhead));
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.findAllByCursor(null, "", 2);
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isFirst());
+        assertFalse(result.isLast());
+        assertNull(result.getTotalElements());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(second.createdAt(), next.createdAt());
+        assertEquals(2L, next.id());
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void findAllByCursor_ShouldQueryAfterCursorPosition() {
+        // Arrange
+        Instant createdAt = Instant.parse("2025-01-01T10:00:00Z");
+        String cursor = new KeysetCursor(createdAt, 42L).encode();
+        when(repository.findKeysetPageAfter(eq("Draft"), eq(createdAt), eq(42L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.findAllByCursor(" Draft ", cursor, 20);
+
+        // Assert
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isFirst());
+        assertTrue(result.isLast());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void findAllByCursor_ShouldRejectMalformedCursor() {
+        assertThrows(BusinessRuleViolationException.class,
+                () -> plannerService.findAllByCursor(null, "not-a-cursor", 20));
+    }
+
+    @Test
+    void findAll_WithCountNone_ShouldSkipCountAndUseLookAheadRow() {
+        // Arrange
+        Instant now = Instant.parse("2025-01-01T10:00:00Z");
+        when(repository.findListRows(isNull(), any(Pageable.class)))
+                .thenReturn(List.of(listRow(3L, "A", now, null), listRow(2L, "B", now, null), listRow(1L, "C", now, null)));
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.findAll(null, 1, 2, CountMode.NONE);
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertFalse(result.isLast());
+        assertNull(result.getTotalElements());
+        assertNull(result.getTotalElementsExact());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findListRows(isNull(), pageable.capture());
+        assertEquals(2, pageable.getValue().getOffset());
+        assertEquals(3, pageable.getValue().getPageSize());
+        verify(repository, never()).estimateCount(any(), anyBoolean(), any(), anyLong());
+    }
+
+    @Test
+    void search_WithCountEstimate_ShouldReportEstimatedTotal() {
+        // Arrange: a look-ahead row means more pages follow
+        Instant now = Instant.now();
+        when(repository.searchListRows(eq("%fund%"), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(listRow(2L, "Fund Planner", now, null), listRow(1L, "Fund Planner 2", now, null)));
+        when(repository.estimateCount(eq("%fund%"), eq(false), isNull(), anyLong()))
+                .thenReturn(new PlannerRepositoryCustom.CountEstimate(25_000L, false));
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.search("fund", null, 0, 1, CountMode.ESTIMATE);
+
+        // Assert
+        assertEquals(25_000L, result.getTotalElements());
+        assertEquals(25_000, result.getTotalPages());
+        assertFalse(result.getTotalElementsExact());
+        assertFalse(result.isLast());
+        verify(repository, never()).searchListPage(any(), any(), any());
+    }
+
+    @Test
+    void findAll_WithCountEstimate_ShouldReportExactTotal_BelowThreshold() {
+        // Arrange
+        Instant now = Instant.now();
+        when(repository.findListRows(eq("Draft"), any(Pageable.class)))
+                .thenReturn(List.of(listRow(2L, "Draft Planner", now, null), listRow(1L, "Draft Planner 2", now, null)));
+        when(repository.estimateCount(isNull(), eq(false), eq("Draft"), anyLong()))
+                .thenReturn(new PlannerRepositoryCustom.CountEstimate(7L, true));
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.findAll("Draft", 0, 1, CountMode.ESTIMATE);
+
+        // Assert
+        assertEquals(7L, result.getTotalElements());
+        assertTrue(result.getTotalElementsExact());
+    }
+
+    @Test
+    void findAll_WithCountEstimate_ShouldTakeExactTotalFromLastPage() {
+        // Arrange
+        when(repository.findListRows(isNull(), any(Pageable.class)))
+                .thenReturn(List.of(listRow(1L, "Last Planner", Instant.now(), null)));
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.findAll(null, 2, 20, CountMode.ESTIMATE);
+
+        // Assert
+        assertEquals(41L, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        assertTrue(result.getTotalElementsExact());
+        assertTrue(result.isLast());
+        verify(repository, never()).estimateCount(any(), anyBoolean(), any(), anyLong());
+    }
+
+    @Test
+    void findAll_WithCountEstimate_ShouldNotInflateTotal_WhenPagePastEnd() {
+        // Arrange: page=100&size=20 on a 50-row table
+        when(repository.findListRows(isNull(), any(Pageable.class))).thenReturn(List.of());
+        when(repository.estimateCount(isNull(), eq(false), isNull(), anyLong()))
+                .thenReturn(new PlannerRepositoryCustom.CountEstimate(50L, true));
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.findAll(null, 100, 20, CountMode.ESTIMATE);
+
+        // Assert
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(50L, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        assertTrue(result.getTotalElementsExact());
+        assertTrue(result.isLast());
+    }
+
+    @Test
+    void findAll_ShouldFlagExactTotal_ByDefault() {
+        // Arrange
+        when(repository.findListPage(isNull(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        // Act
+        PageableResponseDTO<PlannerDTO> result = plannerService.findAll(null, 0, 20);
+
+        // Assert
+        assertTrue(result.getTotalElementsExact());
+    }
+
+    @Test
+    void countMode_ShouldRejectUnknownValue() {
+        assertEquals(CountMode.ESTIMATE, CountMode.from("Estimate"));
+        assertEquals(CountMode.EXACT, CountMode.from(null));
+        assertThrows(BusinessRuleViolationException.class, () -> CountMode.from("approx"));
+    }
+
+    @Test
+    void getAggregates_ShouldGroupRowsByDimension() {
+        // Arrange
+        when(repository.findAggregates()).thenReturn(List.of(
+                aggregate("connection", "7", "Bloomberg API", 3L),
+                aggregate("connection", "", null, 2L),
+                aggregate("planner_type", "Standard", null, 5L),
+                aggregate("status", "Draft", null, 4L),
+                aggregate("status", "Finished", null, 1L)));
+
+        // Act
+        PlannerAggregatesDTO result = plannerService.getAggregates();
+
+        // Assert
+        assertEquals(5L, result.getTotal());
+        assertEquals(2, result.getByStatus().size());
+        assertEquals("Standard", result.getByPlannerType().get(0).getKey());
+        assertEquals("Bloomberg API", result.getByConnection().get(0).getName());
+        assertNull(result.getByConnection().get(1).getKey(), "planners without a connection have a null key");
+        verify(repository, never()).count();
+    }
+
+    private static PlannerAggregateView aggregate(String dimension, String key, String name, Long count) {
+        return new PlannerAggregateView() {
+            @Override
+            public String getDimension() {
+                return dimension;
+            }
+
+            @Override
+            public String getGroupKey() {
+                return key;
+            }
+
+            @Override
+            public String getGroupName() {
+                return name;
+            }
+
+            @Override
+            public Long getPlannerCount() {
+                return count;
+            }
+        };
+    }
+
+    private static PlannerListRow listRow(Long id, String name, Instant createdAt, Long connectionId) {
+        return new PlannerListRow(id, name, null, null, "Draft", null, createdAt, createdAt, 0L,
+                connectionId,
+                connectionId != null ? "Connection " + connectionId : null,
+                connectionId != null ? "https://api.example.com" : null,
+                connectionId != null ? "API Key" : null);
+    }
 }
@@ -0,0 +1,70 @@
+package com.swisspine.service;
+
+import com.swisspine.common.MasterDataType;
+import com.swisspine.entity.Fund;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecondLevelCacheInvalidatorTest {
+
+    @Mock
+    private Cache entityCache;
+
+    @Mock
+    private org.hibernate.Cache hibernateCache;
+
+    private SecondLevelCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        // JDK proxies, as in StatisticsServiceTest, for the AutoCloseable factories
+        SessionFactory sessionFactory = (SessionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[] { SessionFactory.class },
+                (proxy, method, args) -> method.getName().equals("getCache") ? hibernateCache : null);
+        EntityManagerFactory entityManagerFactory = (EntityManagerFactory) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[] { EntityManagerFactory.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getCache" -> entityCache;
+                    case "unwrap" -> sessionFactory;
+                    default -> null;
+                });
+        invalidator = new SecondLevelCacheInvalidator(entityManagerFactory);
+    }
+
+    @Test
+    void onMasterDataChanged_ShouldEvictRegionAndQueries_OnBulkChange() {
+        invalidator.onMasterDataChanged(new MasterDataChangedEvent(MasterDataType.FUND));
+
+        verify(entityCache).evict(Fund.class);
+        verify(hibernateCache).evictDefaultQueryRegion();
+    }
+
+    @Test
+    void onMasterDataChanged_ShouldKeepRegions_OnSingleRowChange() {
+        invalidator.onMasterDataChanged(MasterDataChangedEvent.created(MasterDataType.FUND, 1L, "Alpha"));
+
+        verifyNoInteractions(entityCache, hibernateCache);
+    }
+
+    @Test
+    void evict_ShouldDropRowsAndQueries() {
+        invalidator.evict(MasterDataType.FUND, List.of(1L, 2L));
+
+        verify(entityCache).evict(Fund.class, 1L);
+        verify(entityCache).evict(Fund.class, 2L);
+        verify(hibernateCache).evictDefaultQueryRegion();
+    }
+}
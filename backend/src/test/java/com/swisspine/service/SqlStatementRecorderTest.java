@@ -0,0 +1,93 @@
+package com.swisspine.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementRecorderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatementRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new SqlStatementRecorder(meterRegistry);
+        ReflectionTestUtils.setField(recorder, "slowThresholdMs", 100L);
+        ReflectionTestUtils.setField(recorder, "slowestStatements", 2);
+        ReflectionTestUtils.setField(recorder, "maxShapes", 3);
+    }
+
+    @Test
+    void normalize_ShouldStripLiteralsAndCollapseInLists() {
+        assertEquals("SELECT * FROM funds WHERE name = ? AND id IN (?...) LIMIT ?",
+                SqlStatementRecorder.normalize("SELECT *\n  FROM funds\n WHERE name = 'O''Brien'"
+                        + " AND id IN (1, 2,3) LIMIT 10"));
+        assertEquals("select f1_0.id from funds f1_0 where f1_0.id in (?...)",
+                SqlStatementRecorder.normalize("select f1_0.id from funds f1_0 where f1_0.id in (?,?,?)"));
+        assertEquals("SELECT reltuples::bigint FROM pg_class WHERE oid = ?::regclass",
+                SqlStatementRecorder.normalize("SELECT reltuples::bigint FROM pg_class WHERE oid = 'planners'::regclass"));
+    }
+
+    @Test
+    void record_ShouldGroupStatementsByShape() {
+        recorder.record("SELECT * FROM funds WHERE id = 1", TimeUnit.MILLISECONDS.toNanos(5));
+        recorder.record("SELECT * FROM funds WHERE id = 2", TimeUnit.MILLISECONDS.toNanos(15));
+
+        assertEquals(1, recorder.shapes().size());
+        SqlStatementRecorder.Shape shape = recorder.shapes().iterator().next();
+        assertEquals(2L, shape.timer().count());
+        assertEquals(10.0, shape.timer().mean(TimeUnit.MILLISECONDS), 0.001);
+        assertNotNull(meterRegistry.find("swisspine.sql.statement").tag("shape", shape.id()).timer());
+        assertEquals(2L, recorder.allStatements().count());
+        assertEquals(0L, recorder.slowStatementCount());
+    }
+
+    @Test
+    void record_ShouldKeepSlowestStatementPerShapeWithinBound() {
+        recorder.record("SELECT * FROM planners WHERE id = 1", TimeUnit.MILLISECONDS.toNanos(200));
+        recorder.record("SELECT * FROM planners WHERE id = 2", TimeUnit.MILLISECONDS.toNanos(300));
+        recorder.record("SELECT * FROM funds", TimeUnit.MILLISECONDS.toNanos(150));
+        recorder.record("SELECT * FROM run_names", TimeUnit.MILLISECONDS.toNanos(400));
+
+        List<SqlStatementRecorder.SlowStatement> slowest = recorder.slowestStatements();
+        assertEquals(4L, recorder.slowStatementCount());
+        assertEquals(2, slowest.size(), "the fastest slow shape is dropped");
+        assertEquals("SELECT * FROM run_names", slowest.get(0).sql());
+        assertEquals("SELECT * FROM planners WHERE id = ?", slowest.get(1).sql());
+        assertEquals(300.0, slowest.get(1).elapsedMs(), 0.001);
+    }
+
+    @Test
+    void record_ShouldFoldShapesBeyondLimitIntoOther() {
+        recorder.record("SELECT * FROM funds", 1000);
+        recorder.record("SELECT * FROM run_names", 1000);
+        recorder.record("SELECT * FROM source_names", 1000);
+        recorder.record("SELECT * FROM report_names", 1000);
+        recorder.record("SELECT * FROM report_types", 1000);
+
+        assertEquals(4, recorder.shapes().size());
+        assertEquals(2L, meterRegistry.find("swisspine.sql.statement")
+                .tag("shape", SqlStatementRecorder.OTHER_SHAPE).timer().count());
+    }
+
+    @Test
+    void afterQuery_ShouldTimeFromBeforeQuery() {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        List<QueryInfo> queries = List.of(new QueryInfo("DELETE FROM funds WHERE id = ?"));
+
+        recorder.beforeQuery(execInfo, queries);
+        recorder.afterQuery(execInfo, queries);
+
+        assertEquals(1L, recorder.allStatements().count());
+        assertEquals("DELETE FROM funds WHERE id = ?", recorder.shapes().iterator().next().sql());
+    }
+}
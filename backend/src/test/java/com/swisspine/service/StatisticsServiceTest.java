@@ -1,5 +1,7 @@
 package com.swisspine.service;
 
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
 import com.swisspine.dto.PerformanceStatisticsDTO;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -7,18 +9,29 @@ import io.micrometer.core.instrument.search.Search;
 import jakarta.persistence.EntityManagerFactory;
 import org.hibernate.SessionFactory;
 import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,34 +44,17 @@ class StatisticsServiceTest {
     private MeterRegistry meterRegistry = new io.micrometer.core.instrument.simple.SimpleMeterRegistry();
 
     @Mock
-    private com.swisspine.repository.PlannerRepository plannerRepository;
-
-    @Mock
-    private com.swisspine.repository.ExternalConnectionRepository externalConnectionRepository;
-
-    @Mock
-    private com.swisspine.repository.FundRepository fundRepository;
-
-    @Mock
-    private com.swisspine.repository.FundAliasRepository fundAliasRepository;
-
-    @Mock
-    private com.swisspine.repository.SourceNameRepository sourceNameRepository;
-
-    @Mock
-    private com.swisspine.repository.RunNameRepository runNameRepository;
-
-    @Mock
-    private com.swisspine.repository.ReportTypeRepository reportTypeRepository;
-
-    @Mock
-    private com.swisspine.repository.ReportNameRepository reportNameRepository;
+    private JdbcTemplate jdbcTemplate;
 
     private SessionFactory sessionFactory;
 
     @Mock
     private Statistics hibernateStats;
 
+    private CacheManager cacheManager;
+
+    private SqlStatementRecorder sqlStatementRecorder;
+
     @InjectMocks
     private StatisticsService statisticsService;
 
@@ -92,26 +88,36 @@ class StatisticsServiceTest {
                 new Class[] { javax.sql.DataSource.class },
                 (proxy, method, args) -> null);
 
+        cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(URI.create("test:statistics"), getClass().getClassLoader());
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        region.setMaximumSize(OptionalLong.of(2));
+        region.setStoreByValue(false);
+        region.setNativeStatisticsEnabled(true);
+        cacheManager.createCache("com.swisspine.entity.Fund", region);
+
+        sqlStatementRecorder = new SqlStatementRecorder(meterRegistry);
+        ReflectionTestUtils.setField(sqlStatementRecorder, "slowThresholdMs", 100L);
+
         statisticsService = new StatisticsService(
                 entityManagerFactory,
                 dataSource,
                 meterRegistry,
-                plannerRepository,
-                externalConnectionRepository,
-                fundRepository,
-                fundAliasRepository,
-                sourceNameRepository,
-                runNameRepository,
-                reportTypeRepository,
-                reportNameRepository);
+                jdbcTemplate,
+                cacheManager,
+                sqlStatementRecorder,
+                new EndpointStatisticsCollector(meterRegistry));
 
     }
 
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
     @Test
     void getPerformanceStatistics_ShouldReturnCompleteDTO() {
         // Arrange
-        when(hibernateStats.getQueryExecutionCount()).thenReturn(100L);
-        when(hibernateStats.getQueryExecutionMaxTime()).thenReturn(50L);
         when(hibernateStats.getSecondLevelCacheHitCount()).thenReturn(80L);
         when(hibernateStats.getSecondLevelCacheMissCount()).thenReturn(20L);
 
@@ -128,7 +134,7 @@ class StatisticsServiceTest {
         assertNotNull(result.getUptime());
 
         // Database Stats Validation
-        assertEquals(100L, result.getDatabase().getQueryStats().getTotalQueries());
+        assertEquals(0L, result.getDatabase().getQueryStats().getTotalQueries());
         assertEquals(80.0, result.getDatabase().getQueryStats().getCacheHitRate()); // 80 / (80+20) = 0.8 * 100 = 80%
 
         // Endpoint Stats Validation (should be empty with SimpleMeterRegistry and no
@@ -149,4 +155,116 @@ class StatisticsServiceTest {
         assertNotNull(result);
         assertTrue(result.getEndpoints().isEmpty());
     }
+
+    @Test
+    void getPerformanceStatistics_ShouldReportCacheRegions() {
+        // Arrange: 3 puts into a 2-entry region, one hit and one miss
+        Cache<Object, Object> funds = cacheManager.getCache("com.swisspine.entity.Fund");
+        funds.put(1L, "Alpha");
+        funds.put(2L, "Beta");
+        funds.put(3L, "Gamma");
+        com.github.benmanes.caffeine.cache.Cache<?, ?> store = funds.unwrap(
+                com.github.benmanes.caffeine.cache.Cache.class);
+        store.cleanUp();
+        funds.get(store.asMap().keySet().iterator().next());
+        funds.get(99L);
+
+        // Act
+        PerformanceStatisticsDTO result = statisticsService.getPerformanceStatistics();
+
+        // Assert
+        PerformanceStatisticsDTO.CacheRegionStatistics region = result.getDatabase().getQueryStats()
+                .getCacheRegions().get("Fund");
+        assertNotNull(region, "regions are keyed by entity simple name");
+        assertEquals(1L, region.getHitCount());
+        assertEquals(1L, region.getMissCount());
+        assertEquals(1L, region.getEvictionCount());
+        assertEquals(2L, region.getSize());
+        assertEquals(50.0, region.getHitRate());
+    }
+
+    @Test
+    void getPerformanceStatistics_ShouldEstimateLargeTablesAndCountSmallOnes() {
+        // Arrange: funds is above the exact-count threshold, planners was never analyzed
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname"))).thenReturn(List.of(
+                Map.of("table_name", "funds", "estimate", 250_000L),
+                Map.of("table_name", "planners", "estimate", 0L)));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*)"), eq(Long.class))).thenReturn(7L);
+
+        // Act
+        PerformanceStatisticsDTO result = statisticsService.getPerformanceStatistics();
+
+        // Assert
+        Map<String, Long> totalRecords = result.getDatabase().getTotalRecords();
+        assertEquals(250_000L, totalRecords.get("funds"));
+        assertEquals(7L, totalRecords.get("planners"));
+        assertEquals(java.util.Set.of("funds"), result.getDatabase().getEstimatedRecords());
+        assertEquals(StatisticsService.RECORD_TABLES.size(), totalRecords.size());
+        verify(jdbcTemplate, never()).queryForObject("SELECT count(*) FROM funds", Long.class);
+        verify(jdbcTemplate, times(StatisticsService.RECORD_TABLES.size() - 1))
+                .queryForObject(startsWith("SELECT count(*)"), eq(Long.class));
+    }
+
+    @Test
+    void getPerformanceStatistics_ShouldServeLatestSampleWithItsAge() {
+        // Arrange
+        PerformanceStatisticsDTO sampled = statisticsService.sample();
+
+        // Act
+        PerformanceStatisticsDTO first = statisticsService.getPerformanceStatistics();
+        PerformanceStatisticsDTO second = statisticsService.getPerformanceStatistics();
+
+        // Assert: no new collection per request
+        assertEquals(sampled.getTimestamp(), first.getTimestamp());
+        assertEquals(sampled.getTimestamp(), second.getTimestamp());
+        assertSame(sampled.getDatabase(), second.getDatabase());
+        assertNotNull(first.getAgeMs());
+        assertTrue(second.getAgeMs() >= first.getAgeMs());
+        verify(jdbcTemplate, times(1)).queryForList(anyString());
+
+        // The next background sample replaces it
+        PerformanceStatisticsDTO resampled = statisticsService.sample();
+        assertSame(resampled.getDatabase(), statisticsService.getPerformanceStatistics().getDatabase());
+    }
+
+    @Test
+    void liveSample_ShouldReuseRecordCountsWithoutQueryingDatabase() {
+        // Arrange
+        PerformanceStatisticsDTO sampled = statisticsService.sample();
+        clearInvocations(jdbcTemplate);
+
+        // Act
+        PerformanceStatisticsDTO live = statisticsService.liveSample();
+
+        // Assert
+        assertSame(sampled.getDatabase().getTotalRecords(), live.getDatabase().getTotalRecords());
+        assertNotNull(live.getDatabase().getQueryStats());
+        assertNotNull(live.getJvm());
+        verifyNoInteractions(jdbcTemplate);
+        assertSame(sampled.getDatabase(), statisticsService.getPerformanceStatistics().getDatabase(),
+                "live samples do not replace the background sample");
+    }
+
+    @Test
+    void getPerformanceStatistics_ShouldReportMeasuredStatementLatency() {
+        // Arrange: three fast executions of one shape, one slow of another
+        for (long id = 1; id <= 3; id++) {
+            sqlStatementRecorder.record("SELECT * FROM funds WHERE id = " + id, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        sqlStatementRecorder.record("SELECT count(*) FROM planners", TimeUnit.MILLISECONDS.toNanos(250));
+
+        // Act
+        PerformanceStatisticsDTO.QueryStatistics stats = statisticsService.sample().getDatabase().getQueryStats();
+
+        // Assert
+        assertEquals(4L, stats.getTotalQueries());
+        assertEquals(70.0, stats.getAvgExecutionTime(), 0.001);
+        assertTrue(stats.getP95ExecutionTime() >= 200.0, "p95 comes from the histogram, not the max / count");
+        assertEquals(1, stats.getSlowQueries());
+        assertEquals("SELECT count(*) FROM planners", stats.getSlowestStatements().get(0).getSql());
+        assertEquals(2, stats.getTopStatements().size());
+        assertEquals("SELECT count(*) FROM planners", stats.getTopStatements().get(0).getSql());
+        assertEquals("SELECT * FROM funds WHERE id = ?", stats.getTopStatements().get(1).getSql());
+        assertEquals(3L, stats.getTopStatements().get(1).getCount());
+    }
 }
@@ -0,0 +1,160 @@
+package com.swisspine.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swisspine.dto.PerformanceStatisticsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsStreamServiceTest {
+
+    @Mock
+    private StatisticsService statisticsService;
+
+    private ObjectMapper objectMapper;
+    private List<Runnable> pendingSends;
+    private StatisticsStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        pendingSends = new ArrayList<>();
+        streamService = new StatisticsStreamService(statisticsService, objectMapper, pendingSends::add);
+        ReflectionTestUtils.setField(streamService, "queueCapacity", 3);
+    }
+
+    @Test
+    void tick_ShouldSampleOnceForAllClientsAndSendOnlyChanges() throws Exception {
+        // Arrange
+        when(statisticsService.liveSample()).thenReturn(sample("0h 0m 1s", 100L), sample("0h 0m 3s", 100L));
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        streamService.register(first);
+        streamService.register(second);
+
+        // Act
+        streamService.tick();
+        streamService.tick();
+        sendAll();
+
+        // Assert
+        verify(statisticsService, times(2)).liveSample();
+        verify(statisticsService, never()).sample();
+        assertEquals(first.events, second.events);
+        assertTrue(first.events.get(0).startsWith("id:1\nevent:snapshot\n"));
+        assertTrue(first.events.get(1).startsWith("id:2\nevent:delta\n"));
+        JsonNode delta = objectMapper.readTree(first.data(1));
+        assertEquals("0h 0m 3s", delta.get("uptime").asText());
+        assertFalse(delta.has("jvm"), "unchanged fields are not sent");
+    }
+
+    @Test
+    void register_ShouldSendLastSnapshotToLateClient() throws Exception {
+        when(statisticsService.liveSample()).thenReturn(sample("0h 0m 1s", 100L));
+        streamService.register(new RecordingEmitter());
+        streamService.tick();
+
+        RecordingEmitter late = new RecordingEmitter();
+        streamService.register(late);
+        sendAll();
+
+        assertEquals(1, late.events.size());
+        assertTrue(late.events.get(0).startsWith("id:1\nevent:snapshot\n"));
+        assertEquals(100L, objectMapper.readTree(late.data(0)).at("/jvm/memoryUsed").asLong());
+    }
+
+    @Test
+    void heartbeat_ShouldDropClientThatFallsBehind() {
+        // Arrange: sends never run, so the queue of 3 fills up
+        RecordingEmitter stalled = new RecordingEmitter();
+        streamService.register(stalled);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            streamService.heartbeat();
+        }
+
+        // Assert
+        assertEquals(0, streamService.getSubscriberCount());
+        assertFalse(stalled.completed, "the scheduler thread never calls the emitter");
+        assertEquals(1, pendingSends.size(), "one sender task per client at a time");
+
+        sendAll();
+        assertTrue(stalled.completed, "the sender task completes the dropped client");
+        assertTrue(stalled.events.isEmpty(), "queued events of a dropped client are discarded");
+    }
+
+    @Test
+    void tick_ShouldNotSampleWithoutClients() {
+        streamService.tick();
+
+        verifyNoInteractions(statisticsService);
+    }
+
+    @Test
+    void mergePatch_ShouldContainChangedAddedAndRemovedFields() throws Exception {
+        JsonNode previous = objectMapper.readTree("{\"a\":1,\"b\":{\"c\":2,\"d\":3},\"e\":4}");
+        JsonNode current = objectMapper.readTree("{\"a\":1,\"b\":{\"c\":2,\"d\":5},\"f\":6}");
+
+        assertEquals(objectMapper.readTree("{\"b\":{\"d\":5},\"f\":6,\"e\":null}"),
+                StatisticsStreamService.mergePatch(previous, current));
+    }
+
+    private void sendAll() {
+        while (!pendingSends.isEmpty()) {
+            pendingSends.remove(0).run();
+        }
+    }
+
+    private static PerformanceStatisticsDTO sample(String uptime, long memoryUsed) {
+        return PerformanceStatisticsDTO.builder()
+                .uptime(uptime)
+                .endpoints(Map.of())
+                .jvm(PerformanceStatisticsDTO.JvmStatistics.builder().memoryUsed(memoryUsed).threadCount(10).build())
+                .build();
+    }
+
+    /**
+     * Records the text of each event instead of writing to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> events = new ArrayList<>();
+        boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            events.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        String data(int index) {
+            String event = events.get(index);
+            return event.substring(event.indexOf("data:") + 5).trim();
+        }
+    }
+}
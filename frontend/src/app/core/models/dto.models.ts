@@ -71,6 +71,15 @@ export interface ReportNameDTO {
     updatedAt?: string;
 }
 
+export interface MasterDataBootstrapDTO {
+    sourceNames: SourceNameDTO[];
+    runNames: RunNameDTO[];
+    reportTypes: ReportTypeDTO[];
+    reportNames: ReportNameDTO[];
+    funds: FundDTO[];
+    reportNamesByType: { [reportTypeId: string]: ReportNameDTO[] };
+}
+
 export interface PlannerFundDTO {
     id?: number;
     plannerId: number;
@@ -1,5 +1,6 @@
 export interface PerformanceStatistics {
     timestamp: string;
+    ageMs?: number;
     uptime: string;
     database: DatabaseStatistics;
     endpoints: { [key: string]: EndpointStatistics };
@@ -8,15 +9,36 @@ export interface PerformanceStatistics {
 
 export interface DatabaseStatistics {
     totalRecords: { [key: string]: number };
+    estimatedRecords?: string[];
     queryStats: QueryStatistics;
     connectionPool: ConnectionPoolStatistics;
 }
 
 export interface QueryStatistics {
     avgExecutionTime: number;
+    p95ExecutionTime?: number;
     slowQueries: number;
     totalQueries: number;
     cacheHitRate: number;
+    topStatements?: StatementStatistics[];
+    slowestStatements?: SlowStatement[];
+}
+
+export interface StatementStatistics {
+    shape: string;
+    sql: string;
+    count: number;
+    totalTime: number;
+    avgTime: number;
+    p95Time: number;
+    maxTime: number;
+}
+
+export interface SlowStatement {
+    shape: string;
+    sql: string;
+    executionTime: number;
+    executedAt: string;
 }
 
 export interface ConnectionPoolStatistics {
@@ -28,9 +50,13 @@ export interface ConnectionPoolStatistics {
 
 export interface EndpointStatistics {
     avgResponseTime: number;
+    p50ResponseTime?: number;
     p95ResponseTime: number;
+    p99ResponseTime?: number;
     requestCount: number;
+    throughput?: number;
     errorRate: number;
+    clientErrorRate?: number;
 }
 
 export interface JvmStatistics {
@@ -39,3 +65,16 @@ export interface JvmStatistics {
     gcCount: number;
     threadCount: number;
 }
+
+export interface PerformanceHistory {
+    from: string;
+    step: number;
+    timestamps: number[];
+    series: { [name: string]: number[] };
+    endpoints: { [key: string]: EndpointHistory };
+}
+
+export interface EndpointHistory {
+    throughput: number[];
+    avgResponseTime: number[];
+}
@@ -10,6 +10,7 @@ import {
     RunNameDTO,
     ReportTypeDTO,
     ReportNameDTO,
+    MasterDataBootstrapDTO,
     PageResponse
 } from '../models/dto.models';
 
@@ -67,6 +68,10 @@ export class ApiService {
         return this.http.get<PlannerDTO>(`${this.baseUrl}/planners/${id}`);
     }
 
+    getPlannerFull(id: number): Observable<PlannerDTO> {
+        return this.http.get<PlannerDTO>(`${this.baseUrl}/planners/${id}/full`);
+    }
+
     createPlanner(planner: PlannerDTO): Observable<PlannerDTO> {
         return this.http.post<PlannerDTO>(`${this.baseUrl}/planners`, planner);
     }
@@ -92,6 +97,11 @@ export class ApiService {
         return this.http.get<PageResponse<PlannerDTO>>(`${this.baseUrl}/planners/search`, { params });
     }
 
+    // Master Data - all lists in one request
+    getMasterDataBootstrap(): Observable<MasterDataBootstrapDTO> {
+        return this.http.get<MasterDataBootstrapDTO>(`${this.baseUrl}/master-data/bootstrap`);
+    }
+
     // Master Data - Source Names
     getSourceNames(): Observable<SourceNameDTO[]> {
         return this.http.get<SourceNameDTO[]>(`${this.baseUrl}/master-data/source-names`);
@@ -76,24 +76,12 @@ export class PlannerFormComponent implements OnInit {
             this.externalConnections = response.content.sort((a, b) => a.name!.localeCompare(b.name!));
         });
 
-        this.apiService.getFunds().subscribe(data => {
-            this.funds = data.sort((a, b) => a.name!.localeCompare(b.name!));
-        });
-
-        this.apiService.getSourceNames().subscribe(data => {
-            this.sourceNames = data.sort((a, b) => a.name!.localeCompare(b.name!));
-        });
-
-        this.apiService.getRunNames().subscribe(data => {
-            this.runNames = data.sort((a, b) => a.name!.localeCompare(b.name!));
-        });
-
-        this.apiService.getReportTypes().subscribe(data => {
-            this.reportTypes = data.sort((a, b) => a.name!.localeCompare(b.name!));
-        });
-
-        this.apiService.getReportNames().subscribe(data => {
-            this.reportNames = data.sort((a, b) => a.name!.localeCompare(b.name!));
+        this.apiService.getMasterDataBootstrap().subscribe(data => {
+            this.funds = data.funds;
+            this.sourceNames = data.sourceNames;
+            this.runNames = data.runNames;
+            this.reportTypes = data.reportTypes;
+            this.reportNames = data.reportNames;
         });
     }
 
@@ -131,6 +119,7 @@ export class PlannerFormComponent implements OnInit {
         const fundGroup = this.fb.group({
             id: [fund?.id || null],
             fundId: [fund?.fundId || fund?.fund?.id || null, Validators.required],
+            fundAliasId: [fund?.fundAliasId || null],
             fundAlias: [fund?.fundAlias || '']
         });
         this.fundsArray.push(fundGroup);
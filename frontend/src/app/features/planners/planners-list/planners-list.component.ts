@@ -115,8 +115,24 @@ export class PlannersListComponent implements OnInit {
     }
 
     toggleExpand(plannerId: number): void {
-        this.expandedPlannerId = this.expandedPlannerId === plannerId ? null : plannerId;
         this.newPlanner = null;
+        if (this.expandedPlannerId === plannerId) {
+            this.expandedPlannerId = null;
+            return;
+        }
+
+        // List rows carry no funds or sources; load the full graph before
+        // editing so saving does not remove children the form never saw
+        this.apiService.getPlannerFull(plannerId).subscribe({
+            next: (planner) => {
+                this.planners = this.planners.map(p => p.id === plannerId ? planner : p);
+                this.expandedPlannerId = plannerId;
+            },
+            error: (error) => {
+                console.error('Error loading planner:', error);
+                this.snackBar.open('Error loading planner', 'Close', { duration: 3000 });
+            }
+        });
     }
 
     isExpanded(plannerId?: number): boolean {